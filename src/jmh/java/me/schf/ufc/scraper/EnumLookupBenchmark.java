@@ -0,0 +1,74 @@
+package me.schf.ufc.scraper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.data.WeightClass;
+
+/**
+ * The text-to-enum lookups run for every fight row. {@code first} and {@code last} pick the
+ * cheapest and the most expensive constant for a linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnumLookupBenchmark {
+
+    @Param({ "first", "last" })
+    public String position;
+
+    private String method;
+    private String weightClass;
+    private String round;
+    private String column;
+
+    @Setup
+    public void setUp() {
+        boolean first = "first".equals(position);
+        // copies, so the lookups cannot short-circuit on identity
+        method = new String(pick(Method.values(), first).getText());
+        weightClass = new String(pick(WeightClass.values(), first).getText());
+        round = new String(pick(Round.values(), first).getText());
+        column = new String(pick(FightDetailColumnIndices.Column.values(), first).getName());
+    }
+
+    @Benchmark
+    public Method methodFromText() {
+        return Method.fromText(method);
+    }
+
+    @Benchmark
+    public WeightClass weightClassFromText() {
+        return WeightClass.fromText(weightClass);
+    }
+
+    @Benchmark
+    public Round roundFromText() {
+        return Round.fromText(round);
+    }
+
+    @Benchmark
+    public FightDetailColumnIndices.Column columnFromName() {
+        return FightDetailColumnIndices.Column.fromName(column);
+    }
+
+    private static <T> T pick(T[] values, boolean first) {
+        return first ? values[0] : values[values.length - 1];
+    }
+}
@@ -0,0 +1,61 @@
+package me.schf.ufc.scraper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.schf.ufc.scraper.data.Event;
+
+/**
+ * Whole scrapes against fixtures: every event in the index is "fetched" from memory, parsed and
+ * built, so the score is the cost of a bulk reparse of that listing.
+ * <p>
+ * {@code scrapeEventsFromDocument} starts from an already-parsed index; {@code scrapeEvents} also
+ * pays for reading the listing through the page fetcher with the streaming index parser.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventScraperBenchmark {
+
+    @Param({ "index-small.html", "index-full.html" })
+    public String index;
+
+    private Document indexPage;
+    private EventScraper eventScraper;
+
+    @Setup
+    public void setUp() {
+        indexPage = Fixtures.document(index);
+        eventScraper = new EventScraper.Builder()
+                .pageFetcher(new FixturePageFetcher(index))
+                .build();
+    }
+
+    @Benchmark
+    public List<Event> scrapeEventsFromDocument() {
+        return eventScraper.scrapeEvents(indexPage);
+    }
+
+    @Benchmark
+    public List<Event> scrapeEvents() throws IOException {
+        return eventScraper.scrapeEvents();
+    }
+}
@@ -0,0 +1,40 @@
+package me.schf.ufc.scraper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Column layout resolution: {@code construct} resolves a header row from scratch, {@code cached}
+ * is what every event page after the first pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FightDetailColumnIndicesBenchmark {
+
+    private final List<String> headers = List.of(
+            "W/L", "Fighter", "Kd", "Str", "Td", "Sub", "Weight class", "Method", "Round", "Time");
+
+    @Benchmark
+    public FightDetailColumnIndices construct() {
+        return new FightDetailColumnIndices(headers);
+    }
+
+    @Benchmark
+    public FightDetailColumnIndices cached() {
+        return FightDetailColumnIndices.forHeaders(headers);
+    }
+}
@@ -0,0 +1,80 @@
+package me.schf.ufc.scraper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.schf.ufc.scraper.data.FightResult;
+
+/**
+ * Fight rows parsed per second from already-built event pages.
+ * <p>
+ * {@code parseTitleCard} keeps the single-fixture number comparable across releases;
+ * {@code parseEventFights} covers the other card shapes (no titles, draws and no contests,
+ * early one-round open-weight events) and reports pages per second.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FightResultScraperBenchmark {
+
+    private static final int FIGHTS_ON_TITLE_CARD = 13;
+
+    private final FightResultScraper scraper = new FightResultScraper();
+    private Document titleCard;
+
+    @Setup
+    public void setUp() {
+        titleCard = Fixtures.document("event-details-title-card.html");
+        int rows = scraper.parseEventFights(titleCard).size();
+        if (rows != FIGHTS_ON_TITLE_CARD) {
+            throw new IllegalStateException("Expected " + FIGHTS_ON_TITLE_CARD + " fights but parsed " + rows);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS_ON_TITLE_CARD)
+    public List<FightResult> parseTitleCard() {
+        return scraper.parseEventFights(titleCard);
+    }
+
+    @Benchmark
+    public List<FightResult> parseEventFights(Card card) {
+        return scraper.parseEventFights(card.page);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Card {
+        @Param({
+            "event-details-title-card.html",
+            "event-details-fight-night.html",
+            "event-details-draws.html",
+            "event-details-early-era.html"
+        })
+        public String fixture;
+
+        Document page;
+
+        @Setup
+        public void setUp() {
+            page = Fixtures.document(fixture);
+        }
+    }
+}
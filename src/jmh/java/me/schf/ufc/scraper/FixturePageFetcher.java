@@ -0,0 +1,36 @@
+package me.schf.ufc.scraper;
+
+import java.util.List;
+import java.util.Map;
+
+import me.schf.ufc.scraper.fetch.FetchResponse;
+import me.schf.ufc.scraper.fetch.PageFetcher;
+
+/**
+ * Serves fixtures instead of going to the network. Listing URLs get the given index page and
+ * every event URL is mapped onto one of the event-detail fixtures.
+ */
+class FixturePageFetcher implements PageFetcher {
+
+    static final List<String> EVENT_FIXTURES = List.of(
+            "event-details-title-card.html",
+            "event-details-fight-night.html",
+            "event-details-draws.html",
+            "event-details-early-era.html");
+
+    private final byte[] index;
+    private final List<byte[]> events;
+
+    FixturePageFetcher(String indexFixture) {
+        this.index = Fixtures.bytes(indexFixture);
+        this.events = EVENT_FIXTURES.stream().map(Fixtures::bytes).toList();
+    }
+
+    @Override
+    public FetchResponse fetch(String url, Map<String, String> headers) {
+        byte[] body = url.contains("/event-details/")
+                ? events.get(Math.floorMod(url.hashCode(), events.size()))
+                : index;
+        return new FetchResponse(url, 200, Map.of(), body, "UTF-8", false);
+    }
+}
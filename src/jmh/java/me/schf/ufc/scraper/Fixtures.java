@@ -0,0 +1,43 @@
+package me.schf.ufc.scraper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+/**
+ * Loads the HTML fixtures under {@code src/jmh/resources/fixtures}.
+ */
+final class Fixtures {
+
+    static final String BASE_URI = "http://www.ufcstats.com/";
+
+    private Fixtures() {
+    }
+
+    static byte[] bytes(String name) {
+        try (InputStream in = open(name)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Document document(String name) {
+        try (InputStream in = open(name)) {
+            return Jsoup.parse(in, "UTF-8", BASE_URI);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream open(String name) throws IOException {
+        InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name);
+        if (in == null) {
+            throw new IOException("Missing fixture: " + name);
+        }
+        return in;
+    }
+}
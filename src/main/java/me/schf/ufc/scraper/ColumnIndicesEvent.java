@@ -0,0 +1,21 @@
+package me.schf.ufc.scraper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.schf.ufc.scraper.ColumnIndices")
+@Label("Resolve Column Indices")
+@Category({ "UFC Scraper", "Parsing" })
+@Description("Mapping of a fight table's header names to column positions")
+@StackTrace(false)
+final class ColumnIndicesEvent extends jdk.jfr.Event {
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Valid")
+    boolean valid;
+}
@@ -0,0 +1,226 @@
+package me.schf.ufc.scraper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import me.schf.ufc.scraper.fetch.FetchResponse;
+import me.schf.ufc.scraper.fetch.PageFetcher;
+
+/**
+ * Lazily supplies the rows of the completed-events listing, newest event first.
+ * <p>
+ * Scrapes reaching far back read the single {@code page=all} listing. Recent-only scrapes walk
+ * the paginated listing instead and only fetch another page when the consumer asks for more
+ * rows, so a query for last weekend's card downloads a single small page. If the paginated walk
+ * runs past {@code maxPages} without reaching the start date, it falls back to the full listing
+ * and skips the events it has already returned.
+ * </p>
+ * <p>
+ * Pages are never built into a full {@link org.jsoup.nodes.Document}. Each one is parsed
+ * incrementally with a {@link StreamParser}, rows are handed out as soon as they are complete,
+ * and a row is detached from the partial tree once the consumer moves on to the next one. Heap
+ * use therefore stays flat however long the event history grows.
+ * </p>
+ */
+class EventListing {
+
+    static final String ALL_EVENTS_URL = "http://www.ufcstats.com/statistics/events/completed?page=all";
+    static final String PAGED_EVENTS_URL = "http://www.ufcstats.com/statistics/events/completed?page=";
+    static final int DEFAULT_MAX_PAGES = 4;
+
+    // a listing page holds 25 cards, which is usually a little over five months of events
+    private static final int APPROX_DAYS_PER_PAGE = 150;
+
+    private static final Evaluator ROW = QueryParser.parse(EventScraper.Selectors.ROW);
+    private static final Evaluator EVENT_LINK = QueryParser.parse(EventScraper.Selectors.EVENT_LINK);
+
+    private final PageFetcher pageFetcher;
+    private final LocalDate startDate;
+    private final int maxPages;
+
+    EventListing(PageFetcher pageFetcher, LocalDate startDate, int maxPages) {
+        this.pageFetcher = pageFetcher;
+        this.startDate = startDate;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Fetches the first listing page and returns all rows, fetching later pages on demand.
+     * Failures fetching or parsing later pages surface as {@link UncheckedIOException}.
+     * The returned stream should be closed to release the page being parsed.
+     *
+     * @return the listing rows, newest first
+     * @throws IOException if the first listing page cannot be fetched
+     */
+    Stream<Element> rows() throws IOException {
+        RowIterator iterator = usePagination()
+                ? new PagedRowIterator(streamRows(PAGED_EVENTS_URL + 1))
+                : streamRows(ALL_EVENTS_URL);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    private boolean usePagination() {
+        long daysBack = ChronoUnit.DAYS.between(startDate, LocalDate.now());
+        return daysBack <= (long) maxPages * APPROX_DAYS_PER_PAGE;
+    }
+
+    private PageRows streamRows(String url) throws IOException {
+        FetchResponse response = pageFetcher.fetch(url);
+        StreamParser parser = new StreamParser(Parser.htmlParser()).parse(response.openReader(), url);
+        return new PageRows(parser);
+    }
+
+    private static String eventLink(Element row) {
+        Element link = row.selectFirst(EVENT_LINK);
+        return link != null ? link.attr("href") : null;
+    }
+
+    private interface RowIterator extends Iterator<Element>, Closeable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Rows of a single listing page, pulled from the stream parser one at a time.
+     */
+    private static class PageRows implements RowIterator {
+        private final StreamParser parser;
+        private Element next;
+        private Element previous;
+        private boolean done;
+
+        PageRows(StreamParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                if (previous != null) {
+                    // the consumer is done with it; let the partial tree forget it
+                    previous.remove();
+                    previous = null;
+                }
+                try {
+                    next = parser.selectNext(ROW);
+                } catch (IOException e) {
+                    close();
+                    throw new UncheckedIOException(e);
+                }
+                if (next == null) {
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            previous = next;
+            next = null;
+            return previous;
+        }
+
+        @Override
+        public void close() {
+            done = true;
+            parser.close();
+        }
+    }
+
+    private class PagedRowIterator implements RowIterator {
+        private final Set<String> seenLinks = new HashSet<>();
+        private PageRows current;
+        private int page = 1;
+        private boolean pageHadEvents;
+        private boolean onAllEventsPage;
+        private Element next;
+
+        PagedRowIterator(PageRows firstPage) {
+            this.current = firstPage;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current.hasNext()) {
+                    accept(current.next());
+                } else if (!advance()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Element row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            current.close();
+        }
+
+        private void accept(Element row) {
+            String link = eventLink(row);
+            if (onAllEventsPage) {
+                if (link == null || !seenLinks.contains(link)) {
+                    next = row;
+                }
+            } else {
+                if (link != null) {
+                    seenLinks.add(link);
+                    pageHadEvents = true;
+                }
+                next = row;
+            }
+        }
+
+        private boolean advance() {
+            // a page without events means we walked past the end of the listing
+            if (onAllEventsPage || !pageHadEvents) {
+                return false;
+            }
+            try {
+                if (page < maxPages) {
+                    page++;
+                    pageHadEvents = false;
+                    current = streamRows(PAGED_EVENTS_URL + page);
+                } else {
+                    onAllEventsPage = true;
+                    current = streamRows(ALL_EVENTS_URL);
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
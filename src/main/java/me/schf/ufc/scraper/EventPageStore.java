@@ -0,0 +1,318 @@
+package me.schf.ufc.scraper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.export.ColumnarReader;
+import me.schf.ufc.scraper.export.ColumnarWriter;
+
+/**
+ * Durable record of the event pages seen so far: a content hash per event URL together with the
+ * event parsed from that page.
+ * <p>
+ * Completed events almost never change, so when a fetched page hashes the same as last time the
+ * stored fights are reused and the page is neither turned into a DOM nor parsed. The stored
+ * event is what the event page alone yields: fight rows without per-round stats or fighter
+ * profiles, which are added afresh on every scrape.
+ * </p>
+ * <p>
+ * The store is a directory holding segments of events in the {@link ColumnarWriter} format and
+ * an {@code index} file listing, for each URL, its hash and the segment and row of its event.
+ * Only the index is kept in memory; a stored event is read back from its memory-mapped segment
+ * when a page turns out unchanged. {@link #save()} appends the events stored since the last save
+ * as a new segment and then atomically replaces the index, so a crash leaves the previous state
+ * intact. Once superseded rows outnumber live ones, or segments pile up, the live events are
+ * rewritten into a single segment.
+ * </p>
+ */
+public class EventPageStore {
+
+    /**
+     * Notified when an event page that was stored before now has different content, e.g. after a
+     * result was overturned.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+
+        /**
+         * @param url      the event page URL
+         * @param previous the event as parsed from the stored page
+         * @param current  the event as parsed from the new page
+         */
+        void eventChanged(String url, Event previous, Event current);
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(EventPageStore.class.getName());
+
+    private static final String INDEX_FILE = "index";
+    private static final String GENERATION_KEY = "generation=";
+    private static final String SEGMENT_KEY = "segment=";
+    private static final String PAGE_KEY = "page=";
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int MAX_SEGMENTS = 16;
+    // row of an event stored since the last save, not yet in any segment
+    private static final int PENDING = -1;
+
+    private final Path dir;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, Event> pending = new HashMap<>();
+    // rows written to each segment, live or superseded
+    private final Map<Long, Integer> segmentRows = new TreeMap<>();
+    private final Map<Long, ColumnarReader> readers = new HashMap<>();
+    private long generation;
+
+    private EventPageStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Loads the index of the store kept in {@code dir}, or starts an empty one if there is none.
+     *
+     * @param dir the store directory
+     * @return the loaded store
+     * @throws IOException if the store exists but cannot be read
+     */
+    public static EventPageStore load(Path dir) throws IOException {
+        EventPageStore store = new EventPageStore(dir);
+        Path index = dir.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return store;
+        }
+        int legacyRow = 0;
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            if (line.startsWith(GENERATION_KEY)) {
+                store.generation = Long.parseLong(line.substring(GENERATION_KEY.length()).trim());
+            } else if (line.startsWith(SEGMENT_KEY)) {
+                String[] parts = line.substring(SEGMENT_KEY.length()).trim().split(" ");
+                store.segmentRows.put(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+            } else if (line.startsWith(PAGE_KEY)) {
+                String[] parts = line.substring(PAGE_KEY.length()).split(" ", 3);
+                if (parts.length == 3) {
+                    int colon = parts[1].indexOf(':');
+                    store.entries.put(parts[2].trim(), new Entry(HEX.parseHex(parts[0]),
+                            Long.parseLong(parts[1].substring(0, colon)), Integer.parseInt(parts[1].substring(colon + 1))));
+                } else if (parts.length == 2) {
+                    // written before segments: one events file, its rows in index order
+                    store.entries.put(parts[1].trim(), new Entry(HEX.parseHex(parts[0]), store.generation, legacyRow++));
+                }
+            }
+        }
+        if (legacyRow > 0) {
+            store.segmentRows.put(store.generation, legacyRow);
+        }
+        for (var segment : store.segmentRows.entrySet()) {
+            if (!Files.exists(store.eventsFile(segment.getKey()))) {
+                throw new IOException("Event page store " + dir + " is missing segment " + segment.getKey());
+            }
+        }
+        return store;
+    }
+
+    /**
+     * @return the content hash to pass to {@link #getIfUnchanged} and {@link #put}
+     */
+    static byte[] hash(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the event last stored for the page, if any
+     * @throws UncheckedIOException if the stored event cannot be read
+     */
+    public synchronized Optional<Event> get(String url) {
+        Entry entry = entries.get(url);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(read(url, entry));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the stored event if the page was stored with the same content hash and can still
+     *         be read
+     */
+    synchronized Optional<Event> getIfUnchanged(String url, byte[] hash) {
+        Entry entry = entries.get(url);
+        if (entry == null || !Arrays.equals(entry.hash, hash)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(read(url, entry));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read the stored event of " + url + ", parsing the page again", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the event parsed from a page with the given content hash.
+     *
+     * @return the previously stored event if the page had been stored with different content
+     */
+    synchronized Optional<Event> put(String url, byte[] hash, Event event) {
+        Entry previous = entries.get(url);
+        Event previousEvent = null;
+        if (previous != null && !Arrays.equals(previous.hash, hash)) {
+            try {
+                previousEvent = read(url, previous);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read the stored event of " + url, e);
+            }
+        }
+        entries.put(url, new Entry(hash, 0, PENDING));
+        pending.put(url, event);
+        return Optional.ofNullable(previousEvent);
+    }
+
+    /**
+     * Persists the events stored since the store was loaded or last saved, if any.
+     *
+     * @throws IOException if the store cannot be written
+     */
+    public synchronized void save() throws IOException {
+        if (pending.isEmpty()) {
+            closeReaders();
+            return;
+        }
+        Files.createDirectories(dir);
+        long next = generation + 1;
+        ColumnarWriter writer = new ColumnarWriter();
+        Map<String, Entry> written = new LinkedHashMap<>();
+        boolean compact = needsCompaction();
+        int row = 0;
+        for (var entry : entries.entrySet()) {
+            Entry stored = entry.getValue();
+            if (stored.row == PENDING || compact) {
+                writer.add(read(entry.getKey(), stored));
+                written.put(entry.getKey(), new Entry(stored.hash, next, row++));
+            }
+        }
+        writer.write(eventsFile(next));
+
+        Map<Long, Integer> rows = new TreeMap<>(compact ? Map.of() : segmentRows);
+        rows.put(next, row);
+        Map<String, Entry> updated = new LinkedHashMap<>(entries);
+        updated.putAll(written);
+        writeIndex(next, rows, updated);
+
+        closeReaders();
+        for (long segment : segmentRows.keySet()) {
+            if (!rows.containsKey(segment)) {
+                Files.deleteIfExists(eventsFile(segment));
+            }
+        }
+        entries.putAll(written);
+        segmentRows.clear();
+        segmentRows.putAll(rows);
+        pending.clear();
+        generation = next;
+    }
+
+    /**
+     * Whether the next save should rewrite every live event into one segment instead of appending.
+     */
+    private boolean needsCompaction() {
+        if (segmentRows.size() >= MAX_SEGMENTS) {
+            return true;
+        }
+        int live = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.row != PENDING) {
+                live++;
+            }
+        }
+        int total = segmentRows.values().stream().mapToInt(Integer::intValue).sum();
+        return total - live > live;
+    }
+
+    private void writeIndex(long next, Map<Long, Integer> rows, Map<String, Entry> pages) throws IOException {
+        Path index = dir.resolve(INDEX_FILE);
+        Path temp = Files.createTempFile(dir, INDEX_FILE, ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                out.write(GENERATION_KEY + next);
+                out.newLine();
+                for (var segment : rows.entrySet()) {
+                    out.write(SEGMENT_KEY + segment.getKey() + " " + segment.getValue());
+                    out.newLine();
+                }
+                for (var page : pages.entrySet()) {
+                    Entry entry = page.getValue();
+                    out.write(PAGE_KEY + HEX.formatHex(entry.hash) + " " + entry.segment + ":" + entry.row + " "
+                            + page.getKey());
+                    out.newLine();
+                }
+            }
+            Files.move(temp, index, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Event read(String url, Entry entry) throws IOException {
+        if (entry.row == PENDING) {
+            return pending.get(url);
+        }
+        ColumnarReader reader = readers.get(entry.segment);
+        if (reader == null) {
+            reader = ColumnarReader.open(eventsFile(entry.segment));
+            readers.put(entry.segment, reader);
+        }
+        try {
+            return reader.readEvent(entry.row);
+        } catch (RuntimeException e) {
+            throw new IOException("Segment " + entry.segment + " of event page store " + dir
+                    + " has no readable row " + entry.row + " for " + url, e);
+        }
+    }
+
+    private void closeReaders() {
+        for (ColumnarReader reader : readers.values()) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to close an event page store segment", e);
+            }
+        }
+        readers.clear();
+    }
+
+    private Path eventsFile(long segment) {
+        return dir.resolve("events-" + segment + ".ufcc");
+    }
+
+    /**
+     * Where the event of a page is kept: a row of a segment, or {@link #PENDING} until saved.
+     */
+    private record Entry(byte[] hash, long segment, int row) {
+    }
+}
@@ -0,0 +1,252 @@
+package me.schf.ufc.scraper;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.schf.ufc.scraper.EventScraper.EventRowParser;
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.fetch.FetchResponse;
+import me.schf.ufc.scraper.metrics.ScraperMetrics;
+
+/**
+ * Scrapes events in two stages so that downloading and parsing overlap.
+ * <p>
+ * Up to {@code fetchers} event pages are downloaded at once on virtual threads and put, still
+ * unparsed, into a bounded queue. A fixed pool of platform parse threads takes them from there
+ * and extracts the fights. A full queue holds the fetchers back, so a slow parse stage does not
+ * fill the heap with raw pages. When finishing an event needs more I/O (fight details, fighter
+ * profiles or the checkpoint), that part is handed back to a virtual thread so the parse threads
+ * never wait on the network.
+ * </p>
+ * <p>
+ * The queue depth, the fetches in flight and the busy parse threads are published as gauges in
+ * {@link ScraperMetrics}: a queue that stays full means parsing is the bottleneck, one that stays
+ * empty with idle parsers means fetching is. Events are emitted in listing order.
+ * </p>
+ */
+final class EventPipeline {
+
+    private static final Logger LOGGER = Logger.getLogger(EventPipeline.class.getName());
+
+    // a parse is CPU work that ignores interrupts, but no single event page takes this long
+    private static final Duration PARSE_JOIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final EventScraper scraper;
+    private final int fetchers;
+    private final int parseThreads;
+    private final ScraperMetrics metrics;
+
+    EventPipeline(EventScraper scraper, int fetchers, int parseThreads, ScraperMetrics metrics) {
+        this.scraper = scraper;
+        this.fetchers = fetchers;
+        this.parseThreads = parseThreads;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Scrapes every candidate and hands the events to {@code action} in order.
+     *
+     * @return {@code false} if interrupted before every event was emitted
+     */
+    boolean run(Iterator<EventRowParser> candidates, Consumer<? super Event> action) {
+        BlockingQueue<Job> queue = new ArrayBlockingQueue<>(2 * parseThreads);
+        Semaphore fetchPermits = new Semaphore(fetchers);
+        // bounds the jobs held in memory: fetching, queued, parsing or waiting to be emitted
+        int window = fetchers + queue.remainingCapacity() + parseThreads;
+        Deque<Job> pending = new ArrayDeque<>(window + 1);
+        List<Thread> parsers = new ArrayList<>(parseThreads);
+        metrics.parseThreads().set(parseThreads);
+
+        try (ExecutorService io = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (int i = 0; i < parseThreads; i++) {
+                    parsers.add(Thread.ofPlatform().name("ufc-parse-" + i).daemon()
+                            .start(() -> parseLoop(queue, io)));
+                }
+                while (candidates.hasNext()) {
+                    Job job = new Job(candidates.next());
+                    pending.add(job);
+                    fetchPermits.acquire();
+                    io.execute(() -> fetch(job, queue, fetchPermits));
+                    while (!pending.isEmpty() && (pending.size() >= window || pending.peek().result.isDone())) {
+                        emit(pending.poll(), action);
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    emit(pending.poll(), action);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.log(Level.SEVERE, "Thread interrupted while waiting for event scrapes", e);
+                return false;
+            } finally {
+                parsers.forEach(Thread::interrupt);
+                io.shutdownNow();
+                // don't let a parse still in progress touch the store or listeners after run returns
+                joinParsers(parsers);
+            }
+        } finally {
+            metrics.pipelineQueueDepth().set(0);
+        }
+    }
+
+    /**
+     * Waits up to {@link #PARSE_JOIN_TIMEOUT} for the parse threads to stop, even if the calling
+     * thread has been interrupted, whose interrupt status is then restored.
+     */
+    private static void joinParsers(List<Thread> parsers) {
+        boolean interrupted = Thread.interrupted();
+        long deadline = System.nanoTime() + PARSE_JOIN_TIMEOUT.toNanos();
+        try {
+            for (Thread parser : parsers) {
+                while (parser.isAlive()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        LOGGER.warning(() -> "Parse thread " + parser.getName() + " did not stop within "
+                                + PARSE_JOIN_TIMEOUT);
+                        return;
+                    }
+                    try {
+                        parser.join(Duration.ofNanos(remaining));
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void emit(Job job, Consumer<? super Event> action) throws InterruptedException {
+        try {
+            job.result.get().ifPresent(action);
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.SEVERE, "Failed to scrape event", e.getCause());
+        }
+    }
+
+    private void fetch(Job job, BlockingQueue<Job> queue, Semaphore fetchPermits) {
+        job.jfrEvent.begin();
+        metrics.fetchesInFlight().increment();
+        try {
+            Optional<FetchResponse> page = scraper.fetchEventPage(job.parser);
+            if (page.isEmpty()) {
+                job.succeed(Optional.empty());
+                return;
+            }
+            job.page = page.get();
+        } catch (Exception e) {
+            job.fail(e);
+            return;
+        } finally {
+            metrics.fetchesInFlight().decrement();
+            fetchPermits.release();
+        }
+
+        try {
+            queue.put(job);
+            metrics.pipelineQueueDepth().set(queue.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        }
+    }
+
+    private void parseLoop(BlockingQueue<Job> queue, Executor io) {
+        try {
+            while (true) {
+                Job job = queue.take();
+                metrics.pipelineQueueDepth().set(queue.size());
+                metrics.parsersBusy().increment();
+                long start = System.nanoTime();
+                try {
+                    parse(job, io);
+                } finally {
+                    metrics.parseBusyNanos().add(System.nanoTime() - start);
+                    metrics.parsersBusy().decrement();
+                }
+            }
+        } catch (InterruptedException e) {
+            // the pipeline is shutting down
+        }
+    }
+
+    private void parse(Job job, Executor io) {
+        List<FightResult> fightResults;
+        try {
+            fightResults = scraper.parseEventPage(job.parser, job.page);
+        } catch (Exception e) {
+            job.fail(e);
+            return;
+        } finally {
+            job.page = null;
+        }
+
+        if (!scraper.completionBlocks()) {
+            complete(job, fightResults);
+            return;
+        }
+        try {
+            io.execute(() -> complete(job, fightResults));
+        } catch (RejectedExecutionException e) {
+            job.fail(e);
+        }
+    }
+
+    private void complete(Job job, List<FightResult> fightResults) {
+        try {
+            job.succeed(Optional.of(scraper.completeEvent(job.parser, fightResults)));
+        } catch (Exception e) {
+            job.fail(e);
+        }
+    }
+
+    /**
+     * One event on its way through the pipeline. It is handed from thread to thread through the
+     * queue and executors, which publish its fields safely.
+     */
+    private final class Job {
+        final EventRowParser parser;
+        final CompletableFuture<Optional<Event>> result = new CompletableFuture<>();
+        final ScrapeEventEvent jfrEvent = new ScrapeEventEvent();
+        FetchResponse page;
+
+        Job(EventRowParser parser) {
+            this.parser = parser;
+        }
+
+        void succeed(Optional<Event> event) {
+            EventScraper.endScrapeEvent(jfrEvent, parser, event);
+            result.complete(event);
+        }
+
+        void fail(Exception e) {
+            scraper.recordFailure(parser);
+            EventScraper.logFailure(e);
+            EventScraper.endScrapeEvent(jfrEvent, parser, Optional.empty());
+            result.complete(Optional.empty());
+        }
+    }
+}
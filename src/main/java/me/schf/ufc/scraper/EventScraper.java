@@ -1,21 +1,42 @@
 package me.schf.ufc.scraper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 
 import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterProfile;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.data.RoundStats;
+import me.schf.ufc.scraper.fetch.CachingPageFetcher;
+import me.schf.ufc.scraper.fetch.FetchResponse;
+import me.schf.ufc.scraper.fetch.HttpPageFetcher;
+import me.schf.ufc.scraper.fetch.PageFetcher;
+import me.schf.ufc.scraper.fetch.RateLimiter;
+import me.schf.ufc.scraper.metrics.ScraperMetrics;
+import me.schf.ufc.scraper.metrics.ScraperMetrics.Stage;
 
 public class EventScraper {
 
@@ -24,11 +45,28 @@ public class EventScraper {
     
     private static final Logger LOGGER = Logger.getLogger(EventScraper.class.getName());
 
+    // results of recent cards may still be filled in or corrected, so don't trust old cached copies
+    private static final int RECENT_EVENT_DAYS = 7;
+    private static final Map<String, String> REVALIDATE = Map.of(CachingPageFetcher.CACHE_CONTROL, "max-age=0");
+
     private final LocalDate startDate;
     private final LocalDate endDate;
-    private final Duration linkAccessDelay;
+    private final PageFetcher pageFetcher;
+    private final int concurrency;
+    private final int parseThreads;
+    private final ScrapeCheckpoint checkpoint;
+    // the range the checkpoint is told was walked; startDate may be moved past its covered range
+    private final LocalDate requestedStartDate;
+    private final int maxIndexPages;
+    private final boolean fightDetails;
+    private final boolean fighterProfiles;
+    private final FighterCache fighterCache;
+    private final ScraperMetrics metrics;
+    private final Consumer<? super Event> eventListener;
+    private final EventPageStore pageStore;
+    private final EventPageStore.ChangeListener pageChangeListener;
 
-    private static class Selectors {
+    static class Selectors {
         static final String ROW = "tr.b-statistics__table-row";
         static final String HEADER_CELL = "th";
         static final String DATE_SPAN = "span.b-statistics__date";
@@ -37,77 +75,638 @@ public class EventScraper {
     }
 
     public EventScraper(LocalDate startDate, LocalDate endDate, Duration linkAccessDelay) {
-        this.startDate = startDate;
-        this.endDate = endDate;
-        this.linkAccessDelay = linkAccessDelay;
+        this(new Builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .pageFetcher(new HttpPageFetcher(RateLimiter.ofInterval(linkAccessDelay))));
+    }
+
+    private EventScraper(Builder builder) {
+        this.checkpoint = builder.checkpoint;
+        this.requestedStartDate = builder.startDate;
+        // nothing in the covered range is pending, so the listing walk can stop there
+        this.startDate = checkpoint == null ? builder.startDate : checkpoint.resumeDate(builder.startDate);
+        this.endDate = builder.endDate;
+        this.pageFetcher = builder.pageFetcher;
+        this.concurrency = builder.concurrency;
+        this.parseThreads = builder.parseThreads;
+        this.maxIndexPages = builder.maxIndexPages;
+        this.fightDetails = builder.fightDetails;
+        this.fighterProfiles = builder.fighterProfiles;
+        this.fighterCache = builder.fighterCache != null ? builder.fighterCache : new FighterCache();
+        this.metrics = builder.metrics != null ? builder.metrics : new ScraperMetrics();
+        this.eventListener = builder.eventListener;
+        this.pageStore = builder.pageStore;
+        this.pageChangeListener = builder.pageChangeListener;
+    }
+
+    public static class Builder {
+        private LocalDate startDate = LocalDate.MIN;
+        private LocalDate endDate = LocalDate.MAX;
+        private PageFetcher pageFetcher;
+        private int concurrency = 1;
+        private int parseThreads = Runtime.getRuntime().availableProcessors();
+        private ScrapeCheckpoint checkpoint;
+        private int maxIndexPages = EventListing.DEFAULT_MAX_PAGES;
+        private boolean fightDetails;
+        private boolean fighterProfiles;
+        private FighterCache fighterCache;
+        private ScraperMetrics metrics;
+        private Consumer<? super Event> eventListener = event -> { };
+        private EventPageStore pageStore;
+        private EventPageStore.ChangeListener pageChangeListener = (url, previous, current) -> { };
+
+        public Builder startDate(LocalDate startDate) {
+            this.startDate = startDate;
+            return this;
+        }
+
+        public Builder endDate(LocalDate endDate) {
+            this.endDate = endDate;
+            return this;
+        }
+
+        public Builder pageFetcher(PageFetcher pageFetcher) {
+            this.pageFetcher = pageFetcher;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = Math.max(1, concurrency);
+            return this;
+        }
+
+        /**
+         * Sets how many platform threads parse event pages when {@link #concurrency(int)} is
+         * above 1. Defaults to the number of available processors.
+         */
+        public Builder parseThreads(int parseThreads) {
+            this.parseThreads = Math.max(1, parseThreads);
+            return this;
+        }
+
+        public Builder checkpoint(ScrapeCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * Sets how many pages of the paginated listing {@link EventScraper#scrapeEvents()} may
+         * read before falling back to the full {@code page=all} listing.
+         */
+        public Builder maxIndexPages(int maxIndexPages) {
+            this.maxIndexPages = maxIndexPages;
+            return this;
+        }
+
+        /**
+         * Enables fetching every fight's detail page for per-round stats. The detail pages of an
+         * event are fetched concurrently, through the same page fetcher and rate limit.
+         */
+        public Builder fightDetails(boolean fightDetails) {
+            this.fightDetails = fightDetails;
+            return this;
+        }
+
+        /**
+         * Enables fetching each fighter's profile page. Every profile is fetched once per
+         * {@link FighterCache}, however many events the fighter appears in.
+         */
+        public Builder fighterProfiles(boolean fighterProfiles) {
+            this.fighterProfiles = fighterProfiles;
+            return this;
+        }
+
+        /**
+         * Sets the cache of fighter names and profiles, so that several scrapes can share it.
+         * Defaults to a new cache per scraper.
+         */
+        public Builder fighterCache(FighterCache fighterCache) {
+            this.fighterCache = fighterCache;
+            return this;
+        }
+
+        /**
+         * Sets where event counts and parse/build timings are recorded. Defaults to a private
+         * instance.
+         */
+        public Builder metrics(ScraperMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets a callback that sees every scraped event, in listing order, on the thread that
+         * consumes the results, just before the event is handed to the caller.
+         */
+        public Builder eventListener(Consumer<? super Event> eventListener) {
+            this.eventListener = eventListener;
+            return this;
+        }
+
+        /**
+         * Sets the store of previously parsed event pages. Pages whose content is unchanged since
+         * they were stored are not parsed again; the store is saved once the listing has been
+         * walked to the end.
+         */
+        public Builder pageStore(EventPageStore pageStore) {
+            this.pageStore = pageStore;
+            return this;
+        }
+
+        /**
+         * Sets a callback for event pages that differ from their stored copy, called on the
+         * thread that parsed the new page. Only used with a {@link #pageStore(EventPageStore)}.
+         */
+        public Builder pageChangeListener(EventPageStore.ChangeListener pageChangeListener) {
+            this.pageChangeListener = pageChangeListener;
+            return this;
+        }
+
+        public EventScraper build() {
+            if (pageFetcher == null) {
+                throw new IllegalStateException("pageFetcher is required");
+            }
+            return new EventScraper(this);
+        }
+    }
+
+    /**
+     * Lazily scrapes the events in range, reading the listing from the page fetcher.
+     *
+     * @throws IOException if the first listing page cannot be fetched
+     */
+    public Stream<Event> scrapeEventsStream() throws IOException {
+        Stream<Element> rows = new EventListing(pageFetcher, startDate, maxIndexPages).rows();
+        return scrapeEventsStream(rows).onClose(rows::close);
     }
 
     public Stream<Event> scrapeEventsStream(Document allEventsPage) {
-        return allEventsPage.select(Selectors.ROW).stream()
-                .map(EventRowParser::new)
-                .filter(parser -> !parser.isHeader() && !parser.isEmpty())
-                .filter(parser -> isWithinDateRange(parser.getEventDate()))
+        return scrapeEventsStream(allEventsPage.select(Selectors.ROW).stream());
+    }
+
+    private Stream<Event> scrapeEventsStream(Stream<Element> rows) {
+        Stream<Event> events = candidateRows(rows)
                 .map(this::scrapeEvent)
                 .filter(Optional::isPresent)
-                .map(Optional::get);
+                .map(Optional::get)
+                .peek(eventListener);
+        return checkpoint == null && pageStore == null ? events : onExhausted(events, this::finishScrape);
+    }
+
+    /**
+     * Eagerly scrapes the events in range, reading the listing from the page fetcher.
+     *
+     * @throws IOException if a listing page cannot be fetched
+     */
+    public List<Event> scrapeEvents() throws IOException {
+        try (Stream<Element> rows = new EventListing(pageFetcher, startDate, maxIndexPages).rows()) {
+            return scrapeEvents(rows);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     public List<Event> scrapeEvents(Document allEventsPage) {
+        return scrapeEvents(allEventsPage.select(Selectors.ROW).stream());
+    }
+
+    private List<Event> scrapeEvents(Stream<Element> rows) {
         List<Event> events = new ArrayList<>();
-        for (Element row : allEventsPage.select(Selectors.ROW)) {
-            EventRowParser parser = new EventRowParser(row);
+        forEachEvent(rows, events::add);
+        return events;
+    }
 
-            if (parser.isHeader() || parser.isEmpty() || !isWithinDateRange(parser.getEventDate())) {
-                continue;
+    /**
+     * Scrapes the events in range, reading the listing from the page fetcher, and hands each one
+     * to {@code action} as soon as it and every event before it in listing order are done. Only
+     * the events in flight are held in memory, so heap use does not grow with the date range.
+     *
+     * @throws IOException if a listing page cannot be fetched
+     */
+    public void forEachEvent(Consumer<? super Event> action) throws IOException {
+        try (Stream<Element> rows = new EventListing(pageFetcher, startDate, maxIndexPages).rows()) {
+            forEachEvent(rows, action);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads the dates of the events in range from the listing, newest first, without fetching
+     * any event page.
+     *
+     * @throws IOException if a listing page cannot be fetched
+     */
+    public List<LocalDate> listEventDates() throws IOException {
+        try (Stream<Element> rows = new EventListing(pageFetcher, startDate, maxIndexPages).rows()) {
+            return candidateRows(rows).map(EventRowParser::getEventDate).toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Opens a pull-based cursor over the events in range. Unlike the other scrape methods, a
+     * failed event is reported to the caller rather than logged and skipped.
+     */
+    EventCursor openCursor() {
+        return new EventCursor();
+    }
+
+    /**
+     * Scrapes one event per {@link #next()} call. Not thread-safe; the listing is only fetched on
+     * the first call.
+     */
+    class EventCursor implements AutoCloseable {
+        private Stream<Element> rows;
+        private Iterator<EventRowParser> candidates;
+        private boolean exhausted;
+
+        /**
+         * @return the next event, or {@code null} once every event in range has been scraped
+         * @throws Exception if the listing or the next event could not be scraped
+         */
+        Event next() throws Exception {
+            if (exhausted) {
+                return null;
+            }
+            try {
+                if (candidates == null) {
+                    rows = new EventListing(pageFetcher, startDate, maxIndexPages).rows();
+                    candidates = candidateRows(rows).iterator();
+                }
+                while (candidates.hasNext()) {
+                    Optional<Event> event = scrapeEventOrThrow(candidates.next());
+                    if (event.isPresent()) {
+                        eventListener.accept(event.get());
+                        return event.get();
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
+            exhausted = true;
+            finishScrape();
+            return null;
+        }
 
-            scrapeEvent(parser).ifPresent(events::add);
+        @Override
+        public void close() {
+            if (rows != null) {
+                rows.close();
+            }
+        }
+    }
+
+    private void forEachEvent(Stream<Element> rows, Consumer<? super Event> action) {
+        Consumer<Event> emit = event -> {
+            eventListener.accept(event);
+            action.accept(event);
+        };
+        if (concurrency > 1) {
+            forEachEventConcurrently(rows, emit);
+        } else {
+            candidateRows(rows).forEach(parser -> scrapeEvent(parser).ifPresent(emit));
+            finishScrape();
+        }
+    }
+
+    /**
+     * Fetches up to {@code concurrency} event pages at once and parses them on a separate pool
+     * of {@code parseThreads} threads, emitting the events in listing order so the output
+     * matches a sequential scrape.
+     */
+    private void forEachEventConcurrently(Stream<Element> rows, Consumer<? super Event> action) {
+        EventPipeline pipeline = new EventPipeline(this, concurrency, parseThreads, metrics);
+        if (pipeline.run(candidateRows(rows).iterator(), action)) {
+            finishScrape();
         }
-        return events;
     }
 
+    /**
+     * Selects the rows to scrape. The listing is sorted newest-first, so iteration stops at the
+     * first event older than the start date instead of walking the rest of the history.
+     */
+    private Stream<EventRowParser> candidateRows(Stream<Element> rows) {
+        return rows.map(EventRowParser::new)
+                .filter(parser -> !parser.isHeader() && !parser.isEmpty())
+                .takeWhile(parser -> !parser.getEventDate().isBefore(startDate))
+                .filter(this::shouldScrape);
+    }
 
     private Optional<Event> scrapeEvent(EventRowParser parser) {
         try {
-            Optional<Element> linkElOpt = parser.getEventLink();
-            if (linkElOpt.isEmpty()) {
-                return Optional.empty();
+            return scrapeEventOrThrow(parser);
+        } catch (Exception e) {
+            logFailure(e);
+            return Optional.empty();
+        }
+    }
+
+    static void logFailure(Exception e) {
+        // the fetch layer restores the interrupt flag before giving up
+        if (Thread.currentThread().isInterrupted()) {
+            LOGGER.log(Level.SEVERE, "Thread interrupted while scraping event row", e);
+        } else {
+            LOGGER.log(Level.SEVERE, "Failed to scrape event", e);
+        }
+    }
+
+    /**
+     * Like {@link #scrapeEvent(EventRowParser)}, but hands failures to the caller instead of
+     * logging them. The failure is still recorded in the checkpoint and metrics.
+     */
+    private Optional<Event> scrapeEventOrThrow(EventRowParser parser) throws Exception {
+        var jfrEvent = new ScrapeEventEvent();
+        jfrEvent.begin();
+        Optional<Event> event = Optional.empty();
+        try {
+            Optional<FetchResponse> page = fetchEventPage(parser);
+            if (page.isPresent()) {
+                event = Optional.of(completeEvent(parser, parseEventPage(parser, page.get())));
             }
+            return event;
+        } catch (Exception e) {
+            recordFailure(parser);
+            throw e;
+        } finally {
+            endScrapeEvent(jfrEvent, parser, event);
+        }
+    }
 
-            Element linkEl = linkElOpt.get();
-            String eventName = linkEl.text().trim();
-            String eventDetailLink = linkEl.attr("href");
+    void recordFailure(EventRowParser parser) {
+        if (checkpoint != null) {
+            checkpoint.markFailed(parser.getEventDate());
+        }
+        metrics.eventsFailed().increment();
+    }
 
-            Thread.sleep(linkAccessDelay.toMillis());
+    static void endScrapeEvent(ScrapeEventEvent jfrEvent, EventRowParser parser, Optional<Event> event) {
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            parser.getEventLink().ifPresent(link -> {
+                jfrEvent.eventName = link.text().trim();
+                jfrEvent.url = link.attr("href");
+            });
+            jfrEvent.succeeded = event.isPresent();
+            jfrEvent.fights = event.map(e -> e.getFightResults().size()).orElse(0);
+            jfrEvent.commit();
+        }
+    }
 
-            Document eventDetailPage = Jsoup.connect(eventDetailLink).get();
-            FightResultScraper fightResultScraper = new FightResultScraper();
-            var fightResults = fightResultScraper.parseEventFights(eventDetailPage);
+    /**
+     * The network half of scraping an event: downloads its detail page without parsing it.
+     *
+     * @return the page, or empty if the listing row has no event link
+     */
+    Optional<FetchResponse> fetchEventPage(EventRowParser parser) throws IOException {
+        Optional<Element> link = parser.getEventLink();
+        if (link.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(fetch(link.get().attr("href"), parser.getEventDate()));
+    }
+
+    /**
+     * The CPU half of scraping an event: extracts the fight rows from its detail page, or takes
+     * them from the page store if the page has not changed since it was stored.
+     */
+    List<FightResult> parseEventPage(EventRowParser parser, FetchResponse eventDetailPage) throws IOException {
+        String url = eventDetailPage.getUrl();
+        byte[] hash = null;
+        if (pageStore != null) {
+            hash = EventPageStore.hash(eventDetailPage.getBody());
+            Optional<Event> stored = pageStore.getIfUnchanged(url, hash);
+            if (stored.isPresent()) {
+                metrics.eventPagesUnchanged().increment();
+                return stored.get().getFightResults();
+            }
+        }
 
-            Event event = new Event.Builder()
-                    .eventName(eventName)
+        Document document = parseDocument(eventDetailPage);
+        long parseStart = System.nanoTime();
+        FightResultScraper fightResultScraper = new FightResultScraper();
+        var fightResults = fightResultScraper.parseEventFights(document);
+        metrics.stage(Stage.PARSE_FIGHTS).observeSince(parseStart);
+        metrics.fightsParsed().add(fightResults.size());
+
+        if (pageStore != null) {
+            Event parsed = new Event.Builder()
+                    .eventName(parser.getEventLink().map(link -> link.text().trim()).orElse(null))
                     .eventDate(parser.getEventDate())
                     .fightResults(fightResults)
                     .build();
+            Optional<Event> previous = pageStore.put(url, hash, parsed);
+            if (previous.isPresent()) {
+                metrics.eventPagesChanged().increment();
+                pageChangeListener.eventChanged(url, previous.get(), parsed);
+            }
+        }
+        return fightResults;
+    }
 
-            return Optional.of(event);
+    /**
+     * Attaches round stats and fighters to the parsed fights, builds the event and records it as
+     * completed.
+     */
+    Event completeEvent(EventRowParser parser, List<FightResult> fightResults) throws Exception {
+        Element linkEl = parser.getEventLink().orElseThrow();
+        if (fightDetails) {
+            fightResults = withRoundStats(fightResults, parser.getEventDate());
+        }
+        fightResults = withFighters(fightResults);
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            LOGGER.log(Level.SEVERE, "Thread interrupted while scraping event row", e);
-            return Optional.empty();
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Failed to scrape event", e);
-            return Optional.empty();
+        long buildStart = System.nanoTime();
+        Event event = new Event.Builder()
+                .eventName(linkEl.text().trim())
+                .eventDate(parser.getEventDate())
+                .fightResults(fightResults)
+                .build();
+        metrics.stage(Stage.BUILD_EVENT).observeSince(buildStart);
+
+        if (checkpoint != null) {
+            checkpoint.markCompleted(event.getEventDate(), linkEl.attr("href"));
+        }
+
+        metrics.eventsScraped().increment();
+        return event;
+    }
+
+    /**
+     * @return {@code true} if {@link #completeEvent} may block on I/O, i.e. fetch more pages or
+     *         write the checkpoint
+     */
+    boolean completionBlocks() {
+        return fightDetails || fighterProfiles || checkpoint != null;
+    }
+
+    /**
+     * Fetches the detail page of every fight concurrently and attaches the per-round stats. If any
+     * fetch fails the remaining ones are cancelled and the whole event fails, rather than yielding
+     * an event with stats missing for some fights.
+     */
+    private List<FightResult> withRoundStats(List<FightResult> fightResults, LocalDate eventDate)
+            throws IOException, InterruptedException {
+        FightDetailScraper fightDetailScraper = new FightDetailScraper();
+        List<Future<Map<String, List<RoundStats>>>> details = new ArrayList<>(fightResults.size());
+
+        try (FailFastTaskScope scope = new FailFastTaskScope()) {
+            for (FightResult fightResult : fightResults) {
+                String link = fightResult.getFightDetailLink();
+                details.add(link == null ? null : scope.fork(() ->
+                        fightDetailScraper.parseRoundStats(fetchDetailPage(link, eventDate))));
+            }
+            joinAll(scope, "Failed to scrape fight details");
+        }
+
+        List<FightResult> result = new ArrayList<>(fightResults.size());
+        for (int i = 0; i < fightResults.size(); i++) {
+            FightResult fightResult = fightResults.get(i);
+            if (details.get(i) == null) {
+                result.add(fightResult);
+                continue;
+            }
+            Map<String, List<RoundStats>> roundStats = details.get(i).resultNow();
+            List<FighterStats> fighterStats = fightResult.getFighterStatsList().stream()
+                    .map(stats -> stats.toBuilder()
+                            .roundStats(roundStats.getOrDefault(stats.getName(), List.of()))
+                            .build())
+                    .toList();
+            result.add(fightResult.toBuilder().fighterStatsList(fighterStats).build());
         }
+        return result;
+    }
+
+    /**
+     * Canonicalises fighter names and profile URLs through the fighter cache and, if enabled,
+     * attaches each fighter's profile. Profiles missing from the cache are fetched concurrently.
+     */
+    private List<FightResult> withFighters(List<FightResult> fightResults)
+            throws IOException, InterruptedException {
+        Map<String, Future<FighterProfile>> profiles = new HashMap<>();
+        if (fighterProfiles) {
+            FighterProfileScraper profileScraper = new FighterProfileScraper();
+            try (FailFastTaskScope scope = new FailFastTaskScope()) {
+                for (FightResult fightResult : fightResults) {
+                    for (FighterStats stats : fightResult.getFighterStatsList()) {
+                        String url = stats.getProfileUrl();
+                        if (url != null && !url.isEmpty() && !profiles.containsKey(url)) {
+                            profiles.put(url, scope.fork(() -> fighterCache.get(url,
+                                    profileUrl -> profileScraper.parseProfile(profileUrl,
+                                            pageFetcher.fetchDocument(profileUrl)))));
+                        }
+                    }
+                }
+                joinAll(scope, "Failed to scrape fighter profiles");
+            }
+        }
+
+        List<FightResult> result = new ArrayList<>(fightResults.size());
+        for (FightResult fightResult : fightResults) {
+            List<FighterStats> fighterStats = fightResult.getFighterStatsList().stream()
+                    .map(stats -> {
+                        Future<FighterProfile> profile = profiles.get(stats.getProfileUrl());
+                        return stats.toBuilder()
+                                .name(fighterCache.canonical(stats.getName()))
+                                .profileUrl(fighterCache.canonical(stats.getProfileUrl()))
+                                .profile(profile != null ? profile.resultNow() : null)
+                                .build();
+                    })
+                    .toList();
+            result.add(fightResult.toBuilder().fighterStatsList(fighterStats).build());
+        }
+        return result;
+    }
+
+    private static void joinAll(FailFastTaskScope scope, String failureMessage)
+            throws IOException, InterruptedException {
+        scope.join();
+        try {
+            scope.throwIfFailed();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            }
+            throw new IOException(failureMessage, e.getCause());
+        }
+    }
+
+    private Document fetchDetailPage(String url, LocalDate eventDate) throws IOException {
+        return parseDocument(fetch(url, eventDate));
+    }
+
+    private FetchResponse fetch(String url, LocalDate eventDate) throws IOException {
+        boolean recent = !eventDate.isBefore(LocalDate.now().minusDays(RECENT_EVENT_DAYS));
+        return pageFetcher.fetch(url, recent ? REVALIDATE : Map.of());
+    }
+
+    private Document parseDocument(FetchResponse response) throws IOException {
+        long start = System.nanoTime();
+        Document document = response.parse();
+        metrics.stage(Stage.PARSE_DOCUMENT).observeSince(start);
+        return document;
+    }
+
+    private boolean shouldScrape(EventRowParser parser) {
+        if (!isWithinDateRange(parser.getEventDate())) {
+            return false;
+        }
+        return checkpoint == null || parser.getEventLink()
+                .map(link -> checkpoint.isPending(parser.getEventDate(), link.attr("href")))
+                .orElse(true);
+    }
+
+    private void finishScrape() {
+        if (pageStore != null) {
+            try {
+                pageStore.save();
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to save event page store", e);
+            }
+        }
+        if (checkpoint == null || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            checkpoint.finish(requestedStartDate, endDate);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to save scrape checkpoint", e);
+        }
+    }
+
+    /**
+     * Runs {@code action} once the stream has been consumed to the end, but not if the
+     * consumer stops early, since unread rows must not count as scraped.
+     */
+    private static <T> Stream<T> onExhausted(Stream<T> stream, Runnable action) {
+        Iterator<T> iterator = stream.iterator();
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> consumer) {
+                if (iterator.hasNext()) {
+                    consumer.accept(iterator.next());
+                    return true;
+                }
+                if (!done) {
+                    done = true;
+                    action.run();
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(stream::close);
     }
 
     private boolean isWithinDateRange(LocalDate eventDate) {
         return !eventDate.isBefore(startDate) && !eventDate.isAfter(endDate);
     }
 
-    private static class EventRowParser {
+    static class EventRowParser {
         private final Element row;
+        private LocalDate eventDate;
 
         EventRowParser(Element row) {
             this.row = row;
@@ -123,7 +722,10 @@ public class EventScraper {
         }
 
         LocalDate getEventDate() {
-            return getEventDate(EVENT_DATE_FORMAT);
+            if (eventDate == null) {
+                eventDate = getEventDate(EVENT_DATE_FORMAT);
+            }
+            return eventDate;
         }
 
         LocalDate getEventDate(DateTimeFormatter formatter) {
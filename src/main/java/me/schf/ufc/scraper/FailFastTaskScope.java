@@ -0,0 +1,89 @@
+package me.schf.ufc.scraper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A scope for a group of subtasks that succeed or fail together, each on its own virtual thread.
+ * <p>
+ * This follows the shape of {@code StructuredTaskScope.ShutdownOnFailure}, which is still a
+ * preview API in Java 21 and would force {@code --enable-preview} on every user of the library:
+ * {@link #fork(Callable)} subtasks, {@link #join()} them, then {@link #throwIfFailed()}. The first
+ * failing subtask cancels its siblings, and closing the scope cancels and waits for anything still
+ * running, so no subtask outlives the block that opened the scope.
+ * </p>
+ */
+class FailFastTaskScope implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> forks = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    <T> Future<T> fork(Callable<T> task) {
+        Future<T> future = executor.submit(() -> {
+            try {
+                return task.call();
+            } catch (Throwable t) {
+                if (failure.compareAndSet(null, t)) {
+                    cancelAll();
+                }
+                throw t;
+            }
+        });
+        synchronized (forks) {
+            forks.add(future);
+        }
+        if (failure.get() != null) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Waits until every subtask has completed, failed or been cancelled.
+     */
+    void join() throws InterruptedException {
+        List<Future<?>> snapshot;
+        synchronized (forks) {
+            snapshot = List.copyOf(forks);
+        }
+        for (Future<?> future : snapshot) {
+            try {
+                future.get();
+            } catch (ExecutionException | CancellationException e) {
+                // recorded in failure by the subtask itself, or a sibling's cancellation
+            }
+        }
+    }
+
+    /**
+     * @throws ExecutionException wrapping the first subtask failure, if any
+     */
+    void throwIfFailed() throws ExecutionException {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new ExecutionException(t);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        List<Future<?>> snapshot;
+        synchronized (forks) {
+            snapshot = new ArrayList<>(forks);
+        }
+        snapshot.forEach(future -> future.cancel(true));
+    }
+}
@@ -1,9 +1,14 @@
 package me.schf.ufc.scraper;
 
-import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import me.schf.ufc.scraper.util.TextLookup;
 
 public class FightDetailColumnIndices {
 
@@ -19,6 +24,9 @@ public class FightDetailColumnIndices {
         ROUND("Round"),
         TIME("Time");
 
+        // header names are matched exactly, as they always have been
+        private static final TextLookup<Column> BY_NAME = new TextLookup<>(values(), Column::getName, false);
+
         private final String name;
 
         Column(String name) {
@@ -30,44 +38,95 @@ public class FightDetailColumnIndices {
         }
 
         public static Column fromName(String name) {
-            for (var col : values()) {
-                if (col.name.equals(name)) {
-                    return col;
-                }
+            Column column = BY_NAME.find(name);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown column name: " + name);
             }
-            throw new IllegalArgumentException("Unknown column name: " + name);
+            return column;
+        }
+
+        /**
+         * Like {@link #fromName(String)}, but returns an empty result for unknown names.
+         */
+        public static Optional<Column> find(String name) {
+            return Optional.ofNullable(BY_NAME.find(name));
         }
     }
 
-    private static final Set<String> REQUIRED_COLUMNS = Set.of(
-        "W/L", "Fighter", "Kd", "Str", "Td", "Sub", "Weight class", "Method", "Round", "Time"
-    );
+    private static final Logger LOGGER = Logger.getLogger(FightDetailColumnIndices.class.getName());
 
-    private final Map<Column, Integer> indices = new EnumMap<>(Column.class);
+    private static final Column[] COLUMNS = Column.values();
+
+    // the site uses one or two layouts; the bound only guards against pathological input
+    private static final int MAX_CACHED_LAYOUTS = 64;
+    private static final Map<List<String>, FightDetailColumnIndices> LAYOUTS = new ConcurrentHashMap<>();
+
+    private final int[] indices = new int[COLUMNS.length];
+
+    /**
+     * Returns the column indices for a header row, resolving each distinct header row only once.
+     * The header texts themselves are the cache key, so any change in the table layout is
+     * resolved afresh.
+     *
+     * @throws IllegalStateException if a required column is missing
+     */
+    public static FightDetailColumnIndices forHeaders(List<String> columnNames) {
+        FightDetailColumnIndices cached = LAYOUTS.get(columnNames);
+        if (cached != null) {
+            return cached;
+        }
+        FightDetailColumnIndices resolved = new FightDetailColumnIndices(columnNames);
+        if (LAYOUTS.size() < MAX_CACHED_LAYOUTS) {
+            LAYOUTS.putIfAbsent(List.copyOf(columnNames), resolved);
+        }
+        return resolved;
+    }
 
+    /**
+     * Resolves the column indices of a header row. Unknown columns are ignored.
+     *
+     * @throws IllegalStateException if a required column is missing
+     */
     public FightDetailColumnIndices(List<String> columnNames) {
+        var event = new ColumnIndicesEvent();
+        event.begin();
+        try {
+            resolve(columnNames);
+            event.valid = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.columns = columnNames.size();
+                event.commit();
+            }
+        }
+    }
+
+    private void resolve(List<String> columnNames) {
+        Arrays.fill(indices, -1);
         for (int i = 0; i < columnNames.size(); i++) {
-            String name = columnNames.get(i);
-            try {
-                Column col = Column.fromName(name);
-                indices.put(col, i);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalStateException("Unknown column: " + name, e);
+            Column col = Column.BY_NAME.find(columnNames.get(i));
+            if (col == null) {
+                LOGGER.warning("Ignoring unknown column: " + columnNames.get(i));
+            } else if (indices[col.ordinal()] < 0) {
+                indices[col.ordinal()] = i;
             }
         }
 
-        // check required columns
-        List<String> missing = REQUIRED_COLUMNS.stream()
-                .filter(r -> !columnNames.contains(r))
-                .toList();
-        
+        // every column is required
+        List<String> missing = new ArrayList<>();
+        for (Column col : COLUMNS) {
+            if (indices[col.ordinal()] < 0) {
+                missing.add(col.getName());
+            }
+        }
         if (!missing.isEmpty()) {
             throw new IllegalStateException("Missing required columns: " + missing);
         }
     }
 
     public int getIndex(Column column) {
-        return indices.get(column);
+        return indices[column.ordinal()];
     }
 
     public int getWlIndex() { return getIndex(Column.WL); }
@@ -0,0 +1,168 @@
+package me.schf.ufc.scraper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.data.RoundStats;
+
+/**
+ * Parses the per-round tables of a fight details page.
+ * <p>
+ * The page has two per-round tables: totals (knockdowns, strikes, takedowns, submission attempts,
+ * control time) and significant strikes by target. Both are laid out as a column header followed by
+ * a "Round N" header and a body row per round, with one paragraph per fighter in every cell.
+ * Columns are located by header name, so reordered or extra columns are tolerated. Cells that hold
+ * no number, such as the site's {@code --} placeholder, are kept as {@link RoundStats#MISSING}.
+ * </p>
+ */
+public class FightDetailScraper {
+
+    private static final String ROUND_PREFIX = "round ";
+
+    private static class Selectors {
+        static final String PER_ROUND_TABLE = "table.js-fight-table";
+        static final String HEADER_CELL = "th";
+        static final String FIGHTER_PARAGRAPHS = "p.b-fight-details__table-text";
+        static final String FIGHTER_LINK = "a.b-link_style_black";
+    }
+
+    private static class Evaluators {
+        static final Evaluator PER_ROUND_TABLE = QueryParser.parse(Selectors.PER_ROUND_TABLE);
+        static final Evaluator HEADER_CELL = QueryParser.parse(Selectors.HEADER_CELL);
+        static final Evaluator FIGHTER_PARAGRAPHS = QueryParser.parse(Selectors.FIGHTER_PARAGRAPHS);
+        static final Evaluator FIGHTER_LINK = QueryParser.parse(Selectors.FIGHTER_LINK);
+    }
+
+    /**
+     * @param fightDetailPage a fight details page
+     * @return each fighter's per-round stats keyed by fighter name, in page order
+     */
+    public Map<String, List<RoundStats>> parseRoundStats(Document fightDetailPage) {
+        // fighter name -> round -> stats being assembled from both tables
+        Map<String, Map<Round, RoundStats.Builder>> builders = new LinkedHashMap<>();
+
+        for (Element table : fightDetailPage.select(Evaluators.PER_ROUND_TABLE)) {
+            parseTable(table, builders);
+        }
+
+        Map<String, List<RoundStats>> result = new LinkedHashMap<>();
+        builders.forEach((fighter, rounds) -> result.put(fighter,
+                rounds.values().stream().map(RoundStats.Builder::build).toList()));
+        return result;
+    }
+
+    private void parseTable(Element table, Map<String, Map<Round, RoundStats.Builder>> builders) {
+        List<String> columns = null;
+        Round round = null;
+
+        for (Element section : table.children()) {
+            String tag = section.normalName();
+            if (tag.equals("thead")) {
+                List<String> headers = section.select(Evaluators.HEADER_CELL).eachText();
+                Optional<Round> roundHeader = parseRoundHeader(headers);
+                if (roundHeader.isPresent()) {
+                    round = roundHeader.get();
+                } else if (columns == null) {
+                    columns = headers.stream().map(FightDetailScraper::normalizeHeader).toList();
+                }
+            } else if (tag.equals("tbody") && columns != null && round != null) {
+                for (Element row : section.children()) {
+                    parseRow(row, columns, round, builders);
+                }
+            }
+        }
+    }
+
+    private void parseRow(Element row, List<String> columns, Round round,
+            Map<String, Map<Round, RoundStats.Builder>> builders) {
+        List<Element> cells = row.children();
+        int fighterColumn = columns.indexOf("fighter");
+        if (fighterColumn < 0 || fighterColumn >= cells.size()) {
+            return;
+        }
+
+        List<String> fighters = new ArrayList<>(2);
+        for (Element paragraph : cells.get(fighterColumn).select(Evaluators.FIGHTER_PARAGRAPHS)) {
+            Element link = paragraph.selectFirst(Evaluators.FIGHTER_LINK);
+            fighters.add((link != null ? link : paragraph).text().trim());
+        }
+
+        for (int col = 0; col < columns.size() && col < cells.size(); col++) {
+            List<String> values = cells.get(col).select(Evaluators.FIGHTER_PARAGRAPHS).eachText();
+            for (int i = 0; i < fighters.size() && i < values.size(); i++) {
+                RoundStats.Builder builder = builders
+                        .computeIfAbsent(fighters.get(i), name -> new LinkedHashMap<>())
+                        .computeIfAbsent(round, r -> new RoundStats.Builder().round(r));
+                apply(builder, columns.get(col), values.get(i).trim());
+            }
+        }
+    }
+
+    private static void apply(RoundStats.Builder builder, String column, String value) {
+        switch (column) {
+            case "kd" -> builder.knockdowns(parseCount(value));
+            case "sig. str" -> builder.significantStrikes(landed(value), attempted(value));
+            case "total str" -> builder.totalStrikes(landed(value), attempted(value));
+            case "td" -> builder.takedowns(landed(value), attempted(value));
+            case "sub. att" -> builder.submissionAttempts(parseCount(value));
+            case "ctrl" -> builder.controlTime(parseDuration(value));
+            case "head" -> builder.headStrikes(landed(value), attempted(value));
+            case "body" -> builder.bodyStrikes(landed(value), attempted(value));
+            case "leg" -> builder.legStrikes(landed(value), attempted(value));
+            default -> {
+                // percentages, reversals and positions are not kept
+            }
+        }
+    }
+
+    private static Optional<Round> parseRoundHeader(List<String> headers) {
+        if (headers.size() != 1) {
+            return Optional.empty();
+        }
+        String text = headers.get(0).trim().toLowerCase(Locale.ROOT);
+        if (!text.startsWith(ROUND_PREFIX)) {
+            return Optional.empty();
+        }
+        return Round.find(text.substring(ROUND_PREFIX.length()).trim());
+    }
+
+    private static String normalizeHeader(String header) {
+        String name = header.trim().toLowerCase(Locale.ROOT);
+        return name.endsWith(".") ? name.substring(0, name.length() - 1) : name;
+    }
+
+    private static int landed(String value) {
+        int of = value.indexOf(" of ");
+        return parseCount(value, 0, of < 0 ? value.length() : of);
+    }
+
+    private static int attempted(String value) {
+        int of = value.indexOf(" of ");
+        return of < 0 ? RoundStats.MISSING : parseCount(value, of + 4, value.length());
+    }
+
+    private static int parseCount(String value) {
+        return parseCount(value, 0, value.length());
+    }
+
+    // blank cells, the site's "--" placeholder and garbage all mean not recorded
+    private static int parseCount(String value, int start, int end) {
+        int count = NumberText.parseCount(value, start, end);
+        return count == NumberText.MISSING ? RoundStats.MISSING : count;
+    }
+
+    private static Duration parseDuration(String value) {
+        return NumberText.toDuration(NumberText.parseClockSeconds(value), null);
+    }
+}
@@ -1,13 +1,20 @@
 package me.schf.ufc.scraper;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.jsoup.select.QueryParser;
 
 import me.schf.ufc.scraper.data.FightResult;
 import me.schf.ufc.scraper.data.FighterStats;
@@ -17,6 +24,10 @@ import me.schf.ufc.scraper.data.WeightClass;
 
 public class FightResultScraper {
 
+    private static final Logger LOGGER = Logger.getLogger(FightResultScraper.class.getName());
+
+    private static final String FIGHT_DETAIL_LINK_ATTR = "data-link";
+
     private static class Selectors {
         static final String FIGHT_DETAILS_TABLE = "table.b-fight-details__table";
         static final String COLUMN_HEADERS = "thead tr th";
@@ -24,114 +35,247 @@ public class FightResultScraper {
         static final String TABLE_CELL = "td";
         static final String FIGHTER_PARAGRAPHS = "p.b-fight-details__table-text";
         static final String FIGHTER_LINK = "a.b-link_style_black";
-        static final String WINNER_FLAG_PARAGRAPHS = "p.b-fight-details__table-text";
         static final String WINNER_FLAG_ANCHOR = "a.b-flag_style_green";
         static final String BELT_IMAGE = "img[src*=belt.png]";
     }
 
+    // compiled once; parsing a query string on every select() showed up in reparse profiles
+    private static class Evaluators {
+        static final Evaluator FIGHT_DETAILS_TABLE = QueryParser.parse(Selectors.FIGHT_DETAILS_TABLE);
+        static final Evaluator COLUMN_HEADERS = QueryParser.parse(Selectors.COLUMN_HEADERS);
+        static final Evaluator TABLE_BODY_ROWS = QueryParser.parse(Selectors.TABLE_BODY_ROWS);
+        static final Evaluator TABLE_CELL = QueryParser.parse(Selectors.TABLE_CELL);
+        static final Evaluator FIGHTER_PARAGRAPHS = QueryParser.parse(Selectors.FIGHTER_PARAGRAPHS);
+        static final Evaluator FIGHTER_LINK = QueryParser.parse(Selectors.FIGHTER_LINK);
+        static final Evaluator WINNER_FLAG_ANCHOR = QueryParser.parse(Selectors.WINNER_FLAG_ANCHOR);
+        static final Evaluator BELT_IMAGE = QueryParser.parse(Selectors.BELT_IMAGE);
+    }
+
     public List<FightResult> parseEventFights(Document eventDetailPage) {
-        var fightResultTable = eventDetailPage.selectFirst(Selectors.FIGHT_DETAILS_TABLE);
+        var event = new ParseEventFightsEvent();
+        event.begin();
+        List<FightResult> fightResults = List.of();
+        try {
+            fightResults = parseFightTable(eventDetailPage);
+            return fightResults;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.url = eventDetailPage.location();
+                event.rows = fightResults.size();
+                event.commit();
+            }
+        }
+    }
+
+    private List<FightResult> parseFightTable(Document eventDetailPage) {
+        var fightResultTable = eventDetailPage.selectFirst(Evaluators.FIGHT_DETAILS_TABLE);
         if (fightResultTable == null) {
             return List.of();
         }
 
-        var columnIndices = new FightDetailColumnIndices(
-            fightResultTable.select(Selectors.COLUMN_HEADERS)
+        var columnIndices = FightDetailColumnIndices.forHeaders(
+            fightResultTable.select(Evaluators.COLUMN_HEADERS)
                 .stream()
                 .map(Element::text)
                 .map(String::trim)
                 .toList()
         );
 
-        return fightResultTable.select(Selectors.TABLE_BODY_ROWS)
-            .stream()
-            .map(row -> parseFightRow(row, columnIndices))
-            .toList();
+        var rows = fightResultTable.select(Evaluators.TABLE_BODY_ROWS);
+        var fightResults = new ArrayList<FightResult>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            fightResults.add(parseFightRow(rows.get(i), i, columnIndices));
+        }
+        return List.copyOf(fightResults);
+    }
+
+    private FightResult parseFightRow(Element row, int rowIndex, FightDetailColumnIndices indices) {
+        var event = new ParseFightRowEvent();
+        event.begin();
+        FightResult fightResult = null;
+        try {
+            fightResult = parseFightRow(row, indices);
+            return fightResult;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.rowIndex = rowIndex;
+                if (fightResult != null) {
+                    event.fighters = fightResult.getFighterStatsList().stream()
+                        .map(FighterStats::getName)
+                        .collect(Collectors.joining(" vs. "));
+                }
+                event.commit();
+            }
+        }
     }
 
     private FightResult parseFightRow(Element row, FightDetailColumnIndices indices) {
-        var cols = row.select(Selectors.TABLE_CELL);
-
-        var fighterParagraphs = cols.get(indices.getFighterIndex())
-            .select(Selectors.FIGHTER_PARAGRAPHS);
-
-        var winnerFlagParagraphs = cols.get(indices.getWlIndex())
-            .select(Selectors.WINNER_FLAG_PARAGRAPHS);
-
-        var kdVals = extractInts(cols.get(indices.getKdIndex()));
-        var strVals = extractInts(cols.get(indices.getStrIndex()));
-        var tdVals = extractInts(cols.get(indices.getTdIndex()));
-        var subVals = extractInts(cols.get(indices.getSubIndex()));
-
-        var fighterStatsList = IntStream.range(0, fighterParagraphs.size())
-            .mapToObj(i -> {
-                var fighterPara = fighterParagraphs.get(i);
-                var fighterLink = fighterPara.selectFirst(Selectors.FIGHTER_LINK);
-                if (fighterLink == null) return null;
-
-                String fighterName = fighterLink.text().trim();
-
-                boolean isWinner = i < winnerFlagParagraphs.size() &&
-                    winnerFlagParagraphs.get(i).selectFirst(Selectors.WINNER_FLAG_ANCHOR) != null;
-
-                return new FighterStats.Builder()
-                    .name(fighterName)
-                    .knockdowns(kdVals.get(i))
-                    .significantStrikes(strVals.get(i))
-                    .takedowns(tdVals.get(i))
-                    .submissionAttempts(subVals.get(i))
-                    .isWinner(isWinner)
-                    .build();
-            })
-            .filter(Objects::nonNull)
-            .toList();
-
-        var weightClass = WeightClass.fromText(getTextSafe(cols.get(indices.getWeightClassIndex())));
-        var method = Method.fromText(getTextSafe(cols.get(indices.getMethodIndex())));
-        var round = Round.fromText(getTextSafe(cols.get(indices.getRoundIndex())));
-        var finalRoundEndTime = parseFightTime(getTextSafe(cols.get(indices.getTimeIndex())));
-
-        var weightClassCol = cols.get(indices.getWeightClassIndex());
-        boolean isTitleFight = !weightClassCol.select(Selectors.BELT_IMAGE).isEmpty();
+        List<Element> cols = cells(row);
+
+        var fighters = new Cell(cols.get(indices.getFighterIndex()));
+        var winnerFlags = new Cell(cols.get(indices.getWlIndex()));
+        var kd = cols.get(indices.getKdIndex());
+        var str = cols.get(indices.getStrIndex());
+        var td = cols.get(indices.getTdIndex());
+        var sub = cols.get(indices.getSubIndex());
+        var weightClassCol = new Cell(cols.get(indices.getWeightClassIndex()));
+
+        var fighterStatsList = new ArrayList<FighterStats>(2);
+        for (int i = 0; i < fighters.size(); i++) {
+            Element fighterLink = fighters.link(i);
+            if (fighterLink == null) {
+                continue;
+            }
+
+            fighterStatsList.add(new FighterStats.Builder()
+                .name(fighterLink.text().trim())
+                .profileUrl(fighterLink.attr("href"))
+                .knockdowns(countAt(kd, i))
+                .significantStrikes(countAt(str, i))
+                .takedowns(countAt(td, i))
+                .submissionAttempts(countAt(sub, i))
+                .isWinner(winnerFlags.hasWinnerFlag(i))
+                .build());
+        }
+
+        var weightClassText = weightClassCol.firstText();
+        var methodText = textAt(cols.get(indices.getMethodIndex()), 0).toString().trim();
+        var roundText = textAt(cols.get(indices.getRoundIndex()), 0).toString().trim();
+        var weightClass = orWarn(WeightClass.find(weightClassText), "weight class", weightClassText);
+        var method = orWarn(Method.find(methodText), "method", methodText);
+        var round = orWarn(Round.find(roundText), "round", roundText);
+        var finalRoundEndTime = NumberText.toDuration(
+            NumberText.parseClockSeconds(textAt(cols.get(indices.getTimeIndex()), 0)), Duration.ZERO);
 
         return new FightResult.Builder()
-            .fighterStatsList(fighterStatsList)
+            .fighterStatsList(List.copyOf(fighterStatsList))
             .weightClass(weightClass)
             .method(method)
             .round(round)
             .finalRoundEndTime(finalRoundEndTime)
-            .isTitleFight(isTitleFight)
+            .isTitleFight(weightClassCol.hasBelt())
+            .fightDetailLink(row.hasAttr(FIGHT_DETAIL_LINK_ATTR) ? row.attr(FIGHT_DETAIL_LINK_ATTR) : null)
             .build();
     }
 
-    private static List<Integer> extractInts(Element col) {
-        return col.select(Selectors.FIGHTER_PARAGRAPHS).stream()
-            .map(Element::text)
-            .map(String::trim)
-            .map(text -> {
-                try {
-                    return Integer.parseInt(text);
-                } catch (NumberFormatException e) {
-                    return null;
-                }
-            })
-            .toList();
+    /**
+     * Leaves values the site added after this scraper was written empty instead of failing the
+     * whole event over them.
+     */
+    private static <T> T orWarn(Optional<T> value, String what, String text) {
+        if (value.isEmpty()) {
+            LOGGER.warning(() -> "Unknown " + what + " '" + text + "', leaving it empty");
+        }
+        return value.orElse(null);
     }
 
-    private static String getTextSafe(Element td) {
-        return Optional.ofNullable(td.selectFirst(Selectors.FIGHTER_PARAGRAPHS))
-            .map(Element::text)
-            .map(String::trim)
-            .orElse("");
+    private static List<Element> cells(Element row) {
+        var cells = new ArrayList<Element>(row.childrenSize());
+        for (Element child : row.children()) {
+            if (Evaluators.TABLE_CELL.matches(row, child)) {
+                cells.add(child);
+            }
+        }
+        return cells;
     }
 
-    private static Duration parseFightTime(String timeStr) {
-        if (timeStr == null || timeStr.isBlank()) {
-            return Duration.ZERO;
+    /**
+     * Reads the count in the {@code i}-th paragraph of a stats cell. The site shows {@code --}
+     * for stats it did not record, which is kept as {@link FighterStats#MISSING} rather than
+     * passed off as zero.
+     */
+    private static int countAt(Element td, int i) {
+        int count = NumberText.parseCount(textAt(td, i));
+        return count == NumberText.MISSING ? FighterStats.MISSING : count;
+    }
+
+    /**
+     * Returns the text of the {@code i}-th table-text paragraph of a cell without building a
+     * {@link Cell}. A paragraph holding a single text node is returned as is, untrimmed and
+     * uncopied; only one with markup inside is flattened.
+     */
+    private static CharSequence textAt(Element td, int i) {
+        int seen = 0;
+        for (Element el = td.firstElementChild(); el != null; el = el.nextElementSibling()) {
+            if (Evaluators.FIGHTER_PARAGRAPHS.matches(td, el) && seen++ == i) {
+                if (el.childNodeSize() == 1 && el.childNode(0) instanceof TextNode text) {
+                    return text.getWholeText();
+                }
+                return el.text();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Everything the row parser needs from one {@code td}, collected in a single traversal:
+     * its table-text paragraphs and, per paragraph, the fighter link and winner flag, plus
+     * whether the cell carries a title belt.
+     */
+    private static class Cell implements NodeVisitor {
+        private final Element td;
+        private final List<Element> paragraphs = new ArrayList<>(2);
+        private final List<Element> links = new ArrayList<>(2);
+        private final List<Boolean> winnerFlags = new ArrayList<>(2);
+        private Element openParagraph;
+        private boolean belt;
+
+        Cell(Element td) {
+            this.td = td;
+            NodeTraversor.traverse(this, td);
+        }
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element el) || el == td) {
+                return;
+            }
+            if (openParagraph == null && Evaluators.FIGHTER_PARAGRAPHS.matches(td, el)) {
+                openParagraph = el;
+                paragraphs.add(el);
+                links.add(null);
+                winnerFlags.add(false);
+                return;
+            }
+            int last = paragraphs.size() - 1;
+            if (openParagraph != null && links.get(last) == null && Evaluators.FIGHTER_LINK.matches(td, el)) {
+                links.set(last, el);
+            }
+            if (openParagraph != null && Evaluators.WINNER_FLAG_ANCHOR.matches(td, el)) {
+                winnerFlags.set(last, true);
+            }
+            if (Evaluators.BELT_IMAGE.matches(td, el)) {
+                belt = true;
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (node == openParagraph) {
+                openParagraph = null;
+            }
+        }
+
+        int size() {
+            return paragraphs.size();
+        }
+
+        Element link(int i) {
+            return links.get(i);
+        }
+
+        boolean hasWinnerFlag(int i) {
+            return i < winnerFlags.size() && winnerFlags.get(i);
+        }
+
+        boolean hasBelt() {
+            return belt;
+        }
+
+        String firstText() {
+            return paragraphs.isEmpty() ? "" : paragraphs.get(0).text().trim();
         }
-        var parts = timeStr.split(":");
-        var minutes = Integer.parseInt(parts[0]);
-        var seconds = Integer.parseInt(parts[1]);
-        return Duration.ofMinutes(minutes).plusSeconds(seconds);
     }
 }
@@ -0,0 +1,182 @@
+package me.schf.ufc.scraper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import me.schf.ufc.scraper.data.FighterProfile;
+
+/**
+ * Per-run store of fighter identities and profiles, shared by every event a scraper visits.
+ * <p>
+ * Profiles are kept in a least-recently-used map bounded by an estimate of their heap size, so a
+ * full-history scrape fetches each fighter's page once while memory stays capped. Concurrent
+ * requests for a profile that is already being loaded wait for that load instead of fetching the
+ * page again.
+ * </p>
+ * <p>
+ * Fighter names and profile URLs are also canonicalised, so the thousands of
+ * {@link me.schf.ufc.scraper.data.FighterStats} of a long scrape share one string per fighter
+ * rather than holding a fresh copy from every page they were parsed from.
+ * </p>
+ */
+public class FighterCache {
+
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    // object headers, fields, boxed ints and the LocalDate of one profile, plus the map entry
+    private static final int PROFILE_OVERHEAD_BYTES = 160;
+
+    @FunctionalInterface
+    interface ProfileLoader {
+        FighterProfile load(String profileUrl) throws IOException;
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, FighterProfile> profiles = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, CompletableFuture<FighterProfile>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, String> canonical = new ConcurrentHashMap<>();
+    private long sizeBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public FighterCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes approximate heap budget for cached profiles
+     */
+    public FighterCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the single shared instance equal to {@code value}, e.g. a fighter name or profile URL.
+     */
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = canonical.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Returns the cached profile, loading it if absent. Only one caller loads a given profile at a
+     * time; the others wait for its result.
+     */
+    FighterProfile get(String profileUrl, ProfileLoader loader) throws IOException {
+        while (true) {
+            FighterProfile cached = lookup(profileUrl);
+            if (cached != null) {
+                return cached;
+            }
+
+            CompletableFuture<FighterProfile> load = new CompletableFuture<>();
+            CompletableFuture<FighterProfile> existing = inFlight.putIfAbsent(profileUrl, load);
+            if (existing == null) {
+                return load(profileUrl, loader, load);
+            }
+
+            try {
+                return existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for profile " + profileUrl);
+            } catch (ExecutionException e) {
+                // the loading thread was cancelled by its own event, which says nothing about ours
+                if (!(e.getCause() instanceof InterruptedIOException)) {
+                    throw e.getCause() instanceof IOException ioe ? ioe
+                            : new IOException("Failed to load profile " + profileUrl, e.getCause());
+                }
+            }
+        }
+    }
+
+    private FighterProfile load(String profileUrl, ProfileLoader loader, CompletableFuture<FighterProfile> load)
+            throws IOException {
+        try {
+            // it may have been stored between our lookup and claiming the load
+            FighterProfile profile = peek(profileUrl);
+            if (profile == null) {
+                profile = loader.load(profileUrl);
+                store(profileUrl, profile);
+            }
+            load.complete(profile);
+            return profile;
+        } catch (Throwable t) {
+            load.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(profileUrl, load);
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return profiles.size();
+    }
+
+    public synchronized long sizeBytes() {
+        return sizeBytes;
+    }
+
+    private synchronized FighterProfile lookup(String profileUrl) {
+        FighterProfile profile = profiles.get(profileUrl);
+        if (profile != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return profile;
+    }
+
+    private synchronized FighterProfile peek(String profileUrl) {
+        return profiles.get(profileUrl);
+    }
+
+    private synchronized void store(String profileUrl, FighterProfile profile) {
+        FighterProfile previous = profiles.put(profileUrl, profile);
+        if (previous != null) {
+            sizeBytes -= estimateSize(previous);
+        }
+        sizeBytes += estimateSize(profile);
+
+        var eldest = profiles.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            FighterProfile evicted = eldest.next().getValue();
+            eldest.remove();
+            sizeBytes -= estimateSize(evicted);
+            evictions++;
+        }
+    }
+
+    private static long estimateSize(FighterProfile profile) {
+        return PROFILE_OVERHEAD_BYTES + stringSize(profile.getProfileUrl()) + stringSize(profile.getName());
+    }
+
+    private static long stringSize(String value) {
+        // compact strings store Latin-1 text in one byte per char
+        return value == null ? 0 : 40 + value.length();
+    }
+}
@@ -0,0 +1,160 @@
+package me.schf.ufc.scraper;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.TextStyle;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import me.schf.ufc.scraper.data.FighterProfile;
+import me.schf.ufc.scraper.data.Stance;
+
+/**
+ * Parses a fighter's profile page. Attributes the site shows as {@code --} are left unset, as are
+ * attributes in a format this parser does not know, which are logged instead of failing the
+ * profile.
+ */
+public class FighterProfileScraper {
+
+    private static final Logger LOGGER = Logger.getLogger(FighterProfileScraper.class.getName());
+
+    private static final String NO_VALUE = "--";
+    private static final Map<String, Month> MONTHS = new HashMap<>();
+
+    static {
+        for (Month month : Month.values()) {
+            MONTHS.put(month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toLowerCase(Locale.ROOT), month);
+        }
+    }
+
+    private static class Selectors {
+        static final String NAME = "span.b-content__title-highlight";
+        static final String ATTRIBUTE_ITEM = "ul.b-list__box-list li.b-list__box-list-item";
+        static final String ATTRIBUTE_TITLE = "i.b-list__box-item-title";
+    }
+
+    private static class Evaluators {
+        static final Evaluator NAME = QueryParser.parse(Selectors.NAME);
+        static final Evaluator ATTRIBUTE_ITEM = QueryParser.parse(Selectors.ATTRIBUTE_ITEM);
+        static final Evaluator ATTRIBUTE_TITLE = QueryParser.parse(Selectors.ATTRIBUTE_TITLE);
+    }
+
+    public FighterProfile parseProfile(String profileUrl, Document profilePage) {
+        var builder = new FighterProfile.Builder().profileUrl(profileUrl);
+
+        Element name = profilePage.selectFirst(Evaluators.NAME);
+        if (name != null) {
+            builder.name(name.text().trim());
+        }
+
+        for (Element item : profilePage.select(Evaluators.ATTRIBUTE_ITEM)) {
+            Element title = item.selectFirst(Evaluators.ATTRIBUTE_TITLE);
+            if (title == null) {
+                continue;
+            }
+            String value = item.ownText().trim();
+            if (value.isEmpty() || value.equals(NO_VALUE)) {
+                continue;
+            }
+            switch (title.text().trim().toLowerCase(Locale.ROOT)) {
+                case "height:" -> builder.heightInches(orWarn(parseHeight(value), "height", value, profileUrl));
+                case "reach:" -> builder.reachInches(orWarn(parseInches(value), "reach", value, profileUrl));
+                case "stance:" -> builder.stance(Stance.find(value).orElse(null));
+                case "dob:" -> builder.dateOfBirth(orWarn(parseDateOfBirth(value), "date of birth", value, profileUrl));
+                default -> {
+                    // weight, and the career averages in the second list, are not kept
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static Integer orWarn(int inches, String what, String value, String profileUrl) {
+        if (inches == NumberText.MISSING) {
+            LOGGER.warning(() -> "Unparseable " + what + " '" + value + "' on " + profileUrl + ", leaving it empty");
+            return null;
+        }
+        return inches;
+    }
+
+    private static LocalDate orWarn(LocalDate date, String what, String value, String profileUrl) {
+        if (date == null) {
+            LOGGER.warning(() -> "Unparseable " + what + " '" + value + "' on " + profileUrl + ", leaving it empty");
+        }
+        return date;
+    }
+
+    /**
+     * Parses heights such as {@code 5' 11"} or {@code 6'}.
+     *
+     * @return the height in inches, or {@link NumberText#MISSING}
+     */
+    private static int parseHeight(String value) {
+        int feetMark = value.indexOf('\'');
+        if (feetMark < 0) {
+            return parseInches(value);
+        }
+        int feet = NumberText.parseCount(value, 0, feetMark);
+        if (feet == NumberText.MISSING) {
+            return NumberText.MISSING;
+        }
+        String rest = value.substring(feetMark + 1).trim();
+        int inches = rest.isEmpty() ? 0 : parseInches(rest);
+        return inches == NumberText.MISSING ? NumberText.MISSING : feet * 12 + inches;
+    }
+
+    /**
+     * Parses lengths such as {@code 74"} or {@code 74.5"}, dropping any fraction.
+     *
+     * @return the whole inches, or {@link NumberText#MISSING}
+     */
+    private static int parseInches(String value) {
+        int end = value.indexOf('"');
+        if (end < 0) {
+            end = value.length();
+        }
+        int dot = NumberText.indexOf(value, '.', 0, end);
+        if (dot >= 0 && !isDigits(value, dot + 1, end)) {
+            return NumberText.MISSING;
+        }
+        return NumberText.parseCount(value, 0, dot < 0 ? end : dot);
+    }
+
+    /**
+     * Parses dates such as {@code Jul 22, 1989}.
+     *
+     * @return the date, or {@code null} if {@code value} is not such a date
+     */
+    private static LocalDate parseDateOfBirth(String value) {
+        int space = value.indexOf(' ');
+        int comma = value.indexOf(',');
+        if (space < 0 || comma < space) {
+            return null;
+        }
+        Month month = MONTHS.get(value.substring(0, space).toLowerCase(Locale.ROOT));
+        int day = NumberText.parseCount(value, space + 1, comma);
+        int year = NumberText.parseCount(value, comma + 1, value.length());
+        if (month == null || day < 1 || year < 1 || day > month.length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static boolean isDigits(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package me.schf.ufc.scraper;
+
+import java.time.Duration;
+
+/**
+ * Parses the counts and {@code m:ss} clocks of scraped table text in place.
+ * <p>
+ * Nothing is allocated and nothing is thrown: text that holds no number, such as the site's
+ * {@code --} placeholder or a blank cell, comes back as {@link #MISSING}. Callers decide what a
+ * missing value means instead of catching {@link NumberFormatException}.
+ * </p>
+ */
+final class NumberText {
+
+    static final int MISSING = -1;
+
+    // fight clocks never pass 5:00 and control times stay well below this
+    private static final int MAX_CACHED_SECONDS = 30 * 60;
+    private static final Duration[] DURATIONS = new Duration[MAX_CACHED_SECONDS + 1];
+
+    static {
+        for (int i = 0; i < DURATIONS.length; i++) {
+            DURATIONS[i] = Duration.ofSeconds(i);
+        }
+    }
+
+    private NumberText() {
+    }
+
+    /**
+     * @return the non-negative integer in {@code text}, ignoring surrounding whitespace, or
+     *         {@link #MISSING}
+     */
+    static int parseCount(CharSequence text) {
+        return parseCount(text, 0, text.length());
+    }
+
+    /**
+     * Like {@link #parseCount(CharSequence)}, for the characters from {@code start} (inclusive)
+     * to {@code end} (exclusive).
+     */
+    static int parseCount(CharSequence text, int start, int end) {
+        while (start < end && isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        // nine digits cannot overflow an int
+        if (start == end || end - start > 9) {
+            return MISSING;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return MISSING;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of seconds of an {@code m:ss} clock, or {@link #MISSING}
+     */
+    static int parseClockSeconds(CharSequence text) {
+        int colon = indexOf(text, ':', 0, text.length());
+        if (colon < 0) {
+            return MISSING;
+        }
+        int minutes = parseCount(text, 0, colon);
+        int seconds = parseCount(text, colon + 1, text.length());
+        if (minutes == MISSING || seconds == MISSING || seconds > 59) {
+            return MISSING;
+        }
+        return minutes * 60 + seconds;
+    }
+
+    /**
+     * @return a duration of {@code seconds}, shared for the common lengths, or {@code missing}
+     *         if {@code seconds} is {@link #MISSING}
+     */
+    static Duration toDuration(int seconds, Duration missing) {
+        if (seconds == MISSING) {
+            return missing;
+        }
+        return seconds <= MAX_CACHED_SECONDS ? DURATIONS[seconds] : Duration.ofSeconds(seconds);
+    }
+
+    static int indexOf(CharSequence text, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f' || c == '\u00a0';
+    }
+}
@@ -0,0 +1,21 @@
+package me.schf.ufc.scraper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.schf.ufc.scraper.ParseEventFights")
+@Label("Parse Event Fights")
+@Category({ "UFC Scraper", "Parsing" })
+@Description("Extraction of all fight rows from an event details page")
+@StackTrace(false)
+final class ParseEventFightsEvent extends jdk.jfr.Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Rows")
+    int rows;
+}
@@ -0,0 +1,21 @@
+package me.schf.ufc.scraper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("me.schf.ufc.scraper.ParseFightRow")
+@Label("Parse Fight Row")
+@Category({ "UFC Scraper", "Parsing" })
+@Description("Extraction of one fight row")
+@StackTrace(false)
+final class ParseFightRowEvent extends jdk.jfr.Event {
+
+    @Label("Row Index")
+    int rowIndex;
+
+    @Label("Fighters")
+    String fighters;
+}
@@ -0,0 +1,227 @@
+package me.schf.ufc.scraper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Durable progress record for incremental scraping.
+ * <p>
+ * A checkpoint holds a <i>covered range</i>, from a start date up to the <i>watermark</i>, in
+ * which every event has been scraped, plus the URLs of events completed outside it. Events in the
+ * covered range and events already completed are skipped, so a scheduled run only fetches new
+ * cards and a run that died halfway resumes with the events it had not finished yet. A later run
+ * reaching back before the covered range still scrapes the older events.
+ * </p>
+ * <p>
+ * Completed events are appended to a log next to the checkpoint file as they finish. The range
+ * only grows in {@link #finish(LocalDate, LocalDate)}, once the whole index has been walked, and
+ * never past an event that failed; the checkpoint file is then rewritten atomically and the log
+ * folded into it. Events dated today or later are never recorded as completed because their
+ * results may still change.
+ * </p>
+ */
+public class ScrapeCheckpoint {
+
+    private static final String START_KEY = "start=";
+    private static final String WATERMARK_KEY = "watermark=";
+    private static final String COMPLETED_KEY = "completed=";
+    private static final String LOG_SUFFIX = ".log";
+
+    private final Path file;
+    private final Path log;
+    private final Clock clock;
+    private LocalDate start;
+    private LocalDate watermark;
+    private final Map<String, LocalDate> completed = new LinkedHashMap<>();
+    private final TreeSet<LocalDate> failedDates = new TreeSet<>();
+
+    private ScrapeCheckpoint(Path file, Clock clock) {
+        this.file = file;
+        this.log = file.resolveSibling(file.getFileName() + LOG_SUFFIX);
+        this.clock = clock;
+    }
+
+    /**
+     * Loads the checkpoint stored in {@code file}, or starts an empty one if it does not exist.
+     *
+     * @param file the checkpoint file
+     * @return the loaded checkpoint
+     * @throws IOException if the file exists but cannot be read
+     */
+    public static ScrapeCheckpoint load(Path file) throws IOException {
+        return load(file, Clock.systemDefaultZone());
+    }
+
+    static ScrapeCheckpoint load(Path file, Clock clock) throws IOException {
+        ScrapeCheckpoint checkpoint = new ScrapeCheckpoint(file, clock);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.startsWith(START_KEY)) {
+                    checkpoint.start = LocalDate.parse(line.substring(START_KEY.length()).trim());
+                } else if (line.startsWith(WATERMARK_KEY)) {
+                    checkpoint.watermark = LocalDate.parse(line.substring(WATERMARK_KEY.length()).trim());
+                } else {
+                    checkpoint.readCompleted(line);
+                }
+            }
+            if (checkpoint.watermark != null && checkpoint.start == null) {
+                // written before the range start was recorded, when the watermark covered all history
+                checkpoint.start = LocalDate.MIN;
+            }
+        }
+        if (Files.exists(checkpoint.log)) {
+            for (String line : Files.readAllLines(checkpoint.log, StandardCharsets.UTF_8)) {
+                checkpoint.readCompleted(line);
+            }
+        }
+        return checkpoint;
+    }
+
+    private void readCompleted(String line) {
+        if (!line.startsWith(COMPLETED_KEY)) {
+            return;
+        }
+        String[] parts = line.substring(COMPLETED_KEY.length()).split(" ", 2);
+        if (parts.length != 2) {
+            return;
+        }
+        try {
+            completed.put(parts[1].trim(), LocalDate.parse(parts[0]));
+        } catch (DateTimeParseException e) {
+            // a line torn by a crash while appending to the log
+        }
+    }
+
+    public synchronized Optional<LocalDate> getWatermark() {
+        return Optional.ofNullable(watermark);
+    }
+
+    /**
+     * @return the oldest date of the covered range, if there is one
+     */
+    public synchronized Optional<LocalDate> getStart() {
+        return Optional.ofNullable(start);
+    }
+
+    /**
+     * @return the date from which a run starting at {@code startDate} still has events to scrape:
+     *         the day after the watermark if the covered range includes {@code startDate}, else
+     *         {@code startDate} itself
+     */
+    public synchronized LocalDate resumeDate(LocalDate startDate) {
+        if (watermark == null || startDate.isBefore(start) || startDate.isAfter(watermark)) {
+            return startDate;
+        }
+        return watermark.plusDays(1);
+    }
+
+    /**
+     * @return {@code true} if the event still has to be scraped
+     */
+    public synchronized boolean isPending(LocalDate eventDate, String eventUrl) {
+        return !isCovered(eventDate) && !completed.containsKey(eventUrl);
+    }
+
+    private boolean isCovered(LocalDate date) {
+        return watermark != null && !date.isBefore(start) && !date.isAfter(watermark);
+    }
+
+    /**
+     * Records a successfully scraped event and appends it to the checkpoint log.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    public synchronized void markCompleted(LocalDate eventDate, String eventUrl) throws IOException {
+        if (!eventDate.isBefore(LocalDate.now(clock))) {
+            return;
+        }
+        completed.put(eventUrl, eventDate);
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        Files.writeString(log, COMPLETED_KEY + eventDate + " " + eventUrl + System.lineSeparator(),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Records an event that could not be scraped; the watermark will not move past it.
+     */
+    public synchronized void markFailed(LocalDate eventDate) {
+        failedDates.add(eventDate);
+    }
+
+    /**
+     * Grows the covered range after the whole index from {@code startDate} to {@code endDate}
+     * has been processed, and persists the result.
+     * <p>
+     * The run is known to cover its start date up to its newest completed event that is older
+     * than every failed event, and up to the covered range if it reached that without a
+     * failure. The two are merged if they meet; a run that leaves a gap to the covered range only
+     * keeps its events as completed URLs. Completed URLs inside the new covered range are
+     * dropped, keeping the file small.
+     *
+     * @param startDate the start of the run's date range, inclusive
+     * @param endDate   the end of the run's date range, inclusive
+     * @throws IOException if the checkpoint file cannot be written
+     */
+    public synchronized void finish(LocalDate startDate, LocalDate endDate) throws IOException {
+        LocalDate oldestFailure = failedDates.isEmpty() ? null : failedDates.first();
+        // every event from startDate up to here was walked and is covered, completed or failed
+        LocalDate walked = oldestFailure != null && !oldestFailure.isAfter(endDate)
+                ? oldestFailure.minusDays(1)
+                : endDate;
+        LocalDate runEnd = null;
+        for (LocalDate date : completed.values()) {
+            boolean inRun = !date.isBefore(startDate) && !date.isAfter(walked);
+            if (inRun && (runEnd == null || date.isAfter(runEnd))) {
+                runEnd = date;
+            }
+        }
+        if (watermark == null) {
+            if (runEnd != null) {
+                start = startDate;
+                watermark = runEnd;
+            }
+        } else if (!startDate.isAfter(watermark.plusDays(1)) && !walked.plusDays(1).isBefore(start)) {
+            start = startDate.isBefore(start) ? startDate : start;
+            watermark = runEnd != null && runEnd.isAfter(watermark) ? runEnd : watermark;
+        }
+        completed.values().removeIf(this::isCovered);
+        failedDates.clear();
+        save();
+        Files.deleteIfExists(log);
+    }
+
+    private void save() throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                if (watermark != null) {
+                    writer.write(START_KEY + start);
+                    writer.newLine();
+                    writer.write(WATERMARK_KEY + watermark);
+                    writer.newLine();
+                }
+                for (var entry : completed.entrySet()) {
+                    writer.write(COMPLETED_KEY + entry.getValue() + " " + entry.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package me.schf.ufc.scraper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning everything done for one event card: fetches, parsing and
+ * building, so GC pauses and stalls in a recording can be traced to the card that caused them.
+ */
+@Name("me.schf.ufc.scraper.ScrapeEvent")
+@Label("Scrape Event")
+@Category({ "UFC Scraper" })
+@Description("Scraping of one event card")
+@StackTrace(false)
+final class ScrapeEventEvent extends jdk.jfr.Event {
+
+    @Label("Event Name")
+    String eventName;
+
+    @Label("URL")
+    String url;
+
+    @Label("Fights")
+    int fights;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
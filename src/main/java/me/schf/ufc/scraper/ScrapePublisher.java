@@ -0,0 +1,169 @@
+package me.schf.ufc.scraper;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.schf.ufc.scraper.data.Event;
+
+/**
+ * Publishes scraped events with demand-driven fetching.
+ * <p>
+ * Every subscription runs its own scrape. Nothing is fetched until the subscriber requests
+ * events, and the next event page is only fetched while there is outstanding demand, so a slow
+ * subscriber holds back the scrape instead of buffering events. The work runs on a virtual
+ * thread that exists only while demand is being served; an idle subscription holds no thread.
+ * </p>
+ * <p>
+ * Cancelling interrupts the fetch in flight. Any failure, whether fetching the listing or
+ * scraping an event, terminates the subscription with {@code onError}.
+ * </p>
+ */
+class ScrapePublisher implements Flow.Publisher<Event> {
+
+    private static final Logger LOGGER = Logger.getLogger(ScrapePublisher.class.getName());
+
+    private final Callable<EventScraper> eventScraperFactory;
+
+    ScrapePublisher(Callable<EventScraper> eventScraperFactory) {
+        this.eventScraperFactory = eventScraperFactory;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Event> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        ScrapeSubscription subscription = new ScrapeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class ScrapeSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Event> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        // number of drain requests not yet seen by the drain loop; 0 means no drain is running
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Thread drainThread;
+        private volatile Throwable invalidRequest;
+
+        // only touched by the drain loop, which never runs concurrently with itself
+        private EventScraper.EventCursor cursor;
+        private boolean done;
+
+        ScrapeSubscription(Flow.Subscriber<? super Event> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("non-positive request: " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Thread thread = drainThread;
+            if (thread != null) {
+                thread.interrupt();
+            }
+            // let the drain loop release the listing, since it owns the cursor
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (wip.getAndIncrement() == 0) {
+                Thread.ofVirtual().name("ufc-scrape-publisher").start(this::drain);
+            }
+        }
+
+        private void drain() {
+            drainThread = Thread.currentThread();
+            try {
+                int missed = 1;
+                while (true) {
+                    drainOnce();
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        return;
+                    }
+                }
+            } finally {
+                drainThread = null;
+            }
+        }
+
+        private void drainOnce() {
+            while (!done) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    fail(invalidRequest);
+                    return;
+                }
+                if (demand.get() == 0) {
+                    return;
+                }
+
+                Event event;
+                try {
+                    if (cursor == null) {
+                        cursor = eventScraperFactory.call().openCursor();
+                    }
+                    event = cursor.next();
+                } catch (Throwable t) {
+                    if (cancelled) {
+                        terminate();
+                    } else {
+                        fail(t);
+                    }
+                    return;
+                }
+
+                if (event == null) {
+                    terminate();
+                    if (!cancelled) {
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                if (cancelled) {
+                    continue;
+                }
+                demand.decrementAndGet();
+                try {
+                    subscriber.onNext(event);
+                } catch (Throwable t) {
+                    LOGGER.log(Level.SEVERE, "Subscriber failed in onNext, cancelling the scrape", t);
+                    cancelled = true;
+                }
+            }
+        }
+
+        private void fail(Throwable t) {
+            terminate();
+            subscriber.onError(t);
+        }
+
+        private void terminate() {
+            done = true;
+            if (cursor != null) {
+                cursor.close();
+            }
+            // don't leak a cancellation interrupt into the rest of this thread's work
+            Thread.interrupted();
+        }
+    }
+}
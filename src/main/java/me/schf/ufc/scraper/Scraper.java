@@ -1,15 +1,27 @@
 package me.schf.ufc.scraper;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-
 import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.fetch.AimdRateController;
+import me.schf.ufc.scraper.fetch.CachePolicy;
+import me.schf.ufc.scraper.fetch.CachingPageFetcher;
+import me.schf.ufc.scraper.fetch.HttpPageFetcher;
+import me.schf.ufc.scraper.fetch.PageFetcher;
+import me.schf.ufc.scraper.fetch.RateLimiter;
+import me.schf.ufc.scraper.fetch.ResponseCache;
+import me.schf.ufc.scraper.fetch.RetryingPageFetcher;
+import me.schf.ufc.scraper.metrics.ScraperMetrics;
+import me.schf.ufc.scraper.sink.EventSink;
 
 /**
  * Scraper class responsible for scraping UFC event data from the official statistics site.
@@ -21,22 +33,84 @@ import me.schf.ufc.scraper.data.Event;
  * The scraper can perform both eager scraping (returning a list of events) and lazy streaming
  * of events, allowing flexible memory and performance usage.
  * </p>
+ * <p>
+ * All requests made by one scraper share a token-bucket {@link RateLimiter}. Eager scrapes can
+ * additionally fetch several event pages at once (see {@link Builder#concurrency(int)}); the
+ * limiter still caps the overall request rate, so concurrency only hides request latency.
+ * Concurrent scrapes parse the downloaded pages on a separate pool of platform threads (see
+ * {@link Builder#parseThreads(int)}), so parsing and network waits overlap.
+ * </p>
+ * <p>
+ * An optional {@link ResponseCache} sits below the scraper so repeated runs only go to the
+ * network for pages that are new or stale; cache hits do not consume rate-limit tokens.
+ * </p>
+ * <p>
+ * Fetches that fail with HTTP 429, 5xx or a timeout are retried with jittered exponential
+ * backoff (see {@link Builder#maxAttempts(int)}), honoring the server's {@code Retry-After}.
+ * With {@link Builder#adaptiveRate(double, double)} the request rate is also tuned at runtime
+ * to the highest rate the server accepts.
+ * </p>
+ * <p>
+ * Every scraper records counters and per-stage latencies in its {@link #getMetrics()}, which
+ * can be exposed with a {@link me.schf.ufc.scraper.metrics.MetricsServer}.
+ * </p>
  * 
  * <p><b>Note:</b> The {@code startDate} and {@code endDate} refer to the event dates and
  * are both inclusive.</p>
  */
 public class Scraper {
 
-    private final Duration linkAccessDelay;
+    private final ScraperMetrics metrics = new ScraperMetrics();
+    private final PageFetcher pageFetcher;
+    private final int concurrency;
+    private final int parseThreads;
+    private final Path checkpointFile;
+    private final Path pageStoreDir;
+    private final EventPageStore.ChangeListener pageChangeListener;
+    private final boolean fightDetails;
+    private final boolean fighterProfiles;
+    private final FighterCache fighterCache;
     private final LocalDate startDate;
     private final LocalDate endDate;
+    private final Consumer<? super Event> eventListener;
 
-    private static final String BASE_URL = "http://www.ufcstats.com/statistics/events/completed?page=all";
-
-    private Scraper(Duration linkAccessDelay, LocalDate startDate, LocalDate endDate) {
-        this.linkAccessDelay = linkAccessDelay != null ? linkAccessDelay : Duration.ofSeconds(2);
-        this.startDate = startDate != null ? startDate : LocalDate.MIN;
-        this.endDate = endDate != null ? endDate : LocalDate.MAX;
+    private Scraper(Builder builder) {
+        Duration linkAccessDelay = builder.linkAccessDelay != null ? builder.linkAccessDelay : Duration.ofSeconds(2);
+        RateLimiter rateLimiter = builder.requestsPerSecond != null
+                ? new RateLimiter(builder.requestsPerSecond, 1)
+                : RateLimiter.ofInterval(linkAccessDelay);
+        HttpClient httpClient = HttpPageFetcher.newHttpClient(builder.connectTimeout);
+        PageFetcher fetcher = new HttpPageFetcher(rateLimiter, httpClient, builder.readTimeout, metrics);
+        AimdRateController rateController = builder.adaptiveMaxRate > 0
+                ? new AimdRateController.Builder()
+                        .rateLimiter(rateLimiter)
+                        .minRate(builder.adaptiveMinRate)
+                        .maxRate(builder.adaptiveMaxRate)
+                        .build()
+                : null;
+        fetcher = new RetryingPageFetcher.Builder()
+                .delegate(fetcher)
+                .rateLimiter(rateLimiter)
+                .rateController(rateController)
+                .maxAttempts(builder.maxAttempts)
+                .onRetry(metrics.fetchRetries()::increment)
+                .build();
+        if (builder.responseCache != null) {
+            CachePolicy policy = builder.cachePolicy != null ? builder.cachePolicy : CachePolicy.defaults();
+            fetcher = new CachingPageFetcher(fetcher, builder.responseCache, policy);
+        }
+        this.pageFetcher = fetcher;
+        this.concurrency = builder.concurrency;
+        this.parseThreads = builder.parseThreads;
+        this.checkpointFile = builder.checkpointFile;
+        this.pageStoreDir = builder.pageStoreDir;
+        this.pageChangeListener = builder.pageChangeListener;
+        this.fightDetails = builder.fightDetails;
+        this.fighterProfiles = builder.fighterProfiles;
+        this.fighterCache = new FighterCache(builder.fighterCacheBytes);
+        this.startDate = builder.startDate != null ? builder.startDate : LocalDate.MIN;
+        this.endDate = builder.endDate != null ? builder.endDate : LocalDate.MAX;
+        this.eventListener = builder.eventListener;
     }
 
     /**
@@ -44,8 +118,25 @@ public class Scraper {
      */
     public static class Builder {
         private Duration linkAccessDelay;
+        private Double requestsPerSecond;
+        private int concurrency = 1;
+        private int parseThreads = Runtime.getRuntime().availableProcessors();
+        private int maxAttempts = 4;
+        private Duration connectTimeout = HttpPageFetcher.DEFAULT_CONNECT_TIMEOUT;
+        private Duration readTimeout = HttpPageFetcher.DEFAULT_READ_TIMEOUT;
+        private double adaptiveMinRate;
+        private double adaptiveMaxRate;
+        private ResponseCache responseCache;
+        private CachePolicy cachePolicy;
+        private Path checkpointFile;
+        private Path pageStoreDir;
+        private EventPageStore.ChangeListener pageChangeListener = (url, previous, current) -> { };
+        private boolean fightDetails;
+        private boolean fighterProfiles;
+        private long fighterCacheBytes = FighterCache.DEFAULT_MAX_BYTES;
         private LocalDate startDate;
         private LocalDate endDate;
+        private Consumer<? super Event> eventListener = event -> { };
 
         /**
          * Sets the delay between URL accesses during scraping.
@@ -61,6 +152,238 @@ public class Scraper {
             return this;
         }
 
+        /**
+         * Sets the maximum request rate shared by all scraping threads.
+         * <p>
+         * This takes precedence over {@link #linkAccessDelay(Duration)}, which is equivalent to
+         * a rate of one request per delay. A value of {@code 0} disables rate limiting.
+         *
+         * @param requestsPerSecond the sustained number of requests allowed per second
+         * @return this builder instance
+         */
+        public Builder requestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets how many times a fetch is attempted before giving up on a page, including the
+         * first attempt. Only transient failures are retried: HTTP 429, 500, 502, 503, 504,
+         * timeouts and refused connections. Defaults to 4; {@code 1} disables retries.
+         *
+         * @param maxAttempts attempts per page
+         * @return this builder instance
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for a connection to the site to be established. All fetches of
+         * a scraper share one HTTP client, which keeps connections alive between requests, so
+         * this mostly applies to the first requests of a run. Defaults to 30 seconds.
+         *
+         * @param connectTimeout the connect timeout
+         * @return this builder instance
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            if (connectTimeout.isZero() || connectTimeout.isNegative()) {
+                throw new IllegalArgumentException("connectTimeout must be positive: " + connectTimeout);
+            }
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for the server to start answering a request once it has been
+         * sent. A timed-out request is retried like other transient failures. Defaults to 30
+         * seconds.
+         *
+         * @param readTimeout the read timeout
+         * @return this builder instance
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            if (readTimeout.isZero() || readTimeout.isNegative()) {
+                throw new IllegalArgumentException("readTimeout must be positive: " + readTimeout);
+            }
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Lets the scraper find the highest request rate the server tolerates.
+         * <p>
+         * Starting from the configured rate (see {@link #requestsPerSecond(double)}), the rate
+         * grows additively while responses are healthy and is halved on HTTP 429/503 or a
+         * timeout, always staying within the given bounds.
+         *
+         * @param minRequestsPerSecond the rate never drops below this
+         * @param maxRequestsPerSecond the rate never rises above this
+         * @return this builder instance
+         */
+        public Builder adaptiveRate(double minRequestsPerSecond, double maxRequestsPerSecond) {
+            if (minRequestsPerSecond <= 0 || maxRequestsPerSecond < minRequestsPerSecond) {
+                throw new IllegalArgumentException("need 0 < min <= max: "
+                        + minRequestsPerSecond + ", " + maxRequestsPerSecond);
+            }
+            this.adaptiveMinRate = minRequestsPerSecond;
+            this.adaptiveMaxRate = maxRequestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets how many event pages {@link Scraper#doScrape()} may fetch at the same time.
+         * <p>
+         * Each fetch runs on its own virtual thread, but all of them draw from the same rate
+         * limit. Results are returned in the same order as a sequential scrape. Defaults to 1.
+         *
+         * @param concurrency the maximum number of event pages in flight
+         * @return this builder instance
+         */
+        public Builder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be at least 1: " + concurrency);
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets how many threads parse event pages when {@link #concurrency(int)} is above 1.
+         * <p>
+         * Downloaded pages wait for a parse thread in a small bounded queue; when it is full the
+         * fetchers pause. Queue depth and busy parse threads are reported in
+         * {@link Scraper#getMetrics()}. Defaults to the number of available processors.
+         *
+         * @param parseThreads the size of the parse thread pool
+         * @return this builder instance
+         */
+        public Builder parseThreads(int parseThreads) {
+            if (parseThreads < 1) {
+                throw new IllegalArgumentException("parseThreads must be at least 1: " + parseThreads);
+            }
+            this.parseThreads = parseThreads;
+            return this;
+        }
+
+        /**
+         * Sets a cache for fetched pages, e.g. a {@link me.schf.ufc.scraper.fetch.DiskResponseCache}.
+         * <p>
+         * Fresh entries are served without a request; stale ones are revalidated with
+         * {@code ETag}/{@code Last-Modified} when the server provided them.
+         *
+         * @param responseCache the cache to read from and store responses in
+         * @return this builder instance
+         */
+        public Builder responseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Sets the freshness rules for the response cache. Defaults to {@link CachePolicy#defaults()}.
+         *
+         * @param cachePolicy the TTLs per kind of page
+         * @return this builder instance
+         */
+        public Builder cachePolicy(CachePolicy cachePolicy) {
+            this.cachePolicy = cachePolicy;
+            return this;
+        }
+
+        /**
+         * Enables incremental scraping, persisting progress to the given file.
+         * <p>
+         * Each run then only returns events that were not scraped by a previous run with the
+         * same checkpoint file. For streams, the watermark advances once the stream has been
+         * consumed to the end; completed events are recorded as they are produced either way.
+         *
+         * @param checkpointFile where to load and store the {@link ScrapeCheckpoint}
+         * @return this builder instance
+         */
+        public Builder checkpointFile(Path checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        /**
+         * Keeps a content hash and the parsed fights of every event page in the given directory.
+         * <p>
+         * On later runs an event page that hashes the same as its stored copy is not parsed
+         * again; its fights are taken from the store, so refreshing a long date range costs
+         * little more than fetching and hashing the pages. Per-round stats and fighter profiles
+         * are still attached as configured. The store is saved once a scrape has walked the
+         * whole listing.
+         *
+         * @param pageStoreDir where to load and store the {@link EventPageStore}
+         * @return this builder instance
+         */
+        public Builder pageStoreDir(Path pageStoreDir) {
+            this.pageStoreDir = pageStoreDir;
+            return this;
+        }
+
+        /**
+         * Sets a callback for event pages whose content changed since they were stored, e.g.
+         * after a result was overturned. It receives the fights parsed from the stored and the
+         * new page, and is called from the thread that parsed the page. Only used together with
+         * {@link #pageStoreDir(Path)}.
+         *
+         * @param pageChangeListener called with each changed event page
+         * @return this builder instance
+         */
+        public Builder pageChangeListener(EventPageStore.ChangeListener pageChangeListener) {
+            this.pageChangeListener = pageChangeListener;
+            return this;
+        }
+
+        /**
+         * Enables per-round stats, exposed through {@link me.schf.ufc.scraper.data.FighterStats#getRoundStats()}.
+         * <p>
+         * This fetches one extra page per fight. The fight pages of an event are fetched
+         * concurrently under the shared rate limit, and an event is only returned once all of
+         * them have been parsed. Defaults to {@code false}.
+         *
+         * @param fightDetails whether to scrape each fight's detail page
+         * @return this builder instance
+         */
+        public Builder fightDetails(boolean fightDetails) {
+            this.fightDetails = fightDetails;
+            return this;
+        }
+
+        /**
+         * Enables fighter profiles, exposed through {@link me.schf.ufc.scraper.data.FighterStats#getProfile()}.
+         * <p>
+         * Each fighter's profile page is fetched once per scraper and kept in a bounded cache
+         * (see {@link #fighterCacheBytes(long)}), however many events they appear in. Defaults to
+         * {@code false}.
+         *
+         * @param fighterProfiles whether to scrape fighter profile pages
+         * @return this builder instance
+         */
+        public Builder fighterProfiles(boolean fighterProfiles) {
+            this.fighterProfiles = fighterProfiles;
+            return this;
+        }
+
+        /**
+         * Sets the approximate heap budget of the fighter profile cache. Profiles evicted from
+         * it are fetched again if the fighter shows up in a later event.
+         * Defaults to {@link FighterCache#DEFAULT_MAX_BYTES}.
+         *
+         * @param maxBytes the cache budget in bytes
+         * @return this builder instance
+         */
+        public Builder fighterCacheBytes(long maxBytes) {
+            this.fighterCacheBytes = maxBytes;
+            return this;
+        }
+
         /**
          * Sets the inclusive start of the event date range to scrape.
          *
@@ -83,13 +406,30 @@ public class Scraper {
             return this;
         }
 
+        /**
+         * Sets a callback that sees every scraped event, whichever method runs the scrape.
+         * <p>
+         * Events reach the listener in listing order, one at a time, on the thread consuming the
+         * results, so it needs no synchronization unless several scrapes run at the same time.
+         * This is the place to attach an incremental stage such as a
+         * {@link me.schf.ufc.scraper.aggregate.CareerAggregator} without a second pass over the
+         * events.
+         *
+         * @param eventListener called with each event before it is returned or written
+         * @return this builder instance
+         */
+        public Builder eventListener(Consumer<? super Event> eventListener) {
+            this.eventListener = eventListener;
+            return this;
+        }
+
         /**
          * Builds and returns a configured {@link Scraper} instance for the given event date range.
          *
          * @return a new Scraper instance
          */
         public Scraper build() {
-            return new Scraper(linkAccessDelay, startDate, endDate);
+            return new Scraper(this);
         }
     }
     
@@ -104,10 +444,11 @@ public class Scraper {
      * @throws IOException if a network or parsing error occurs
      */
     public List<Event> doScrape() throws IOException {
-        Document allEventsPage = Jsoup.connect(BASE_URL).get();
-
-        EventScraper eventScraper = new EventScraper(startDate, endDate, linkAccessDelay);
-        return eventScraper.scrapeEvents(allEventsPage);
+        EventScraper eventScraper = newEventScraper()
+                .concurrency(concurrency)
+                .parseThreads(parseThreads)
+                .build();
+        return eventScraper.scrapeEvents();
     }
 
     /**
@@ -122,8 +463,87 @@ public class Scraper {
      * @throws IOException if a network or parsing error occurs
      */
     public Stream<Event> streamScrapedEvents() throws IOException {
-        Document allEventsPage = Jsoup.connect(BASE_URL).get();
-        return new EventScraper(startDate, endDate, linkAccessDelay).scrapeEventsStream(allEventsPage);
+        return newEventScraper().build().scrapeEventsStream();
+    }
+
+    /**
+     * Returns a publisher of the events within the configured date range.
+     * <p>
+     * Each subscription runs its own scrape, fetching event pages only as the subscriber
+     * requests events, so demand controls the pace and no events pile up in memory. Cancelling
+     * aborts the fetch in flight, and a failure to fetch the listing or to scrape any event ends
+     * the subscription with {@code onError} rather than being logged and skipped. Events are
+     * scraped one at a time regardless of {@link Builder#concurrency(int)}.
+     *
+     * @return a cold publisher of scraped events
+     */
+    public Flow.Publisher<Event> publishScrapedEvents() {
+        return new ScrapePublisher(() -> newEventScraper().build());
+    }
+
+    /**
+     * Scrapes events within the configured date range and writes each one to {@code sink} as
+     * soon as it is parsed.
+     * <p>
+     * Unlike {@link #doScrape()}, nothing is collected: only the events currently being fetched
+     * are held in memory, so a full-history scrape needs no more heap than a single card. Events
+     * are written in the same order as {@link #doScrape()} returns them, also when
+     * {@link Builder#concurrency(int)} is above 1. The sink is flushed at the end but not
+     * closed.
+     *
+     * @param sink where to write the events, e.g. a {@link me.schf.ufc.scraper.sink.NdjsonEventSink}
+     * @throws IOException if the listing cannot be fetched or the sink fails
+     */
+    public void scrapeTo(EventSink sink) throws IOException {
+        EventScraper eventScraper = newEventScraper()
+                .concurrency(concurrency)
+                .parseThreads(parseThreads)
+                .build();
+        // forEachEvent unwraps the UncheckedIOException again
+        eventScraper.forEachEvent(event -> {
+            try {
+                sink.write(event);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        sink.flush();
+    }
+
+    /**
+     * Reads the dates of the events within the configured date range from the event listing,
+     * newest first, without scraping the events themselves. Useful to plan work, e.g. with
+     * {@link me.schf.ufc.scraper.shard.ShardCoordinator}.
+     *
+     * @return the event dates, newest first; a date appears once per event held on it
+     * @throws IOException if the listing cannot be fetched
+     */
+    public List<LocalDate> listEventDates() throws IOException {
+        return newEventScraper().build().listEventDates();
+    }
+
+    /**
+     * Returns the counters and stage latencies of every scrape run by this scraper.
+     *
+     * @return the live metrics of this scraper
+     */
+    public ScraperMetrics getMetrics() {
+        return metrics;
+    }
+
+    private EventScraper.Builder newEventScraper() throws IOException {
+        return new EventScraper.Builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .pageFetcher(pageFetcher)
+                .fightDetails(fightDetails)
+                .fighterProfiles(fighterProfiles)
+                .fighterCache(fighterCache)
+                .metrics(metrics)
+                .eventListener(eventListener)
+                .checkpoint(checkpointFile != null ? ScrapeCheckpoint.load(checkpointFile) : null)
+                .pageStore(pageStoreDir != null ? EventPageStore.load(pageStoreDir) : null)
+                .pageChangeListener(pageChangeListener);
     }
 
 }
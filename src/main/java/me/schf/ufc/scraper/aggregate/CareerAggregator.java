@@ -0,0 +1,184 @@
+package me.schf.ufc.scraper.aggregate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.util.StringDictionary;
+
+/**
+ * Running per-fighter career totals, updated one event at a time.
+ * <p>
+ * Fighters get dense ids from a {@link StringDictionary} and their totals live in primitive
+ * arrays indexed by id, so feeding an event costs a few array increments per fighter and no
+ * allocation once a fighter has been seen. Fighters are told apart by profile URL, so namesakes
+ * keep separate totals; a fighter listed without one falls back to the name. A win is an
+ * appearance with the winner flag; a loss is one without it in a fight that somebody won, so
+ * draws and no contests count as neither. Wins are also counted by {@link Method}, decisions
+ * included.
+ * </p>
+ * <p>
+ * Aggregators are mergeable: partial totals from parallel or earlier runs are combined with
+ * {@link #merge(CareerAggregator)} without going back to the events. Being a
+ * {@code Consumer<Event>}, an aggregator can be fed while scraping, e.g. with
+ * {@code Scraper.Builder#eventListener}. Not thread-safe; give each thread its own and merge.
+ * </p>
+ *
+ * <pre>{@code
+ * CareerAggregator careers = new CareerAggregator();
+ * scraper.streamScrapedEvents().forEach(careers);
+ * careers.get(fighterStats.getProfileUrl()).ifPresent(totals -> System.out.println(totals.getWins()));
+ * }</pre>
+ */
+public class CareerAggregator implements Consumer<Event> {
+
+    private static final Method[] METHODS = Method.values();
+
+    // profile URLs, or names for fighters listed without one
+    private final StringDictionary fighters = new StringDictionary();
+
+    private String[] names = new String[256];
+    private int[] fights = new int[256];
+    private int[] wins = new int[256];
+    private int[] losses = new int[256];
+    private int[] titleFights = new int[256];
+    private long[] knockdowns = new long[256];
+    private long[] significantStrikes = new long[256];
+    private long[] takedowns = new long[256];
+    private long[] submissionAttempts = new long[256];
+    // METHODS.length counters per fighter
+    private int[] winsByMethod = new int[256 * METHODS.length];
+
+    @Override
+    public void accept(Event event) {
+        if (event.getFightResults() == null) {
+            return;
+        }
+        for (FightResult fight : event.getFightResults()) {
+            add(fight);
+        }
+    }
+
+    private void add(FightResult fight) {
+        List<FighterStats> fighterStats = fight.getFighterStatsList();
+        boolean decided = false;
+        for (FighterStats stats : fighterStats) {
+            decided |= stats.isWinner();
+        }
+        for (FighterStats stats : fighterStats) {
+            String key = stats.getProfileUrl() != null ? stats.getProfileUrl() : stats.getName();
+            if (key == null) {
+                continue;
+            }
+            int id = idOf(key);
+            if (stats.getName() != null) {
+                names[id] = stats.getName();
+            }
+            fights[id]++;
+            if (stats.isWinner()) {
+                wins[id]++;
+                if (fight.getMethod() != null) {
+                    winsByMethod[id * METHODS.length + fight.getMethod().ordinal()]++;
+                }
+            } else if (decided) {
+                losses[id]++;
+            }
+            if (fight.isTitleFight()) {
+                titleFights[id]++;
+            }
+            knockdowns[id] += recorded(stats.getKnockdowns());
+            significantStrikes[id] += recorded(stats.getSignificantStrikes());
+            takedowns[id] += recorded(stats.getTakedowns());
+            submissionAttempts[id] += recorded(stats.getSubmissionAttempts());
+        }
+    }
+
+    // counts the site did not record add nothing to the totals
+    private static int recorded(int count) {
+        return count == FighterStats.MISSING ? 0 : count;
+    }
+
+    /**
+     * Adds the totals of {@code other} to this aggregator. {@code other} is left unchanged.
+     *
+     * @return this aggregator
+     */
+    public CareerAggregator merge(CareerAggregator other) {
+        for (int from = 0; from < other.fighters.size(); from++) {
+            int to = idOf(other.fighters.get(from));
+            if (other.names[from] != null) {
+                names[to] = other.names[from];
+            }
+            fights[to] += other.fights[from];
+            wins[to] += other.wins[from];
+            losses[to] += other.losses[from];
+            titleFights[to] += other.titleFights[from];
+            knockdowns[to] += other.knockdowns[from];
+            significantStrikes[to] += other.significantStrikes[from];
+            takedowns[to] += other.takedowns[from];
+            submissionAttempts[to] += other.submissionAttempts[from];
+            for (int m = 0; m < METHODS.length; m++) {
+                winsByMethod[to * METHODS.length + m] += other.winsByMethod[from * METHODS.length + m];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of distinct fighters seen
+     */
+    public int fighterCount() {
+        return fighters.size();
+    }
+
+    /**
+     * @param fighter the fighter's profile URL, or the name if the fighter was listed without one
+     * @return a snapshot of the fighter's totals, or empty if the fighter has not been seen
+     */
+    public Optional<CareerTotals> get(String fighter) {
+        int id = fighters.find(fighter);
+        return id < 0 ? Optional.empty() : Optional.of(totals(id));
+    }
+
+    /**
+     * @return snapshots of every fighter's totals, in the order the fighters were first seen
+     */
+    public List<CareerTotals> all() {
+        return IntStream.range(0, fighters.size()).mapToObj(this::totals).toList();
+    }
+
+    private CareerTotals totals(int id) {
+        int[] byMethod = Arrays.copyOfRange(winsByMethod, id * METHODS.length, (id + 1) * METHODS.length);
+        String key = fighters.get(id);
+        String profileUrl = key.equals(names[id]) ? null : key;
+        return new CareerTotals(names[id], profileUrl, fights[id], wins[id], losses[id], titleFights[id],
+                knockdowns[id], significantStrikes[id], takedowns[id], submissionAttempts[id], byMethod);
+    }
+
+    private int idOf(String name) {
+        int id = fighters.idOf(name);
+        if (id == fights.length) {
+            grow(id * 2);
+        }
+        return id;
+    }
+
+    private void grow(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        fights = Arrays.copyOf(fights, capacity);
+        wins = Arrays.copyOf(wins, capacity);
+        losses = Arrays.copyOf(losses, capacity);
+        titleFights = Arrays.copyOf(titleFights, capacity);
+        knockdowns = Arrays.copyOf(knockdowns, capacity);
+        significantStrikes = Arrays.copyOf(significantStrikes, capacity);
+        takedowns = Arrays.copyOf(takedowns, capacity);
+        submissionAttempts = Arrays.copyOf(submissionAttempts, capacity);
+        winsByMethod = Arrays.copyOf(winsByMethod, capacity * METHODS.length);
+    }
+}
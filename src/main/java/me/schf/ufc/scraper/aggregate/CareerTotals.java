@@ -0,0 +1,112 @@
+package me.schf.ufc.scraper.aggregate;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import me.schf.ufc.scraper.data.Method;
+
+/**
+ * A snapshot of one fighter's career totals taken from a {@link CareerAggregator}.
+ */
+public class CareerTotals {
+
+    private static final Method[] METHODS = Method.values();
+
+    private final String name;
+    private final String profileUrl;
+    private final int fights;
+    private final int wins;
+    private final int losses;
+    private final int titleFights;
+    private final long knockdowns;
+    private final long significantStrikes;
+    private final long takedowns;
+    private final long submissionAttempts;
+    private final int[] winsByMethod;
+
+    CareerTotals(String name, String profileUrl, int fights, int wins, int losses, int titleFights, long knockdowns,
+            long significantStrikes, long takedowns, long submissionAttempts, int[] winsByMethod) {
+        this.name = name;
+        this.profileUrl = profileUrl;
+        this.fights = fights;
+        this.wins = wins;
+        this.losses = losses;
+        this.titleFights = titleFights;
+        this.knockdowns = knockdowns;
+        this.significantStrikes = significantStrikes;
+        this.takedowns = takedowns;
+        this.submissionAttempts = submissionAttempts;
+        this.winsByMethod = winsByMethod;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the fighter's profile URL, or {@code null} if the fighter was listed without one
+     */
+    public String getProfileUrl() {
+        return profileUrl;
+    }
+
+    public int getFights() {
+        return fights;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getTitleFights() {
+        return titleFights;
+    }
+
+    public long getKnockdowns() {
+        return knockdowns;
+    }
+
+    public long getSignificantStrikes() {
+        return significantStrikes;
+    }
+
+    public long getTakedowns() {
+        return takedowns;
+    }
+
+    public long getSubmissionAttempts() {
+        return submissionAttempts;
+    }
+
+    /**
+     * @return the number of wins by {@code method}
+     */
+    public int getWinsByMethod(Method method) {
+        return winsByMethod[method.ordinal()];
+    }
+
+    /**
+     * @return the wins by method, leaving out methods without any
+     */
+    public Map<Method, Integer> getWinsByMethod() {
+        Map<Method, Integer> byMethod = new EnumMap<>(Method.class);
+        for (Method method : METHODS) {
+            if (winsByMethod[method.ordinal()] > 0) {
+                byMethod.put(method, winsByMethod[method.ordinal()]);
+            }
+        }
+        return byMethod;
+    }
+
+    @Override
+    public String toString() {
+        return "CareerTotals [name=" + name + ", profileUrl=" + profileUrl + ", fights=" + fights + ", wins=" + wins + ", losses=" + losses
+                + ", titleFights=" + titleFights + ", knockdowns=" + knockdowns + ", significantStrikes="
+                + significantStrikes + ", takedowns=" + takedowns + ", submissionAttempts=" + submissionAttempts
+                + ", winsByMethod=" + getWinsByMethod() + "]";
+    }
+}
@@ -0,0 +1,66 @@
+package me.schf.ufc.scraper.compact;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import me.schf.ufc.scraper.data.Event;
+
+/**
+ * A flyweight view of one event in a {@link FightHistory}, with the getters of {@link Event}.
+ */
+public final class EventView {
+
+    private final FightHistory history;
+    private final int index;
+
+    EventView(FightHistory history, int index) {
+        this.history = history;
+        this.index = index;
+    }
+
+    /**
+     * @return the position of this event in its history
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getEventName() {
+        return history.eventName(index);
+    }
+
+    public LocalDate getEventDate() {
+        return history.eventDate(index);
+    }
+
+    public List<FightView> getFightResults() {
+        return history.fightsOf(index);
+    }
+
+    /**
+     * Copies this event back into a regular {@link Event}.
+     */
+    public Event toEvent() {
+        return new Event.Builder()
+                .eventName(getEventName())
+                .eventDate(getEventDate())
+                .fightResults(getFightResults().stream().map(FightView::toFightResult).toList())
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof EventView other && other.history == history && other.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(history) * 31 + index;
+    }
+
+    @Override
+    public String toString() {
+        return "EventView [eventName=" + getEventName() + ", eventDate=" + getEventDate()
+                + ", fights=" + getFightResults().size() + "]";
+    }
+}
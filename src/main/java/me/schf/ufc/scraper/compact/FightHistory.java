@@ -0,0 +1,411 @@
+package me.schf.ufc.scraper.compact;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.data.WeightClass;
+import me.schf.ufc.scraper.util.StringDictionary;
+
+/**
+ * An immutable, compact in-memory copy of many events, for keeping a whole fight history
+ * resident.
+ * <p>
+ * Instead of one object per event, fight and fighter appearance, the history keeps one primitive
+ * array per field: names and links are dictionary-coded into a shared string table, enums are
+ * stored as byte ordinals, end times as seconds and the four per-fighter counts plus the winner
+ * flag are packed into a single {@code long}. A full history takes a small fraction of the heap
+ * the {@link Event} graph needs.
+ * </p>
+ * <p>
+ * {@link #events()} and the views it leads to, {@link EventView}, {@link FightView} and
+ * {@link FighterView}, expose the same getters as the scraped classes. Views are tiny
+ * flyweights created on access, holding nothing but this history and an index, so they should
+ * be used and dropped rather than stored. Per-round stats and fighter profiles are not kept.
+ * </p>
+ *
+ * <pre>{@code
+ * FightHistory.Builder builder = new FightHistory.Builder();
+ * scraper.streamScrapedEvents().forEach(builder::add);
+ * FightHistory history = builder.build();
+ * }</pre>
+ */
+public final class FightHistory {
+
+    private static final WeightClass[] WEIGHT_CLASSES = WeightClass.values();
+    private static final Method[] METHODS = Method.values();
+    private static final Round[] ROUNDS = Round.values();
+
+    // four 15-bit counts, then the winner flag; a count of all ones is FighterStats.MISSING
+    private static final int STAT_BITS = 15;
+    private static final long STAT_MASK = (1L << STAT_BITS) - 1;
+    private static final long MISSING_STAT = STAT_MASK;
+    private static final int KNOCKDOWNS_SHIFT = 0;
+    private static final int SIGNIFICANT_STRIKES_SHIFT = STAT_BITS;
+    private static final int TAKEDOWNS_SHIFT = 2 * STAT_BITS;
+    private static final int SUBMISSION_ATTEMPTS_SHIFT = 3 * STAT_BITS;
+    private static final long WINNER_BIT = 1L << (4 * STAT_BITS);
+
+    private static final byte TITLE_FLAG = 1;
+    private static final short NO_END_TIME = -1;
+
+    private final String[] strings;
+
+    private final int eventCount;
+    private final int[] eventName;
+    private final int[] eventDay;
+    private final int[] eventFirstFight;
+
+    private final int fightCount;
+    private final byte[] weightClass;
+    private final byte[] method;
+    private final byte[] round;
+    private final short[] endSeconds;
+    private final byte[] fightFlags;
+    private final int[] detailLink;
+    private final int[] fightFirstFighter;
+
+    private final int fighterCount;
+    private final int[] fighterName;
+    private final int[] profileUrl;
+    private final long[] stats;
+
+    private FightHistory(Builder builder) {
+        this.strings = builder.dictionary.values().toArray(String[]::new);
+
+        this.eventCount = builder.eventCount;
+        this.eventName = Arrays.copyOf(builder.eventName, eventCount);
+        this.eventDay = Arrays.copyOf(builder.eventDay, eventCount);
+        this.eventFirstFight = Arrays.copyOf(builder.eventFirstFight, eventCount + 1);
+        this.eventFirstFight[eventCount] = builder.fightCount;
+
+        this.fightCount = builder.fightCount;
+        this.weightClass = Arrays.copyOf(builder.weightClass, fightCount);
+        this.method = Arrays.copyOf(builder.method, fightCount);
+        this.round = Arrays.copyOf(builder.round, fightCount);
+        this.endSeconds = Arrays.copyOf(builder.endSeconds, fightCount);
+        this.fightFlags = Arrays.copyOf(builder.fightFlags, fightCount);
+        this.detailLink = Arrays.copyOf(builder.detailLink, fightCount);
+        this.fightFirstFighter = Arrays.copyOf(builder.fightFirstFighter, fightCount + 1);
+        this.fightFirstFighter[fightCount] = builder.fighterCount;
+
+        this.fighterCount = builder.fighterCount;
+        this.fighterName = Arrays.copyOf(builder.fighterName, fighterCount);
+        this.profileUrl = Arrays.copyOf(builder.profileUrl, fighterCount);
+        this.stats = Arrays.copyOf(builder.stats, fighterCount);
+    }
+
+    /**
+     * Collects events into a {@link FightHistory}. Not thread-safe.
+     */
+    public static class Builder {
+        private final StringDictionary dictionary = new StringDictionary();
+
+        private int eventCount;
+        private int[] eventName = new int[16];
+        private int[] eventDay = new int[16];
+        private int[] eventFirstFight = new int[17];
+
+        private int fightCount;
+        private byte[] weightClass = new byte[64];
+        private byte[] method = new byte[64];
+        private byte[] round = new byte[64];
+        private short[] endSeconds = new short[64];
+        private byte[] fightFlags = new byte[64];
+        private int[] detailLink = new int[64];
+        private int[] fightFirstFighter = new int[65];
+
+        private int fighterCount;
+        private int[] fighterName = new int[128];
+        private int[] profileUrl = new int[128];
+        private long[] stats = new long[128];
+
+        /**
+         * Appends an event, copying everything the compact model keeps.
+         *
+         * @throws IllegalArgumentException if a count does not fit in 15 bits or an end time in
+         *                                   a {@code short}
+         */
+        public Builder add(Event event) {
+            List<FightResult> fights = event.getFightResults() != null ? event.getFightResults() : List.of();
+            if (eventCount == eventName.length) {
+                int capacity = eventCount * 2;
+                eventName = Arrays.copyOf(eventName, capacity);
+                eventDay = Arrays.copyOf(eventDay, capacity);
+                eventFirstFight = Arrays.copyOf(eventFirstFight, capacity + 1);
+            }
+            eventName[eventCount] = stringRef(event.getEventName());
+            eventDay[eventCount] = Math.toIntExact(event.getEventDate().toEpochDay());
+            eventFirstFight[eventCount] = fightCount;
+            eventCount++;
+
+            for (FightResult fight : fights) {
+                addFight(fight);
+            }
+            return this;
+        }
+
+        public Builder addAll(Iterable<? extends Event> events) {
+            events.forEach(this::add);
+            return this;
+        }
+
+        private void addFight(FightResult fight) {
+            if (fightCount == weightClass.length) {
+                int capacity = fightCount * 2;
+                weightClass = Arrays.copyOf(weightClass, capacity);
+                method = Arrays.copyOf(method, capacity);
+                round = Arrays.copyOf(round, capacity);
+                endSeconds = Arrays.copyOf(endSeconds, capacity);
+                fightFlags = Arrays.copyOf(fightFlags, capacity);
+                detailLink = Arrays.copyOf(detailLink, capacity);
+                fightFirstFighter = Arrays.copyOf(fightFirstFighter, capacity + 1);
+            }
+            weightClass[fightCount] = enumRef(fight.getWeightClass());
+            method[fightCount] = enumRef(fight.getMethod());
+            round[fightCount] = enumRef(fight.getRound());
+            endSeconds[fightCount] = fight.getFinalRoundEndTime() != null
+                    ? toShort(fight.getFinalRoundEndTime().toSeconds(), "end time")
+                    : NO_END_TIME;
+            fightFlags[fightCount] = fight.isTitleFight() ? TITLE_FLAG : 0;
+            detailLink[fightCount] = stringRef(fight.getFightDetailLink());
+            fightFirstFighter[fightCount] = fighterCount;
+            fightCount++;
+
+            for (FighterStats fighter : fight.getFighterStatsList()) {
+                addFighter(fighter);
+            }
+        }
+
+        private void addFighter(FighterStats fighter) {
+            if (fighterCount == fighterName.length) {
+                int capacity = fighterCount * 2;
+                fighterName = Arrays.copyOf(fighterName, capacity);
+                profileUrl = Arrays.copyOf(profileUrl, capacity);
+                stats = Arrays.copyOf(stats, capacity);
+            }
+            fighterName[fighterCount] = stringRef(fighter.getName());
+            profileUrl[fighterCount] = stringRef(fighter.getProfileUrl());
+            stats[fighterCount] = stat(fighter.getKnockdowns(), KNOCKDOWNS_SHIFT)
+                    | stat(fighter.getSignificantStrikes(), SIGNIFICANT_STRIKES_SHIFT)
+                    | stat(fighter.getTakedowns(), TAKEDOWNS_SHIFT)
+                    | stat(fighter.getSubmissionAttempts(), SUBMISSION_ATTEMPTS_SHIFT)
+                    | (fighter.isWinner() ? WINNER_BIT : 0);
+            fighterCount++;
+        }
+
+        public FightHistory build() {
+            return new FightHistory(this);
+        }
+
+        private int stringRef(String value) {
+            return value == null ? 0 : dictionary.idOf(value) + 1;
+        }
+
+        private static byte enumRef(Enum<?> value) {
+            return value == null ? 0 : (byte) (value.ordinal() + 1);
+        }
+
+        private static long stat(int value, int shift) {
+            if (value == FighterStats.MISSING) {
+                return MISSING_STAT << shift;
+            }
+            if (value < 0 || value >= MISSING_STAT) {
+                throw new IllegalArgumentException("stat out of range: " + value);
+            }
+            return (long) value << shift;
+        }
+
+        private static short toShort(long seconds, String what) {
+            if (seconds < 0 || seconds > Short.MAX_VALUE) {
+                throw new IllegalArgumentException(what + " out of range: " + seconds);
+            }
+            return (short) seconds;
+        }
+    }
+
+    public int eventCount() {
+        return eventCount;
+    }
+
+    public int fightCount() {
+        return fightCount;
+    }
+
+    /**
+     * @return the number of fighter appearances, i.e. two per fight
+     */
+    public int fighterCount() {
+        return fighterCount;
+    }
+
+    /**
+     * @return the events in the order they were added
+     */
+    public List<EventView> events() {
+        return new Views<>(0, eventCount) {
+            @Override
+            EventView view(int index) {
+                return new EventView(FightHistory.this, index);
+            }
+        };
+    }
+
+    public EventView event(int index) {
+        return new EventView(this, Objects.checkIndex(index, eventCount));
+    }
+
+    public FightView fight(int index) {
+        return new FightView(this, Objects.checkIndex(index, fightCount));
+    }
+
+    public FighterView fighter(int index) {
+        return new FighterView(this, Objects.checkIndex(index, fighterCount));
+    }
+
+    /**
+     * @return the distinct names and links in the history, each stored once
+     */
+    public int distinctStrings() {
+        return strings.length;
+    }
+
+    // accessors for the views, by event, fight or appearance index
+
+    String eventName(int event) {
+        return string(eventName[event]);
+    }
+
+    LocalDate eventDate(int event) {
+        return LocalDate.ofEpochDay(eventDay[event]);
+    }
+
+    List<FightView> fightsOf(int event) {
+        return new Views<>(eventFirstFight[event], eventFirstFight[event + 1]) {
+            @Override
+            FightView view(int index) {
+                return new FightView(FightHistory.this, index);
+            }
+        };
+    }
+
+    int eventOf(int fight) {
+        int found = Arrays.binarySearch(eventFirstFight, 0, eventCount, fight);
+        if (found < 0) {
+            return -found - 2;
+        }
+        // events without fights share their start with the next one
+        while (found + 1 < eventCount && eventFirstFight[found + 1] == fight) {
+            found++;
+        }
+        return found;
+    }
+
+    WeightClass weightClass(int fight) {
+        return weightClass[fight] == 0 ? null : WEIGHT_CLASSES[weightClass[fight] - 1];
+    }
+
+    Method method(int fight) {
+        return method[fight] == 0 ? null : METHODS[method[fight] - 1];
+    }
+
+    Round round(int fight) {
+        return round[fight] == 0 ? null : ROUNDS[round[fight] - 1];
+    }
+
+    int endSeconds(int fight) {
+        return endSeconds[fight];
+    }
+
+    Duration endTime(int fight) {
+        return endSeconds[fight] == NO_END_TIME ? null : Duration.ofSeconds(endSeconds[fight]);
+    }
+
+    boolean isTitleFight(int fight) {
+        return (fightFlags[fight] & TITLE_FLAG) != 0;
+    }
+
+    String detailLink(int fight) {
+        return string(detailLink[fight]);
+    }
+
+    List<FighterView> fightersOf(int fight) {
+        return new Views<>(fightFirstFighter[fight], fightFirstFighter[fight + 1]) {
+            @Override
+            FighterView view(int index) {
+                return new FighterView(FightHistory.this, index);
+            }
+        };
+    }
+
+    String fighterName(int fighter) {
+        return string(fighterName[fighter]);
+    }
+
+    String profileUrl(int fighter) {
+        return string(profileUrl[fighter]);
+    }
+
+    int knockdowns(int fighter) {
+        return stat(fighter, KNOCKDOWNS_SHIFT);
+    }
+
+    int significantStrikes(int fighter) {
+        return stat(fighter, SIGNIFICANT_STRIKES_SHIFT);
+    }
+
+    int takedowns(int fighter) {
+        return stat(fighter, TAKEDOWNS_SHIFT);
+    }
+
+    int submissionAttempts(int fighter) {
+        return stat(fighter, SUBMISSION_ATTEMPTS_SHIFT);
+    }
+
+    boolean isWinner(int fighter) {
+        return (stats[fighter] & WINNER_BIT) != 0;
+    }
+
+    private int stat(int fighter, int shift) {
+        long value = (stats[fighter] >>> shift) & STAT_MASK;
+        return value == MISSING_STAT ? FighterStats.MISSING : (int) value;
+    }
+
+    private String string(int ref) {
+        return ref == 0 ? null : strings[ref - 1];
+    }
+
+    /**
+     * A read-only list over the index range {@code [from, to)} that creates each view on access.
+     */
+    private abstract static class Views<V> extends AbstractList<V> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        Views(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        abstract V view(int index);
+
+        @Override
+        public V get(int index) {
+            return view(from + Objects.checkIndex(index, to - from));
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package me.schf.ufc.scraper.compact;
+
+import java.time.Duration;
+import java.util.List;
+
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.data.WeightClass;
+
+/**
+ * A flyweight view of one fight in a {@link FightHistory}, with the getters of
+ * {@link FightResult}.
+ */
+public final class FightView {
+
+    private final FightHistory history;
+    private final int index;
+
+    FightView(FightHistory history, int index) {
+        this.history = history;
+        this.index = index;
+    }
+
+    /**
+     * @return the position of this fight among all fights of its history
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public EventView getEvent() {
+        return history.event(history.eventOf(index));
+    }
+
+    public List<FighterView> getFighterStatsList() {
+        return history.fightersOf(index);
+    }
+
+    public WeightClass getWeightClass() {
+        return history.weightClass(index);
+    }
+
+    public Method getMethod() {
+        return history.method(index);
+    }
+
+    public Round getRound() {
+        return history.round(index);
+    }
+
+    public Duration getFinalRoundEndTime() {
+        return history.endTime(index);
+    }
+
+    /**
+     * Like {@link #getFinalRoundEndTime()}, without creating a {@link Duration}.
+     *
+     * @return the end time in seconds, or {@code -1} if unknown
+     */
+    public int getFinalRoundEndSeconds() {
+        return history.endSeconds(index);
+    }
+
+    public boolean isTitleFight() {
+        return history.isTitleFight(index);
+    }
+
+    public String getFightDetailLink() {
+        return history.detailLink(index);
+    }
+
+    /**
+     * Copies this fight back into a regular {@link FightResult}.
+     */
+    public FightResult toFightResult() {
+        return new FightResult.Builder()
+                .fighterStatsList(getFighterStatsList().stream().map(FighterView::toFighterStats).toList())
+                .weightClass(getWeightClass())
+                .method(getMethod())
+                .round(getRound())
+                .finalRoundEndTime(getFinalRoundEndTime())
+                .isTitleFight(isTitleFight())
+                .fightDetailLink(getFightDetailLink())
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof FightView other && other.history == history && other.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(history) * 31 + index;
+    }
+
+    @Override
+    public String toString() {
+        return "FightView [fighterStatsList=" + getFighterStatsList() + ", weightClass=" + getWeightClass()
+                + ", method=" + getMethod() + ", round=" + getRound() + ", finalRoundEndTime="
+                + getFinalRoundEndTime() + ", isTitleFight=" + isTitleFight() + "]";
+    }
+}
@@ -0,0 +1,89 @@
+package me.schf.ufc.scraper.compact;
+
+import me.schf.ufc.scraper.data.FighterStats;
+
+/**
+ * A flyweight view of one fighter's appearance in a {@link FightHistory}, with the getters of
+ * {@link FighterStats} that the compact model keeps.
+ */
+public final class FighterView {
+
+    private final FightHistory history;
+    private final int index;
+
+    FighterView(FightHistory history, int index) {
+        this.history = history;
+        this.index = index;
+    }
+
+    /**
+     * @return the position of this appearance among all appearances of its history
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the name, the same instance for every appearance of the fighter
+     */
+    public String getName() {
+        return history.fighterName(index);
+    }
+
+    public String getProfileUrl() {
+        return history.profileUrl(index);
+    }
+
+    public int getKnockdowns() {
+        return history.knockdowns(index);
+    }
+
+    public int getSignificantStrikes() {
+        return history.significantStrikes(index);
+    }
+
+    public int getTakedowns() {
+        return history.takedowns(index);
+    }
+
+    public int getSubmissionAttempts() {
+        return history.submissionAttempts(index);
+    }
+
+    public boolean isWinner() {
+        return history.isWinner(index);
+    }
+
+    /**
+     * Copies this appearance back into a regular {@link FighterStats}, without round stats or
+     * profile.
+     */
+    public FighterStats toFighterStats() {
+        return new FighterStats.Builder()
+                .name(getName())
+                .profileUrl(getProfileUrl())
+                .knockdowns(getKnockdowns())
+                .significantStrikes(getSignificantStrikes())
+                .takedowns(getTakedowns())
+                .submissionAttempts(getSubmissionAttempts())
+                .isWinner(isWinner())
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof FighterView other && other.history == history && other.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(history) * 31 + index;
+    }
+
+    @Override
+    public String toString() {
+        return "FighterView [name=" + getName() + ", knockdowns=" + getKnockdowns() + ", significantStrikes="
+                + getSignificantStrikes() + ", takedowns=" + getTakedowns() + ", submissionAttempts="
+                + getSubmissionAttempts() + ", isWinner=" + isWinner() + "]";
+    }
+}
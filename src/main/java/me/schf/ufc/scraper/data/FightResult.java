@@ -11,6 +11,7 @@ public class FightResult {
 	private Round round;
 	private Duration finalRoundEndTime;
 	private boolean isTitleFight;
+	private String fightDetailLink;
 
 	private FightResult(Builder builder) {
 		this.fighterStatsList = builder.fighterStatsList;
@@ -19,6 +20,7 @@ public class FightResult {
 		this.round = builder.round;
 		this.finalRoundEndTime = builder.finalRoundEndTime;
 		this.isTitleFight = builder.isTitleFight;
+		this.fightDetailLink = builder.fightDetailLink;
 	}
 
 	public List<FighterStats> getFighterStatsList() {
@@ -45,6 +47,21 @@ public class FightResult {
 		return isTitleFight;
 	}
 
+	public String getFightDetailLink() {
+		return fightDetailLink;
+	}
+
+	public Builder toBuilder() {
+		return new Builder()
+				.fighterStatsList(fighterStatsList)
+				.weightClass(weightClass)
+				.method(method)
+				.round(round)
+				.finalRoundEndTime(finalRoundEndTime)
+				.isTitleFight(isTitleFight)
+				.fightDetailLink(fightDetailLink);
+	}
+
 	public static class Builder {
 		private List<FighterStats> fighterStatsList;
 		private WeightClass weightClass;
@@ -52,6 +69,7 @@ public class FightResult {
 		private Round round;
 		private Duration finalRoundEndTime;
 		private boolean isTitleFight;
+		private String fightDetailLink;
 
 		public Builder fighterStatsList(List<FighterStats> fighterStatsList) {
 			this.fighterStatsList = fighterStatsList;
@@ -83,6 +101,11 @@ public class FightResult {
 			return this;
 		}
 
+		public Builder fightDetailLink(String fightDetailLink) {
+			this.fightDetailLink = fightDetailLink;
+			return this;
+		}
+
 		public FightResult build() {
 			return new FightResult(this);
 		}
@@ -92,7 +115,7 @@ public class FightResult {
 	public String toString() {
 		return "FightResult [fighterStatsList=" + fighterStatsList + ", weightClass=" + weightClass + ", method="
 				+ method + ", round=" + round + ", finalRoundEndTime=" + finalRoundEndTime + ", isTitleFight="
-				+ isTitleFight + "]";
+				+ isTitleFight + ", fightDetailLink=" + fightDetailLink + "]";
 	}
 
 }
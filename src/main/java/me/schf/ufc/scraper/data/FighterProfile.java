@@ -0,0 +1,98 @@
+package me.schf.ufc.scraper.data;
+
+import java.time.LocalDate;
+
+/**
+ * Data from a fighter's profile page. Attributes the site lists as unknown are {@code null}.
+ */
+public class FighterProfile {
+	private String profileUrl;
+	private String name;
+	private Integer heightInches;
+	private Integer reachInches;
+	private Stance stance;
+	private LocalDate dateOfBirth;
+
+	private FighterProfile(Builder builder) {
+		this.profileUrl = builder.profileUrl;
+		this.name = builder.name;
+		this.heightInches = builder.heightInches;
+		this.reachInches = builder.reachInches;
+		this.stance = builder.stance;
+		this.dateOfBirth = builder.dateOfBirth;
+	}
+
+	public String getProfileUrl() {
+		return profileUrl;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Integer getHeightInches() {
+		return heightInches;
+	}
+
+	public Integer getReachInches() {
+		return reachInches;
+	}
+
+	public Stance getStance() {
+		return stance;
+	}
+
+	public LocalDate getDateOfBirth() {
+		return dateOfBirth;
+	}
+
+	public static class Builder {
+		private String profileUrl;
+		private String name;
+		private Integer heightInches;
+		private Integer reachInches;
+		private Stance stance;
+		private LocalDate dateOfBirth;
+
+		public Builder profileUrl(String profileUrl) {
+			this.profileUrl = profileUrl;
+			return this;
+		}
+
+		public Builder name(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public Builder heightInches(Integer heightInches) {
+			this.heightInches = heightInches;
+			return this;
+		}
+
+		public Builder reachInches(Integer reachInches) {
+			this.reachInches = reachInches;
+			return this;
+		}
+
+		public Builder stance(Stance stance) {
+			this.stance = stance;
+			return this;
+		}
+
+		public Builder dateOfBirth(LocalDate dateOfBirth) {
+			this.dateOfBirth = dateOfBirth;
+			return this;
+		}
+
+		public FighterProfile build() {
+			return new FighterProfile(this);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FighterProfile [profileUrl=" + profileUrl + ", name=" + name + ", heightInches=" + heightInches
+				+ ", reachInches=" + reachInches + ", stance=" + stance + ", dateOfBirth=" + dateOfBirth + "]";
+	}
+
+}
@@ -1,26 +1,57 @@
 package me.schf.ufc.scraper.data;
 
+import java.util.List;
+
 public class FighterStats {
+
+	/**
+	 * Value of a count the site did not record, shown there as {@code --}.
+	 */
+	public static final int MISSING = -1;
+
 	private String name;
+	private String profileUrl;
+	private FighterProfile profile;
 	private int knockdowns;
 	private int significantStrikes;
 	private int takedowns;
 	private int submissionAttempts;
 	private boolean isWinner;
+	private List<RoundStats> roundStats;
 
 	private FighterStats(Builder builder) {
 		this.name = builder.name;
+		this.profileUrl = builder.profileUrl;
+		this.profile = builder.profile;
 		this.knockdowns = builder.knockdowns;
 		this.significantStrikes = builder.significantStrikes;
 		this.takedowns = builder.takedowns;
 		this.submissionAttempts = builder.submissionAttempts;
 		this.isWinner = builder.isWinner;
+		this.roundStats = builder.roundStats;
 	}
 
 	public String getName() {
 		return name;
 	}
 
+	/**
+	 * @return the fighter's profile page URL, which identifies the fighter across events
+	 */
+	public String getProfileUrl() {
+		return profileUrl;
+	}
+
+	/**
+	 * @return the scraped profile, or {@code null} if profiles were not scraped
+	 */
+	public FighterProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * @return the count, or {@link #MISSING} if not recorded; likewise for the other counts
+	 */
 	public int getKnockdowns() {
 		return knockdowns;
 	}
@@ -41,19 +72,52 @@ public class FighterStats {
 		return isWinner;
 	}
 
+	/**
+	 * @return per-round stats from the fight details page, or an empty list if they were not scraped
+	 */
+	public List<RoundStats> getRoundStats() {
+		return roundStats;
+	}
+
+	public Builder toBuilder() {
+		return new Builder()
+				.name(name)
+				.profileUrl(profileUrl)
+				.profile(profile)
+				.knockdowns(knockdowns)
+				.significantStrikes(significantStrikes)
+				.takedowns(takedowns)
+				.submissionAttempts(submissionAttempts)
+				.isWinner(isWinner)
+				.roundStats(roundStats);
+	}
+
 	public static class Builder {
 		private String name;
+		private String profileUrl;
+		private FighterProfile profile;
 		private int knockdowns;
 		private int significantStrikes;
 		private int takedowns;
 		private int submissionAttempts;
 		private boolean isWinner;
+		private List<RoundStats> roundStats = List.of();
 
 		public Builder name(String name) {
 			this.name = name;
 			return this;
 		}
 
+		public Builder profileUrl(String profileUrl) {
+			this.profileUrl = profileUrl;
+			return this;
+		}
+
+		public Builder profile(FighterProfile profile) {
+			this.profile = profile;
+			return this;
+		}
+
 		public Builder knockdowns(int knockdowns) {
 			this.knockdowns = knockdowns;
 			return this;
@@ -79,6 +143,11 @@ public class FighterStats {
 			return this;
 		}
 
+		public Builder roundStats(List<RoundStats> roundStats) {
+			this.roundStats = roundStats;
+			return this;
+		}
+
 		public FighterStats build() {
 			return new FighterStats(this);
 		}
@@ -86,9 +155,10 @@ public class FighterStats {
 
 	@Override
 	public String toString() {
-		return "FighterStats [name=" + name + ", knockdowns=" + knockdowns + ", significantStrikes="
+		return "FighterStats [name=" + name + ", profileUrl=" + profileUrl + ", profile=" + profile
+				+ ", knockdowns=" + knockdowns + ", significantStrikes="
 				+ significantStrikes + ", takedowns=" + takedowns + ", submissionAttempts=" + submissionAttempts
-				+ ", isWinner=" + isWinner + "]";
+				+ ", isWinner=" + isWinner + ", roundStats=" + roundStats + "]";
 	}
 
 }
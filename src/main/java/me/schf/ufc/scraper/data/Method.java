@@ -1,5 +1,9 @@
 package me.schf.ufc.scraper.data;
 
+import java.util.Optional;
+
+import me.schf.ufc.scraper.util.TextLookup;
+
 public enum Method {
 
     OTHER("Other"),
@@ -12,6 +16,8 @@ public enum Method {
     MAJORITY_DECISION("M-DEC"),
     NO_CONTEST("CNC");
 
+    private static final TextLookup<Method> BY_TEXT = new TextLookup<>(values(), Method::getText);
+
     private final String text;
 
     Method(String text) {
@@ -23,11 +29,17 @@ public enum Method {
     }
 
     public static Method fromText(String text) {
-        for (Method method : values()) {
-            if (method.text.equalsIgnoreCase(text)) {
-                return method;
-            }
+        Method method = BY_TEXT.find(text);
+        if (method == null) {
+            throw new IllegalArgumentException("Unknown outcome: " + text);
         }
-        throw new IllegalArgumentException("Unknown outcome: " + text);
+        return method;
+    }
+
+    /**
+     * Like {@link #fromText(String)}, but returns an empty result for unknown text.
+     */
+    public static Optional<Method> find(String text) {
+        return Optional.ofNullable(BY_TEXT.find(text));
     }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package me.schf.ufc.scraper.data;
 
+import java.util.Optional;
+
+import me.schf.ufc.scraper.util.TextLookup;
+
 public enum Round {
 	ONE("1"), 
 	TWO("2"), 
@@ -7,6 +11,8 @@ public enum Round {
 	FOUR("4"), 
 	FIVE("5");
 
+	private static final TextLookup<Round> BY_TEXT = new TextLookup<>(values(), Round::getText);
+
 	private final String text;
 
 	Round(String text) {
@@ -18,11 +24,17 @@ public enum Round {
 	}
 	
     public static Round fromText(String text) {
-        for (Round round : values()) {
-            if (round.text.equalsIgnoreCase(text)) {
-                return round;
-            }
+        Round round = BY_TEXT.find(text);
+        if (round == null) {
+            throw new IllegalArgumentException("Unknown round: " + text);
         }
-        throw new IllegalArgumentException("Unknown round: " + text);
+        return round;
+    }
+
+    /**
+     * Like {@link #fromText(String)}, but returns an empty result for unknown text.
+     */
+    public static Optional<Round> find(String text) {
+        return Optional.ofNullable(BY_TEXT.find(text));
     }
 }
@@ -0,0 +1,217 @@
+package me.schf.ufc.scraper.data;
+
+import java.time.Duration;
+
+/**
+ * One fighter's stats for one round, from the fight details page.
+ * <p>
+ * Counts the site did not record, shown there as {@code --}, and counts of columns the page does
+ * not have are {@link #MISSING}, as on {@link FighterStats}; an unrecorded control time is
+ * {@code null}.
+ * </p>
+ */
+public class RoundStats {
+
+	/**
+	 * Value of a count the site did not record.
+	 */
+	public static final int MISSING = FighterStats.MISSING;
+
+	private Round round;
+	private int knockdowns;
+	private int significantStrikesLanded;
+	private int significantStrikesAttempted;
+	private int totalStrikesLanded;
+	private int totalStrikesAttempted;
+	private int takedownsLanded;
+	private int takedownsAttempted;
+	private int submissionAttempts;
+	private Duration controlTime;
+	private int headStrikesLanded;
+	private int headStrikesAttempted;
+	private int bodyStrikesLanded;
+	private int bodyStrikesAttempted;
+	private int legStrikesLanded;
+	private int legStrikesAttempted;
+
+	private RoundStats(Builder builder) {
+		this.round = builder.round;
+		this.knockdowns = builder.knockdowns;
+		this.significantStrikesLanded = builder.significantStrikesLanded;
+		this.significantStrikesAttempted = builder.significantStrikesAttempted;
+		this.totalStrikesLanded = builder.totalStrikesLanded;
+		this.totalStrikesAttempted = builder.totalStrikesAttempted;
+		this.takedownsLanded = builder.takedownsLanded;
+		this.takedownsAttempted = builder.takedownsAttempted;
+		this.submissionAttempts = builder.submissionAttempts;
+		this.controlTime = builder.controlTime;
+		this.headStrikesLanded = builder.headStrikesLanded;
+		this.headStrikesAttempted = builder.headStrikesAttempted;
+		this.bodyStrikesLanded = builder.bodyStrikesLanded;
+		this.bodyStrikesAttempted = builder.bodyStrikesAttempted;
+		this.legStrikesLanded = builder.legStrikesLanded;
+		this.legStrikesAttempted = builder.legStrikesAttempted;
+	}
+
+	public Round getRound() {
+		return round;
+	}
+
+	/**
+	 * @return the count, or {@link #MISSING} if not recorded; likewise for the other counts
+	 */
+	public int getKnockdowns() {
+		return knockdowns;
+	}
+
+	public int getSignificantStrikesLanded() {
+		return significantStrikesLanded;
+	}
+
+	public int getSignificantStrikesAttempted() {
+		return significantStrikesAttempted;
+	}
+
+	public int getTotalStrikesLanded() {
+		return totalStrikesLanded;
+	}
+
+	public int getTotalStrikesAttempted() {
+		return totalStrikesAttempted;
+	}
+
+	public int getTakedownsLanded() {
+		return takedownsLanded;
+	}
+
+	public int getTakedownsAttempted() {
+		return takedownsAttempted;
+	}
+
+	public int getSubmissionAttempts() {
+		return submissionAttempts;
+	}
+
+	/**
+	 * @return the control time, or {@code null} if not recorded
+	 */
+	public Duration getControlTime() {
+		return controlTime;
+	}
+
+	public int getHeadStrikesLanded() {
+		return headStrikesLanded;
+	}
+
+	public int getHeadStrikesAttempted() {
+		return headStrikesAttempted;
+	}
+
+	public int getBodyStrikesLanded() {
+		return bodyStrikesLanded;
+	}
+
+	public int getBodyStrikesAttempted() {
+		return bodyStrikesAttempted;
+	}
+
+	public int getLegStrikesLanded() {
+		return legStrikesLanded;
+	}
+
+	public int getLegStrikesAttempted() {
+		return legStrikesAttempted;
+	}
+
+	public static class Builder {
+		private Round round;
+		private int knockdowns = MISSING;
+		private int significantStrikesLanded = MISSING;
+		private int significantStrikesAttempted = MISSING;
+		private int totalStrikesLanded = MISSING;
+		private int totalStrikesAttempted = MISSING;
+		private int takedownsLanded = MISSING;
+		private int takedownsAttempted = MISSING;
+		private int submissionAttempts = MISSING;
+		private Duration controlTime;
+		private int headStrikesLanded = MISSING;
+		private int headStrikesAttempted = MISSING;
+		private int bodyStrikesLanded = MISSING;
+		private int bodyStrikesAttempted = MISSING;
+		private int legStrikesLanded = MISSING;
+		private int legStrikesAttempted = MISSING;
+
+		public Builder round(Round round) {
+			this.round = round;
+			return this;
+		}
+
+		public Builder knockdowns(int knockdowns) {
+			this.knockdowns = knockdowns;
+			return this;
+		}
+
+		public Builder significantStrikes(int landed, int attempted) {
+			this.significantStrikesLanded = landed;
+			this.significantStrikesAttempted = attempted;
+			return this;
+		}
+
+		public Builder totalStrikes(int landed, int attempted) {
+			this.totalStrikesLanded = landed;
+			this.totalStrikesAttempted = attempted;
+			return this;
+		}
+
+		public Builder takedowns(int landed, int attempted) {
+			this.takedownsLanded = landed;
+			this.takedownsAttempted = attempted;
+			return this;
+		}
+
+		public Builder submissionAttempts(int submissionAttempts) {
+			this.submissionAttempts = submissionAttempts;
+			return this;
+		}
+
+		public Builder controlTime(Duration controlTime) {
+			this.controlTime = controlTime;
+			return this;
+		}
+
+		public Builder headStrikes(int landed, int attempted) {
+			this.headStrikesLanded = landed;
+			this.headStrikesAttempted = attempted;
+			return this;
+		}
+
+		public Builder bodyStrikes(int landed, int attempted) {
+			this.bodyStrikesLanded = landed;
+			this.bodyStrikesAttempted = attempted;
+			return this;
+		}
+
+		public Builder legStrikes(int landed, int attempted) {
+			this.legStrikesLanded = landed;
+			this.legStrikesAttempted = attempted;
+			return this;
+		}
+
+		public RoundStats build() {
+			return new RoundStats(this);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RoundStats [round=" + round + ", knockdowns=" + knockdowns + ", significantStrikesLanded="
+				+ significantStrikesLanded + ", significantStrikesAttempted=" + significantStrikesAttempted
+				+ ", totalStrikesLanded=" + totalStrikesLanded + ", totalStrikesAttempted=" + totalStrikesAttempted
+				+ ", takedownsLanded=" + takedownsLanded + ", takedownsAttempted=" + takedownsAttempted
+				+ ", submissionAttempts=" + submissionAttempts + ", controlTime=" + controlTime
+				+ ", headStrikesLanded=" + headStrikesLanded + ", headStrikesAttempted=" + headStrikesAttempted
+				+ ", bodyStrikesLanded=" + bodyStrikesLanded + ", bodyStrikesAttempted=" + bodyStrikesAttempted
+				+ ", legStrikesLanded=" + legStrikesLanded + ", legStrikesAttempted=" + legStrikesAttempted + "]";
+	}
+
+}
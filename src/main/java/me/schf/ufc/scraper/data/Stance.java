@@ -0,0 +1,41 @@
+package me.schf.ufc.scraper.data;
+
+import java.util.Optional;
+
+import me.schf.ufc.scraper.util.TextLookup;
+
+public enum Stance {
+
+    ORTHODOX("Orthodox"),
+    SOUTHPAW("Southpaw"),
+    SWITCH("Switch"),
+    OPEN_STANCE("Open Stance"),
+    SIDEWAYS("Sideways");
+
+    private static final TextLookup<Stance> BY_TEXT = new TextLookup<>(values(), Stance::getText);
+
+    private final String text;
+
+    Stance(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public static Stance fromText(String text) {
+        Stance stance = BY_TEXT.find(text);
+        if (stance == null) {
+            throw new IllegalArgumentException("Unknown stance: " + text);
+        }
+        return stance;
+    }
+
+    /**
+     * Like {@link #fromText(String)}, but returns an empty result for unknown text.
+     */
+    public static Optional<Stance> find(String text) {
+        return Optional.ofNullable(BY_TEXT.find(text));
+    }
+}
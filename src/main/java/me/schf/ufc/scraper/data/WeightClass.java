@@ -1,5 +1,9 @@
 package me.schf.ufc.scraper.data;
 
+import java.util.Optional;
+
+import me.schf.ufc.scraper.util.TextLookup;
+
 public enum WeightClass {
 
     CATCH_WEIGHT("Catch Weight"),
@@ -18,6 +22,8 @@ public enum WeightClass {
     BANTAMWEIGHT("Bantamweight"),
     OPEN_WEIGHT("Open Weight");
 
+    private static final TextLookup<WeightClass> BY_TEXT = new TextLookup<>(values(), WeightClass::getText);
+
     private final String text;
 
     WeightClass(String text) {
@@ -29,11 +35,17 @@ public enum WeightClass {
     }
 
     public static WeightClass fromText(String text) {
-        for (WeightClass wc : values()) {
-            if (wc.text.equalsIgnoreCase(text)) {
-                return wc;
-            }
+        WeightClass wc = BY_TEXT.find(text);
+        if (wc == null) {
+            throw new IllegalArgumentException("Unknown weight class: " + text);
         }
-        throw new IllegalArgumentException("Unknown weight class: " + text);
+        return wc;
+    }
+
+    /**
+     * Like {@link #fromText(String)}, but returns an empty result for unknown text.
+     */
+    public static Optional<WeightClass> find(String text) {
+        return Optional.ofNullable(BY_TEXT.find(text));
     }
 }
\ No newline at end of file
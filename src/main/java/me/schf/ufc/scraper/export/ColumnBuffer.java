@@ -0,0 +1,76 @@
+package me.schf.ufc.scraper.export;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The encoded values of one column, accumulated in memory until the file is written.
+ */
+final class ColumnBuffer {
+
+    private final String name;
+    private final ColumnEncoding encoding;
+    private byte[] bytes = new byte[256];
+    private int length;
+    private int rows;
+
+    ColumnBuffer(String name, ColumnEncoding encoding) {
+        this.name = name;
+        this.encoding = encoding;
+    }
+
+    void add(int value) {
+        switch (encoding) {
+            case VARINT -> {
+                if (value < 0) {
+                    throw new IllegalArgumentException(name + " cannot hold negative value " + value);
+                }
+                writeVarint(value);
+            }
+            case ZIGZAG -> writeVarint((value << 1) ^ (value >> 31));
+            case BYTE -> {
+                if (value < 0 || value > 0xFF) {
+                    throw new IllegalArgumentException(name + " cannot hold value " + value);
+                }
+                writeByte(value);
+            }
+            case BITS -> {
+                if (rows % 8 == 0) {
+                    writeByte(0);
+                }
+                if (value != 0) {
+                    bytes[length - 1] |= (byte) (1 << (rows % 8));
+                }
+            }
+        }
+        rows++;
+    }
+
+    void add(boolean value) {
+        add(value ? 1 : 0);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        ColumnarFormat.writeString(out, name);
+        out.writeByte(encoding.ordinal());
+        ColumnarFormat.writeVarint(out, rows);
+        ColumnarFormat.writeVarint(out, length);
+        out.write(bytes, 0, length);
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        bytes[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,23 @@
+package me.schf.ufc.scraper.export;
+
+/**
+ * How the values of one column are laid out on disk.
+ */
+enum ColumnEncoding {
+    /** Unsigned LEB128 varints, one per row. */
+    VARINT,
+    /** Zigzag-encoded varints, for values that may be negative. */
+    ZIGZAG,
+    /** One unsigned byte per row. */
+    BYTE,
+    /** One bit per row, packed least significant bit first. */
+    BITS;
+
+    static ColumnEncoding ofId(int id) {
+        ColumnEncoding[] values = values();
+        if (id < 0 || id >= values.length) {
+            throw new IllegalArgumentException("Unknown column encoding: " + id);
+        }
+        return values[id];
+    }
+}
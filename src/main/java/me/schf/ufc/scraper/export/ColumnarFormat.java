@@ -0,0 +1,37 @@
+package me.schf.ufc.scraper.export;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout shared by {@link ColumnarWriter} and {@link ColumnarReader}:
+ * <pre>
+ * magic "UFCC", version byte
+ * dictionary:  varint count, then per string: varint byte length, UTF-8 bytes
+ * varint column count, then per column:
+ *              string name, encoding byte, varint rows, varint byte length, encoded values
+ * </pre>
+ */
+final class ColumnarFormat {
+
+    static final int MAGIC = 0x55464343; // "UFCC"
+    static final int VERSION = 1;
+
+    private ColumnarFormat() {
+    }
+
+    static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, utf8.length);
+        out.write(utf8);
+    }
+}
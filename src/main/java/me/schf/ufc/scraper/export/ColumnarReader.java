@@ -0,0 +1,338 @@
+package me.schf.ufc.scraper.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.data.WeightClass;
+
+/**
+ * Reads a file written by {@link ColumnarWriter}.
+ * <p>
+ * The file is memory-mapped and only its directory is decoded when it is opened, so opening is
+ * cheap regardless of size. {@link #scan(String)} decodes a single column on the fly, e.g. to sum
+ * significant strikes over the whole history without creating a single {@link FighterStats};
+ * dictionary strings are decoded on first access. {@link #readEvents()} rebuilds the object model
+ * when it is needed, and {@link #readEvent(int)} a single event of it.
+ * </p>
+ * <p>
+ * Scans only use absolute reads of the mapped buffer, so a reader may be scanned from several
+ * threads at once.
+ * </p>
+ */
+public class ColumnarReader implements Closeable {
+
+    private record Column(ColumnEncoding encoding, int rows, int offset, int length) {
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int[] dictionaryOffsets;
+    private final String[] dictionary;
+    private final Map<String, Column> columns = new HashMap<>();
+
+    private ColumnarReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        if (buffer.remaining() < 5 || buffer.getInt(0) != ColumnarFormat.MAGIC) {
+            throw new IOException("Not a columnar export file");
+        }
+        int version = buffer.get(4);
+        if (version != ColumnarFormat.VERSION) {
+            throw new IOException("Unsupported columnar export version: " + version);
+        }
+
+        int[] position = { 5 };
+        int dictionarySize = readVarint(position);
+        dictionaryOffsets = new int[dictionarySize];
+        dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionaryOffsets[i] = position[0];
+            int length = readVarint(position);
+            position[0] += length;
+        }
+
+        int columnCount = readVarint(position);
+        for (int i = 0; i < columnCount; i++) {
+            String name = readString(position);
+            ColumnEncoding encoding = ColumnEncoding.ofId(buffer.get(position[0]++));
+            int rows = readVarint(position);
+            int length = readVarint(position);
+            columns.put(name, new Column(encoding, rows, position[0], length));
+            position[0] += length;
+        }
+    }
+
+    /**
+     * Memory-maps and opens a columnar export.
+     *
+     * @throws IOException if the file cannot be read or is not a columnar export
+     */
+    public static ColumnarReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new ColumnarReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int eventCount() {
+        return rowCount(Columns.EVENT_NAME);
+    }
+
+    public int fightCount() {
+        return rowCount(Columns.FIGHT_METHOD);
+    }
+
+    public int fighterStatsCount() {
+        return rowCount(Columns.FIGHTER_NAME);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the file has no such column
+     */
+    public int rowCount(String columnName) {
+        return column(columnName).rows();
+    }
+
+    /**
+     * Decodes {@code columnName} row by row. See {@link Columns} for what the values mean.
+     *
+     * @throws IllegalArgumentException if the file has no such column
+     */
+    public PrimitiveIterator.OfInt scan(String columnName) {
+        Column column = column(columnName);
+        return new PrimitiveIterator.OfInt() {
+            private int row;
+            private final int[] position = { column.offset() };
+
+            @Override
+            public boolean hasNext() {
+                return row < column.rows();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int value = switch (column.encoding()) {
+                    case VARINT -> readVarint(position);
+                    case ZIGZAG -> {
+                        int zigzag = readVarint(position);
+                        yield (zigzag >>> 1) ^ -(zigzag & 1);
+                    }
+                    case BYTE -> buffer.get(position[0]++) & 0xFF;
+                    case BITS -> (buffer.get(column.offset() + row / 8) >> (row % 8)) & 1;
+                };
+                row++;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * @see #scan(String)
+     */
+    public IntStream ints(String columnName) {
+        Spliterator.OfInt spliterator = Spliterators.spliterator(scan(columnName), rowCount(columnName),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.intStream(spliterator, false);
+    }
+
+    /**
+     * Resolves a value of a string column.
+     *
+     * @param ref a value from a string column, i.e. dictionary id plus one
+     * @return the string, or {@code null} for {@code 0}
+     */
+    public String string(int ref) {
+        if (ref == 0) {
+            return null;
+        }
+        int id = ref - 1;
+        String value = dictionary[id];
+        if (value == null) {
+            int[] position = { dictionaryOffsets[id] };
+            value = readString(position);
+            // racy but benign: every thread decodes the same immutable string
+            dictionary[id] = value;
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of distinct strings in the dictionary
+     */
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * Rebuilds every event in the file.
+     */
+    public List<Event> readEvents() {
+        return readEvents(0, eventCount());
+    }
+
+    /**
+     * Rebuilds the {@code index}-th event in the file. The rows before it are skipped without
+     * being turned into objects, but still decoded, so this is linear in {@code index}.
+     *
+     * @throws IndexOutOfBoundsException if there is no such event
+     */
+    public Event readEvent(int index) {
+        return readEvents(index, 1).get(0);
+    }
+
+    private List<Event> readEvents(int from, int count) {
+        if (from < 0 || count < 0 || from + count > eventCount()) {
+            throw new IndexOutOfBoundsException("Events " + from + " to " + (from + count) + " of " + eventCount());
+        }
+        PrimitiveIterator.OfInt eventName = scan(Columns.EVENT_NAME);
+        PrimitiveIterator.OfInt eventDate = scan(Columns.EVENT_DATE);
+        PrimitiveIterator.OfInt eventFights = scan(Columns.EVENT_FIGHTS);
+
+        PrimitiveIterator.OfInt weightClass = scan(Columns.FIGHT_WEIGHT_CLASS);
+        PrimitiveIterator.OfInt method = scan(Columns.FIGHT_METHOD);
+        PrimitiveIterator.OfInt round = scan(Columns.FIGHT_ROUND);
+        PrimitiveIterator.OfInt endSeconds = scan(Columns.FIGHT_END_SECONDS);
+        PrimitiveIterator.OfInt title = scan(Columns.FIGHT_TITLE);
+        PrimitiveIterator.OfInt detailLink = scan(Columns.FIGHT_DETAIL_LINK);
+        PrimitiveIterator.OfInt fightFighters = scan(Columns.FIGHT_FIGHTERS);
+
+        PrimitiveIterator.OfInt fighterName = scan(Columns.FIGHTER_NAME);
+        PrimitiveIterator.OfInt profileUrl = scan(Columns.FIGHTER_PROFILE_URL);
+        PrimitiveIterator.OfInt knockdowns = scan(Columns.FIGHTER_KNOCKDOWNS);
+        PrimitiveIterator.OfInt significantStrikes = scan(Columns.FIGHTER_SIGNIFICANT_STRIKES);
+        PrimitiveIterator.OfInt takedowns = scan(Columns.FIGHTER_TAKEDOWNS);
+        PrimitiveIterator.OfInt submissionAttempts = scan(Columns.FIGHTER_SUBMISSION_ATTEMPTS);
+        PrimitiveIterator.OfInt winner = scan(Columns.FIGHTER_WINNER);
+
+        WeightClass[] weightClasses = WeightClass.values();
+        Method[] methods = Method.values();
+        Round[] rounds = Round.values();
+
+        int skippedFights = 0;
+        for (int e = 0; e < from; e++) {
+            eventName.nextInt();
+            eventDate.nextInt();
+            skippedFights += eventFights.nextInt();
+        }
+        int skippedFighters = 0;
+        for (int f = 0; f < skippedFights; f++) {
+            skippedFighters += fightFighters.nextInt();
+        }
+        skip(skippedFights, weightClass, method, round, endSeconds, title, detailLink);
+        skip(skippedFighters, fighterName, profileUrl, knockdowns, significantStrikes, takedowns,
+                submissionAttempts, winner);
+
+        List<Event> events = new ArrayList<>(count);
+        while (events.size() < count) {
+            String name = string(eventName.nextInt());
+            LocalDate date = LocalDate.ofEpochDay(eventDate.nextInt());
+            int fightCount = eventFights.nextInt();
+
+            List<FightResult> fights = new ArrayList<>(fightCount);
+            for (int f = 0; f < fightCount; f++) {
+                var fight = new FightResult.Builder()
+                        .weightClass(enumValue(weightClasses, weightClass.nextInt()))
+                        .method(enumValue(methods, method.nextInt()))
+                        .round(enumValue(rounds, round.nextInt()))
+                        .finalRoundEndTime(Duration.ofSeconds(endSeconds.nextInt()))
+                        .isTitleFight(title.nextInt() != 0)
+                        .fightDetailLink(string(detailLink.nextInt()));
+
+                int fighterCount = fightFighters.nextInt();
+                List<FighterStats> fighterStats = new ArrayList<>(fighterCount);
+                for (int s = 0; s < fighterCount; s++) {
+                    fighterStats.add(new FighterStats.Builder()
+                            .name(string(fighterName.nextInt()))
+                            .profileUrl(string(profileUrl.nextInt()))
+                            .knockdowns(knockdowns.nextInt())
+                            .significantStrikes(significantStrikes.nextInt())
+                            .takedowns(takedowns.nextInt())
+                            .submissionAttempts(submissionAttempts.nextInt())
+                            .isWinner(winner.nextInt() != 0)
+                            .build());
+                }
+                fights.add(fight.fighterStatsList(List.copyOf(fighterStats)).build());
+            }
+
+            events.add(new Event.Builder()
+                    .eventName(name)
+                    .eventDate(date)
+                    .fightResults(List.copyOf(fights))
+                    .build());
+        }
+        return events;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void skip(int rows, PrimitiveIterator.OfInt... columns) {
+        for (PrimitiveIterator.OfInt column : columns) {
+            for (int i = 0; i < rows; i++) {
+                column.nextInt();
+            }
+        }
+    }
+
+    private Column column(String name) {
+        Column column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("No such column: " + name);
+        }
+        return column;
+    }
+
+    private int readVarint(int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get(position[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private String readString(int[] position) {
+        int length = readVarint(position);
+        byte[] utf8 = new byte[length];
+        buffer.get(position[0], utf8);
+        position[0] += length;
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static <E extends Enum<E>> E enumValue(E[] values, int ref) {
+        return ref == 0 ? null : values[ref - 1];
+    }
+}
@@ -0,0 +1,138 @@
+package me.schf.ufc.scraper.export;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.util.StringDictionary;
+
+/**
+ * Writes scraped events in a compact columnar format that {@link ColumnarReader} can scan
+ * without materializing objects.
+ * <p>
+ * Names and links are dictionary-encoded, enums are stored as ordinals, counts as varints, flags
+ * as packed bits and fight end times as seconds. Events are encoded into in-memory columns as
+ * they are added, which are a small fraction of the object graph's size, and the file is written
+ * in one go by {@link #write(Path)}.
+ * </p>
+ * <p>
+ * Per-round stats and fighter profiles are not part of the format.
+ * </p>
+ *
+ * <pre>{@code
+ * ColumnarWriter writer = new ColumnarWriter();
+ * scraper.streamScrapedEvents().forEach(writer::add);
+ * writer.write(Path.of("events.ufcc"));
+ * }</pre>
+ */
+public class ColumnarWriter {
+
+    private final StringDictionary dictionary = new StringDictionary();
+
+    private final ColumnBuffer eventName = new ColumnBuffer(Columns.EVENT_NAME, ColumnEncoding.VARINT);
+    private final ColumnBuffer eventDate = new ColumnBuffer(Columns.EVENT_DATE, ColumnEncoding.ZIGZAG);
+    private final ColumnBuffer eventFights = new ColumnBuffer(Columns.EVENT_FIGHTS, ColumnEncoding.VARINT);
+
+    private final ColumnBuffer weightClass = new ColumnBuffer(Columns.FIGHT_WEIGHT_CLASS, ColumnEncoding.BYTE);
+    private final ColumnBuffer method = new ColumnBuffer(Columns.FIGHT_METHOD, ColumnEncoding.BYTE);
+    private final ColumnBuffer round = new ColumnBuffer(Columns.FIGHT_ROUND, ColumnEncoding.BYTE);
+    private final ColumnBuffer endSeconds = new ColumnBuffer(Columns.FIGHT_END_SECONDS, ColumnEncoding.VARINT);
+    private final ColumnBuffer title = new ColumnBuffer(Columns.FIGHT_TITLE, ColumnEncoding.BITS);
+    private final ColumnBuffer detailLink = new ColumnBuffer(Columns.FIGHT_DETAIL_LINK, ColumnEncoding.VARINT);
+    private final ColumnBuffer fightFighters = new ColumnBuffer(Columns.FIGHT_FIGHTERS, ColumnEncoding.VARINT);
+
+    private final ColumnBuffer fighterName = new ColumnBuffer(Columns.FIGHTER_NAME, ColumnEncoding.VARINT);
+    private final ColumnBuffer profileUrl = new ColumnBuffer(Columns.FIGHTER_PROFILE_URL, ColumnEncoding.VARINT);
+    // zigzag so that FighterStats.MISSING takes a single byte
+    private final ColumnBuffer knockdowns = new ColumnBuffer(Columns.FIGHTER_KNOCKDOWNS, ColumnEncoding.ZIGZAG);
+    private final ColumnBuffer significantStrikes =
+            new ColumnBuffer(Columns.FIGHTER_SIGNIFICANT_STRIKES, ColumnEncoding.ZIGZAG);
+    private final ColumnBuffer takedowns = new ColumnBuffer(Columns.FIGHTER_TAKEDOWNS, ColumnEncoding.ZIGZAG);
+    private final ColumnBuffer submissionAttempts =
+            new ColumnBuffer(Columns.FIGHTER_SUBMISSION_ATTEMPTS, ColumnEncoding.ZIGZAG);
+    private final ColumnBuffer winner = new ColumnBuffer(Columns.FIGHTER_WINNER, ColumnEncoding.BITS);
+
+    private final List<ColumnBuffer> columns = List.of(
+            eventName, eventDate, eventFights,
+            weightClass, method, round, endSeconds, title, detailLink, fightFighters,
+            fighterName, profileUrl, knockdowns, significantStrikes, takedowns, submissionAttempts, winner);
+
+    public ColumnarWriter add(Event event) {
+        List<FightResult> fights = event.getFightResults() != null ? event.getFightResults() : List.of();
+        eventName.add(stringRef(event.getEventName()));
+        eventDate.add(Math.toIntExact(event.getEventDate().toEpochDay()));
+        eventFights.add(fights.size());
+
+        for (FightResult fight : fights) {
+            weightClass.add(enumRef(fight.getWeightClass()));
+            method.add(enumRef(fight.getMethod()));
+            round.add(enumRef(fight.getRound()));
+            endSeconds.add(fight.getFinalRoundEndTime() != null
+                    ? Math.toIntExact(fight.getFinalRoundEndTime().toSeconds()) : 0);
+            title.add(fight.isTitleFight());
+            detailLink.add(stringRef(fight.getFightDetailLink()));
+            fightFighters.add(fight.getFighterStatsList().size());
+
+            for (FighterStats stats : fight.getFighterStatsList()) {
+                fighterName.add(stringRef(stats.getName()));
+                profileUrl.add(stringRef(stats.getProfileUrl()));
+                knockdowns.add(stats.getKnockdowns());
+                significantStrikes.add(stats.getSignificantStrikes());
+                takedowns.add(stats.getTakedowns());
+                submissionAttempts.add(stats.getSubmissionAttempts());
+                winner.add(stats.isWinner());
+            }
+        }
+        return this;
+    }
+
+    public ColumnarWriter addAll(Iterable<Event> events) {
+        events.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Writes everything added so far to {@code file}, replacing it atomically.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(ColumnarFormat.MAGIC);
+                out.writeByte(ColumnarFormat.VERSION);
+
+                ColumnarFormat.writeVarint(out, dictionary.size());
+                for (String value : dictionary.values()) {
+                    ColumnarFormat.writeString(out, value);
+                }
+
+                ColumnarFormat.writeVarint(out, columns.size());
+                for (ColumnBuffer column : columns) {
+                    column.writeTo(out);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private int stringRef(String value) {
+        return value == null ? 0 : dictionary.idOf(value) + 1;
+    }
+
+    private static int enumRef(Enum<?> value) {
+        return value == null ? 0 : value.ordinal() + 1;
+    }
+}
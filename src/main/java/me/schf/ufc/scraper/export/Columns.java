@@ -0,0 +1,44 @@
+package me.schf.ufc.scraper.export;
+
+/**
+ * Names of the columns in a columnar export.
+ * <p>
+ * The file holds three tables. Events have one row per {@code Event}; fights one row per
+ * {@code FightResult}, in event order, with {@link #EVENT_FIGHTS} giving how many rows belong to
+ * each event; fighters one row per {@code FighterStats}, in fight order, grouped by
+ * {@link #FIGHT_FIGHTERS}.
+ * </p>
+ * <p>
+ * Enum columns hold {@code ordinal + 1}, string columns hold {@code dictionaryId + 1}; in both
+ * {@code 0} stands for {@code null}. The fighter count columns hold
+ * {@link me.schf.ufc.scraper.data.FighterStats#MISSING} for counts the site did not record, so
+ * sums over a scan must skip negative values.
+ * </p>
+ */
+public final class Columns {
+
+    public static final String EVENT_NAME = "event.name";
+    /** Event date as epoch day. */
+    public static final String EVENT_DATE = "event.date";
+    public static final String EVENT_FIGHTS = "event.fights";
+
+    public static final String FIGHT_WEIGHT_CLASS = "fight.weightClass";
+    public static final String FIGHT_METHOD = "fight.method";
+    public static final String FIGHT_ROUND = "fight.round";
+    /** Time into the final round, in seconds. */
+    public static final String FIGHT_END_SECONDS = "fight.endSeconds";
+    public static final String FIGHT_TITLE = "fight.title";
+    public static final String FIGHT_DETAIL_LINK = "fight.detailLink";
+    public static final String FIGHT_FIGHTERS = "fight.fighters";
+
+    public static final String FIGHTER_NAME = "fighter.name";
+    public static final String FIGHTER_PROFILE_URL = "fighter.profileUrl";
+    public static final String FIGHTER_KNOCKDOWNS = "fighter.knockdowns";
+    public static final String FIGHTER_SIGNIFICANT_STRIKES = "fighter.significantStrikes";
+    public static final String FIGHTER_TAKEDOWNS = "fighter.takedowns";
+    public static final String FIGHTER_SUBMISSION_ATTEMPTS = "fighter.submissionAttempts";
+    public static final String FIGHTER_WINNER = "fighter.winner";
+
+    private Columns() {
+    }
+}
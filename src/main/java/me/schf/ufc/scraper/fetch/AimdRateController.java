@@ -0,0 +1,137 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Finds the highest request rate the server tolerates by adjusting a {@link RateLimiter} with
+ * additive increase, multiplicative decrease (AIMD).
+ * <p>
+ * Every healthy response raises the rate by {@code increasePerSecond / rate}, i.e. by roughly
+ * {@code increasePerSecond} for each second of healthy traffic. A throttling signal (HTTP 429 or
+ * 503, or a timeout) multiplies it by {@code decreaseFactor}. Signals arriving within
+ * {@code cooldown} of a decrease are ignored, since requests already in flight when the rate was
+ * cut report the same overload.
+ * </p>
+ */
+public class AimdRateController {
+
+    private static final Logger LOGGER = Logger.getLogger(AimdRateController.class.getName());
+
+    private final RateLimiter rateLimiter;
+    private final double minRate;
+    private final double maxRate;
+    private final double increasePerSecond;
+    private final double decreaseFactor;
+    private final long cooldownNanos;
+    private double rate;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+
+    private AimdRateController(Builder builder) {
+        this.rateLimiter = builder.rateLimiter;
+        this.minRate = builder.minRate;
+        this.maxRate = builder.maxRate;
+        this.increasePerSecond = builder.increasePerSecond;
+        this.decreaseFactor = builder.decreaseFactor;
+        this.cooldownNanos = builder.cooldown.toNanos();
+        double initial = rateLimiter.getRate();
+        this.rate = initial > 0 ? Math.clamp(initial, minRate, maxRate) : maxRate;
+        rateLimiter.setRate(rate);
+    }
+
+    public static class Builder {
+        private RateLimiter rateLimiter;
+        private double minRate = 0.1;
+        private double maxRate = 10;
+        private double increasePerSecond = 0.1;
+        private double decreaseFactor = 0.5;
+        private Duration cooldown = Duration.ofSeconds(2);
+
+        /**
+         * The limiter to control; its current rate is the starting point.
+         */
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        public Builder minRate(double minRate) {
+            this.minRate = minRate;
+            return this;
+        }
+
+        public Builder maxRate(double maxRate) {
+            this.maxRate = maxRate;
+            return this;
+        }
+
+        public Builder increasePerSecond(double increasePerSecond) {
+            this.increasePerSecond = increasePerSecond;
+            return this;
+        }
+
+        public Builder decreaseFactor(double decreaseFactor) {
+            this.decreaseFactor = decreaseFactor;
+            return this;
+        }
+
+        public Builder cooldown(Duration cooldown) {
+            this.cooldown = cooldown;
+            return this;
+        }
+
+        public AimdRateController build() {
+            if (rateLimiter == null) {
+                throw new IllegalStateException("rateLimiter is required");
+            }
+            if (minRate <= 0 || maxRate < minRate) {
+                throw new IllegalStateException("need 0 < minRate <= maxRate: " + minRate + ", " + maxRate);
+            }
+            if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+                throw new IllegalStateException("decreaseFactor must be between 0 and 1: " + decreaseFactor);
+            }
+            return new AimdRateController(this);
+        }
+    }
+
+    /**
+     * Records a healthy response.
+     */
+    public synchronized void onSuccess() {
+        if (rate >= maxRate) {
+            return;
+        }
+        rate = Math.min(maxRate, rate + increasePerSecond / rate);
+        rateLimiter.setRate(rate);
+    }
+
+    /**
+     * Records a sign that the server is overloaded or limiting us.
+     */
+    public synchronized void onThrottle() {
+        long now = System.nanoTime();
+        if (decreased && now - lastDecreaseNanos < cooldownNanos) {
+            return;
+        }
+        decreased = true;
+        lastDecreaseNanos = now;
+        double previous = rate;
+        rate = Math.max(minRate, rate * decreaseFactor);
+        rateLimiter.setRate(rate);
+        LOGGER.log(Level.INFO, "Throttled by server, request rate {0} -> {1} per second",
+                new Object[] { format(previous), format(rate) });
+    }
+
+    /**
+     * @return the current rate in requests per second
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    private static String format(double rate) {
+        return String.format("%.2f", rate);
+    }
+}
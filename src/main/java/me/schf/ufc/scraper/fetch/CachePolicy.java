@@ -0,0 +1,68 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Decides how long a cached response stays fresh, based on the kind of page its URL points to.
+ * <p>
+ * The events index changes whenever a card finishes, so it gets a short TTL. Event detail pages
+ * and fight detail pages of past events practically never change and are kept indefinitely by
+ * default. Once a response
+ * is stale it is revalidated rather than refetched whenever the server supplied validators.
+ * </p>
+ */
+public class CachePolicy {
+
+    public static final Duration FOREVER = ChronoUnit.FOREVER.getDuration();
+
+    private final Duration indexTtl;
+    private final Duration eventDetailsTtl;
+    private final Duration defaultTtl;
+
+    private CachePolicy(Builder builder) {
+        this.indexTtl = builder.indexTtl;
+        this.eventDetailsTtl = builder.eventDetailsTtl;
+        this.defaultTtl = builder.defaultTtl;
+    }
+
+    public static CachePolicy defaults() {
+        return new Builder().build();
+    }
+
+    public Duration ttlFor(String url) {
+        return switch (PageKind.of(url)) {
+            case INDEX -> indexTtl;
+            case EVENT, FIGHT -> eventDetailsTtl;
+            default -> defaultTtl;
+        };
+    }
+
+    public static class Builder {
+        private Duration indexTtl = Duration.ofHours(1);
+        private Duration eventDetailsTtl = FOREVER;
+        private Duration defaultTtl = Duration.ofDays(1);
+
+        public Builder indexTtl(Duration indexTtl) {
+            this.indexTtl = indexTtl;
+            return this;
+        }
+
+        /**
+         * Sets the TTL of event detail pages and of the fight detail pages they link to.
+         */
+        public Builder eventDetailsTtl(Duration eventDetailsTtl) {
+            this.eventDetailsTtl = eventDetailsTtl;
+            return this;
+        }
+
+        public Builder defaultTtl(Duration defaultTtl) {
+            this.defaultTtl = defaultTtl;
+            return this;
+        }
+
+        public CachePolicy build() {
+            return new CachePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A response body stored in a {@link ResponseCache}, together with the validators needed to
+ * revalidate it with a conditional request.
+ */
+public class CachedResponse {
+
+    static final String ETAG = "ETag";
+    static final String LAST_MODIFIED = "Last-Modified";
+
+    private final String url;
+    private final byte[] body;
+    private final String charset;
+    private final String etag;
+    private final String lastModified;
+    private final Instant storedAt;
+
+    public CachedResponse(String url, byte[] body, String charset, String etag, String lastModified,
+            Instant storedAt) {
+        this.url = url;
+        this.body = body;
+        this.charset = charset;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.storedAt = storedAt;
+    }
+
+    static CachedResponse of(FetchResponse response, Instant storedAt) {
+        return new CachedResponse(response.getUrl(), response.getBody(), response.getCharset(),
+                response.getHeader(ETAG), response.getHeader(LAST_MODIFIED), storedAt);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    CachedResponse withStoredAt(Instant storedAt) {
+        return new CachedResponse(url, body, charset, etag, lastModified, storedAt);
+    }
+
+    FetchResponse toFetchResponse() {
+        Map<String, String> headers = new HashMap<>();
+        if (etag != null) {
+            headers.put(ETAG, etag);
+        }
+        if (lastModified != null) {
+            headers.put(LAST_MODIFIED, lastModified);
+        }
+        return new FetchResponse(url, 200, headers, body, charset, true);
+    }
+}
@@ -0,0 +1,127 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * {@link PageFetcher} decorator that serves fresh responses from a {@link ResponseCache} and
+ * revalidates stale ones with {@code If-None-Match} / {@code If-Modified-Since}.
+ * <p>
+ * Callers can tighten freshness for a single request with a {@code Cache-Control: max-age=N}
+ * request header, e.g. for event pages that may still be updated. Cache read and write failures
+ * are logged and otherwise ignored, falling back to the network.
+ * </p>
+ * <p>
+ * {@link #fetchDocument(String)} parses cached bytes on a hit. On a miss the body has to be
+ * buffered to be stored, so the delegate's {@link PageFetcher#fetchDocument(String)}, which may
+ * parse while downloading, is only used for pages the policy keeps for no time at all.
+ * </p>
+ */
+public class CachingPageFetcher implements PageFetcher {
+
+    public static final String CACHE_CONTROL = "Cache-Control";
+
+    private static final Logger LOGGER = Logger.getLogger(CachingPageFetcher.class.getName());
+    private static final String MAX_AGE = "max-age=";
+
+    private final PageFetcher delegate;
+    private final ResponseCache cache;
+    private final CachePolicy policy;
+    private final Clock clock;
+
+    public CachingPageFetcher(PageFetcher delegate, ResponseCache cache, CachePolicy policy) {
+        this(delegate, cache, policy, Clock.systemUTC());
+    }
+
+    public CachingPageFetcher(PageFetcher delegate, ResponseCache cache, CachePolicy policy, Clock clock) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.policy = policy;
+        this.clock = clock;
+    }
+
+    @Override
+    public FetchResponse fetch(String url, Map<String, String> headers) throws IOException {
+        Optional<CachedResponse> cached = readCache(url);
+        Instant now = clock.instant();
+
+        if (cached.isPresent() && isFresh(cached.get(), effectiveTtl(url, headers), now)) {
+            return cached.get().toFetchResponse();
+        }
+
+        Map<String, String> requestHeaders = new HashMap<>(headers);
+        cached.filter(CachedResponse::hasValidators).ifPresent(entry -> {
+            if (entry.getEtag() != null) {
+                requestHeaders.put("If-None-Match", entry.getEtag());
+            }
+            if (entry.getLastModified() != null) {
+                requestHeaders.put("If-Modified-Since", entry.getLastModified());
+            }
+        });
+
+        FetchResponse response = delegate.fetch(url, requestHeaders);
+
+        if (response.isNotModified() && cached.isPresent()) {
+            CachedResponse revalidated = cached.get().withStoredAt(now);
+            writeCache(revalidated);
+            return revalidated.toFetchResponse();
+        }
+
+        if (response.isSuccessful() && !response.isFromCache()) {
+            writeCache(CachedResponse.of(response, now));
+        }
+        return response;
+    }
+
+    @Override
+    public Document fetchDocument(String url) throws IOException {
+        if (policy.ttlFor(url).isZero() && readCache(url).isEmpty()) {
+            return delegate.fetchDocument(url);
+        }
+        return fetch(url).parse();
+    }
+
+    private Duration effectiveTtl(String url, Map<String, String> headers) {
+        Duration ttl = policy.ttlFor(url);
+        String cacheControl = headers.get(CACHE_CONTROL);
+        if (cacheControl != null && cacheControl.startsWith(MAX_AGE)) {
+            try {
+                Duration maxAge = Duration.ofSeconds(Long.parseLong(cacheControl.substring(MAX_AGE.length()).trim()));
+                return maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.FINE, "Ignoring malformed Cache-Control header: " + cacheControl);
+            }
+        }
+        return ttl;
+    }
+
+    private static boolean isFresh(CachedResponse entry, Duration ttl, Instant now) {
+        return Duration.between(entry.getStoredAt(), now).compareTo(ttl) < 0;
+    }
+
+    private Optional<CachedResponse> readCache(String url) {
+        try {
+            return cache.get(url);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read cached response for " + url, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeCache(CachedResponse entry) {
+        try {
+            cache.put(entry);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to cache response for " + entry.getUrl(), e);
+        }
+    }
+}
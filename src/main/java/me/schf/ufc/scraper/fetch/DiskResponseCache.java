@@ -0,0 +1,103 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link ResponseCache} that keeps one gzip-compressed file per URL in a directory.
+ * <p>
+ * Files are named after the SHA-256 of the URL and written to a temporary file first, then
+ * atomically moved into place, so concurrent scrapers and crashed runs never leave a partially
+ * written entry behind.
+ * </p>
+ */
+public class DiskResponseCache implements ResponseCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".gz";
+
+    private final Path directory;
+
+    public DiskResponseCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public Optional<CachedResponse> get(String url) throws IOException {
+        Path file = fileFor(url);
+        try (var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            String storedUrl = in.readUTF();
+            if (!storedUrl.equals(url)) {
+                return Optional.empty();
+            }
+            Instant storedAt = Instant.ofEpochMilli(in.readLong());
+            String etag = readOptional(in);
+            String lastModified = readOptional(in);
+            String charset = readOptional(in);
+            byte[] body = in.readNBytes(in.readInt());
+            return Optional.of(new CachedResponse(url, body, charset, etag, lastModified, storedAt));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(CachedResponse response) throws IOException {
+        Path target = fileFor(response.getUrl());
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(response.getUrl());
+                out.writeLong(response.getStoredAt().toEpochMilli());
+                writeOptional(out, response.getEtag());
+                writeOptional(out, response.getLastModified());
+                writeOptional(out, response.getCharset());
+                out.writeInt(response.getBody().length);
+                out.write(response.getBody());
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path fileFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String readOptional(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
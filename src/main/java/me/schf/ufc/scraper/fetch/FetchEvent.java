@@ -0,0 +1,39 @@
+package me.schf.ufc.scraper.fetch;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one HTTP request; its duration excludes the rate-limit wait, which
+ * is recorded separately.
+ */
+@Name("me.schf.ufc.scraper.Fetch")
+@Label("Page Fetch")
+@Category({ "UFC Scraper", "Network" })
+@Description("An HTTP request for a page")
+@StackTrace(false)
+final class FetchEvent extends jdk.jfr.Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Status Code")
+    @Description("HTTP status, or -1 if the request failed without one")
+    int statusCode;
+
+    @Label("Response Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Rate Limit Wait")
+    @Timespan
+    long rateLimitWait;
+
+    @Label("Error")
+    String error;
+}
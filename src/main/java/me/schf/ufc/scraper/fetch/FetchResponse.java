@@ -0,0 +1,97 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+/**
+ * A fetched page: status, response headers and the raw body bytes.
+ */
+public class FetchResponse {
+
+    public static final int NOT_MODIFIED = 304;
+
+    private final String url;
+    private final int statusCode;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final String charset;
+    private final boolean fromCache;
+
+    public FetchResponse(String url, int statusCode, Map<String, String> headers, byte[] body, String charset,
+            boolean fromCache) {
+        this.url = url;
+        this.statusCode = statusCode;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.body = body;
+        this.charset = charset;
+        this.fromCache = fromCache;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @param name header name, matched case-insensitively
+     * @return the header value, or {@code null} if absent
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return the charset declared by the server, or {@code null} to let the parser detect it
+     */
+    public String getCharset() {
+        return charset;
+    }
+
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    public boolean isNotModified() {
+        return statusCode == NOT_MODIFIED;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public Document parse() throws IOException {
+        return Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+    }
+
+    /**
+     * Opens the body as characters for incremental parsing, decoding with the declared charset
+     * or UTF-8 when none was sent.
+     */
+    public Reader openReader() {
+        Charset decoder = charset != null && Charset.isSupported(charset)
+                ? Charset.forName(charset)
+                : StandardCharsets.UTF_8;
+        return new InputStreamReader(new ByteArrayInputStream(body), decoder);
+    }
+}
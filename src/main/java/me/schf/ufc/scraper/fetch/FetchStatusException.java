@@ -0,0 +1,28 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.jsoup.HttpStatusException;
+
+/**
+ * A non-successful HTTP status, along with the server's {@code Retry-After} hint if it sent one.
+ */
+public class FetchStatusException extends HttpStatusException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public FetchStatusException(String message, int statusCode, String url, Duration retryAfter) {
+        super(message, statusCode, url);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return how long the server asked us to wait before retrying
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
@@ -0,0 +1,346 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.jsoup.Jsoup;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.jsoup.helper.HttpConnection;
+import org.jsoup.nodes.Document;
+
+import me.schf.ufc.scraper.metrics.ScraperMetrics;
+import me.schf.ufc.scraper.metrics.ScraperMetrics.Stage;
+
+/**
+ * Fetches pages over the network, taking a token from the shared {@link RateLimiter}
+ * before every request.
+ * <p>
+ * Requests go through a {@link HttpClient}, which keeps connections alive and reuses them, so
+ * fetchers sharing a client share its connection pool. Responses are requested compressed and
+ * decoded while they are read; {@link #fetchDocument(String)} hands the decoded stream straight
+ * to the parser without buffering the body.
+ * </p>
+ * <p>
+ * Given {@link ScraperMetrics}, every request is counted and timed from sending it to reading
+ * the end of the response, attributed to a fetch stage by the kind of page requested. The wait
+ * for a rate-limit token is recorded separately, so the fetch stages show how fast the server
+ * answers however many workers are queued on the limiter.
+ * </p>
+ */
+public class HttpPageFetcher implements PageFetcher {
+
+    static final String RETRY_AFTER = "Retry-After";
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private final RateLimiter rateLimiter;
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final ScraperMetrics metrics;
+
+    /**
+     * Creates a fetcher on a client shared by every fetcher created this way, with the default
+     * timeouts.
+     */
+    public HttpPageFetcher(RateLimiter rateLimiter) {
+        this(rateLimiter, SharedClient.INSTANCE, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * @param rateLimiter the limiter to take a token from before every request
+     * @param client      the client to send requests with, e.g. from {@link #newHttpClient(Duration)}
+     * @param readTimeout how long to wait for the response headers of a request
+     */
+    public HttpPageFetcher(RateLimiter rateLimiter, HttpClient client, Duration readTimeout) {
+        this(rateLimiter, client, readTimeout, null);
+    }
+
+    /**
+     * @param rateLimiter the limiter to take a token from before every request
+     * @param client      the client to send requests with, e.g. from {@link #newHttpClient(Duration)}
+     * @param readTimeout how long to wait for the response headers of a request
+     * @param metrics     where to record requests and their latency, or {@code null}
+     */
+    public HttpPageFetcher(RateLimiter rateLimiter, HttpClient client, Duration readTimeout, ScraperMetrics metrics) {
+        this.rateLimiter = rateLimiter;
+        this.client = client;
+        this.readTimeout = readTimeout;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates a client suitable for this fetcher: HTTP/1.1 with keep-alive, following redirects.
+     *
+     * @param connectTimeout how long to wait for a connection to be established
+     * @return a new client
+     */
+    public static HttpClient newHttpClient(Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Override
+    public FetchResponse fetch(String url, Map<String, String> headers) throws IOException {
+        return send(url, headers, (response, body) -> {
+            Map<String, String> responseHeaders = toMap(response.headers());
+            if (response.statusCode() == FetchResponse.NOT_MODIFIED) {
+                return new FetchResponse(url, response.statusCode(), responseHeaders, new byte[0], null, false);
+            }
+            // the body is stored decoded, so its original encoding and length no longer apply
+            responseHeaders.remove(CONTENT_ENCODING);
+            responseHeaders.remove(CONTENT_LENGTH);
+            return new FetchResponse(url, response.statusCode(), responseHeaders, body.readAllBytes(),
+                    charsetOf(response.headers()), false);
+        });
+    }
+
+    /**
+     * Parses the page while it downloads. Without a charset in the {@code Content-Type} header,
+     * the parser detects it from a byte order mark or a {@code <meta>} declaration.
+     */
+    @Override
+    public Document fetchDocument(String url) throws IOException {
+        return send(url, Map.of(), (response, body) -> Jsoup.parse(body, charsetOf(response.headers()), url));
+    }
+
+    private <T> T send(String url, Map<String, String> headers, BodyReader<T> reader) throws IOException {
+        long waitStart = System.nanoTime();
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to fetch " + url);
+        }
+
+        FetchEvent event = new FetchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        event.rateLimitWait = start - waitStart;
+        event.statusCode = -1;
+        if (metrics != null) {
+            metrics.rateLimitWait().observeNanos(event.rateLimitWait);
+            metrics.httpRequests().increment();
+        }
+        try {
+            HttpResponse<InputStream> response = execute(url, headers);
+            event.statusCode = response.statusCode();
+            try (InputStream raw = response.body(); InputStream decoded = decode(response, raw)) {
+                CountingInputStream body = new CountingInputStream(decoded);
+                T result = reader.read(response, body);
+                event.bytes = body.count;
+                // a decoder stops at the end of its data; reading up to the end of the response
+                // lets the client put the connection back into its pool
+                raw.transferTo(OutputStream.nullOutputStream());
+                return result;
+            }
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof FetchStatusException status) {
+                event.statusCode = status.getStatusCode();
+            }
+            event.error = e.toString();
+            if (metrics != null) {
+                metrics.httpFailures().increment();
+            }
+            throw e;
+        } finally {
+            if (metrics != null) {
+                metrics.stage(stageOf(url)).observeSince(start);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.url = url;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Sends the request and checks the response; the body of a response that is not returned
+     * has already been consumed and closed, so its connection can be reused.
+     */
+    private HttpResponse<InputStream> execute(String url, Map<String, String> headers) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("User-Agent", HttpConnection.DEFAULT_UA)
+                .header("Accept-Encoding", "gzip, deflate");
+        headers.forEach(request::header);
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        }
+
+        int status = response.statusCode();
+        if (status == FetchResponse.NOT_MODIFIED) {
+            return response;
+        }
+        if (status < 200 || status >= 300) {
+            discard(response);
+            throw new FetchStatusException("HTTP error fetching URL", status, url,
+                    parseRetryAfter(response.headers().firstValue(RETRY_AFTER).orElse(null)));
+        }
+        // a 304 carries no content type; HTML is checked here for everything else
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        if (contentType != null && !isHtmlOrXml(contentType)) {
+            discard(response);
+            throw new UnsupportedMimeTypeException("Unhandled content type", contentType, url);
+        }
+        return response;
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response, InputStream raw) throws IOException {
+        if (response.statusCode() == FetchResponse.NOT_MODIFIED) {
+            return raw;
+        }
+        String encoding = response.headers().firstValue(CONTENT_ENCODING).orElse("identity")
+                .trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(raw);
+            case "deflate" -> new InflaterInputStream(raw);
+            default -> raw;
+        };
+    }
+
+    private static void discard(HttpResponse<InputStream> response) throws IOException {
+        try (InputStream body = response.body()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Joins repeated headers with commas, as they would be folded on the wire.
+     */
+    private static Map<String, String> toMap(HttpHeaders headers) {
+        Map<String, String> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.map().forEach((name, values) -> map.put(name, String.join(", ", values)));
+        return map;
+    }
+
+    /**
+     * @return the {@code charset} parameter of the {@code Content-Type} header, or {@code null}
+     */
+    static String charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse(null);
+        if (contentType == null) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("charset")) {
+                String charset = pair[1].trim().replace("\"", "").replace("'", "");
+                return charset.isEmpty() ? null : charset;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a {@code Retry-After} value, given either as delay seconds or as an HTTP date.
+     *
+     * @return the delay, or {@code null} if absent or unparseable
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(text)));
+        } catch (NumberFormatException e) {
+            // not delay-seconds, try an HTTP date
+        }
+        try {
+            Duration delay = Duration.between(Instant.now(),
+                    ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Stage stageOf(String url) {
+        return switch (PageKind.of(url)) {
+            case INDEX -> Stage.FETCH_INDEX;
+            case EVENT -> Stage.FETCH_EVENT;
+            case FIGHT -> Stage.FETCH_FIGHT;
+            case FIGHTER -> Stage.FETCH_FIGHTER;
+            case OTHER -> Stage.FETCH_OTHER;
+        };
+    }
+
+    private static boolean isHtmlOrXml(String contentType) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("xml");
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(HttpResponse<InputStream> response, InputStream body) throws IOException;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        /**
+         * Leaves the underlying stream open; the parser closes its input, but the rest of the
+         * response still has to be read before the connection can be reused.
+         */
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class SharedClient {
+        static final HttpClient INSTANCE = newHttpClient(DEFAULT_CONNECT_TIMEOUT);
+    }
+}
@@ -0,0 +1,44 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Retrieves pages from the statistics site.
+ * <p>
+ * Implementations may go to the network, serve from a cache, or decorate another fetcher.
+ * Non-success responses other than {@code 304 Not Modified} are reported as an
+ * {@link org.jsoup.HttpStatusException}.
+ * </p>
+ */
+public interface PageFetcher {
+
+    /**
+     * Fetches the given URL, sending the given extra request headers.
+     *
+     * @param url     the absolute URL to fetch
+     * @param headers additional request headers, e.g. conditional-request validators
+     * @return the response
+     * @throws IOException if the page cannot be retrieved
+     */
+    FetchResponse fetch(String url, Map<String, String> headers) throws IOException;
+
+    default FetchResponse fetch(String url) throws IOException {
+        return fetch(url, Map.of());
+    }
+
+    /**
+     * Fetches and parses the given URL. The default buffers the body with {@link #fetch(String)};
+     * a fetcher that can parse while downloading overrides this, and decorators override it to
+     * keep passing documents through to their delegate.
+     *
+     * @param url the absolute URL to fetch
+     * @return the parsed page
+     * @throws IOException if the page cannot be retrieved
+     */
+    default Document fetchDocument(String url) throws IOException {
+        return fetch(url).parse();
+    }
+}
@@ -0,0 +1,27 @@
+package me.schf.ufc.scraper.fetch;
+
+/**
+ * The kinds of page the scraper fetches, told apart by URL path.
+ */
+enum PageKind {
+    INDEX("/statistics/events/"),
+    EVENT("/event-details/"),
+    FIGHT("/fight-details/"),
+    FIGHTER("/fighter-details/"),
+    OTHER(null);
+
+    private final String path;
+
+    PageKind(String path) {
+        this.path = path;
+    }
+
+    static PageKind of(String url) {
+        for (PageKind kind : values()) {
+            if (kind.path != null && url.contains(kind.path)) {
+                return kind;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,145 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiter shared by every thread that talks to the target site.
+ * <p>
+ * Tokens refill continuously at the configured rate up to {@code burst}. A caller that finds
+ * the bucket empty reserves the next token and sleeps until it becomes available, so waiting
+ * callers are served in arrival order and the overall request rate never exceeds the limit,
+ * however many workers share the limiter.
+ * </p>
+ * <p>
+ * The rate can be changed while the limiter is in use, e.g. by an {@link AimdRateController},
+ * and all requests can be held back for a while with {@link #pauseUntil(long)} when the server
+ * asks for it.
+ * </p>
+ */
+public class RateLimiter {
+
+    private final int burst;
+    private double nanosPerToken;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    /**
+     * Creates a limiter allowing {@code permitsPerSecond} requests per second with the given burst.
+     *
+     * @param permitsPerSecond sustained rate; {@code 0} or less disables limiting
+     * @param burst            maximum number of tokens that may accumulate while idle
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1: " + burst);
+        }
+        this.burst = burst;
+        this.nanosPerToken = toNanosPerToken(permitsPerSecond);
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Creates a limiter that hands out one token per {@code interval}, without bursting.
+     *
+     * @param interval minimum spacing between requests
+     * @return a new limiter
+     */
+    public static RateLimiter ofInterval(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            return new RateLimiter(0, 1);
+        }
+        return new RateLimiter(TimeUnit.SECONDS.toNanos(1) / (double) interval.toNanos(), 1);
+    }
+
+    /**
+     * Blocks until a token is available and consumes it.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long pauseNanos = Math.max(0, pausedUntilNanos - now);
+            if (nanosPerToken == 0) {
+                waitNanos = pauseNanos;
+            } else {
+                refill(now);
+                tokens -= 1;
+                // after a pause the bucket only starts refilling at its end, so lastRefillNanos may lie ahead
+                long tokenWait = lastRefillNanos - now + (tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken));
+                waitNanos = Math.max(pauseNanos, tokenWait);
+            }
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * @return the current sustained rate in permits per second, or {@code 0} if unlimited
+     */
+    public synchronized double getRate() {
+        return nanosPerToken == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / nanosPerToken;
+    }
+
+    /**
+     * Changes the sustained rate. Tokens accumulated so far are kept.
+     *
+     * @param permitsPerSecond the new rate; {@code 0} or less disables limiting
+     */
+    public synchronized void setRate(double permitsPerSecond) {
+        long now = System.nanoTime();
+        if (nanosPerToken != 0) {
+            refill(now);
+        } else {
+            tokens = burst;
+        }
+        if (now - lastRefillNanos > 0) {
+            lastRefillNanos = now;
+        }
+        nanosPerToken = toNanosPerToken(permitsPerSecond);
+    }
+
+    /**
+     * Holds back every {@link #acquire()} made before {@code nanoTime}, as measured by
+     * {@link System#nanoTime()}. Callers already sleeping on a reserved token are not affected.
+     * An earlier deadline than the current one is ignored.
+     * <p>
+     * The token schedule restarts at the deadline with a single token, so callers that queued up
+     * during the pause are let through one at a time at the sustained rate rather than all at
+     * once.
+     */
+    public synchronized void pauseUntil(long nanoTime) {
+        if (nanoTime - pausedUntilNanos <= 0) {
+            return;
+        }
+        pausedUntilNanos = nanoTime;
+        if (nanosPerToken != 0) {
+            long now = System.nanoTime();
+            refill(now);
+            // when tokens already reserved run past the deadline, the schedule is later than the pause
+            long reservedUntil = lastRefillNanos + (tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken));
+            if (nanoTime - reservedUntil > 0) {
+                lastRefillNanos = nanoTime;
+                tokens = 1;
+            }
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed / nanosPerToken);
+            lastRefillNanos = now;
+        }
+    }
+
+    private static double toNanosPerToken(double permitsPerSecond) {
+        return permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+    }
+}
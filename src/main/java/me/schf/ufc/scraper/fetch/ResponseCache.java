@@ -0,0 +1,17 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Storage for previously fetched responses, keyed by URL.
+ *
+ * @see DiskResponseCache
+ * @see CachingPageFetcher
+ */
+public interface ResponseCache {
+
+    Optional<CachedResponse> get(String url) throws IOException;
+
+    void put(CachedResponse response) throws IOException;
+}
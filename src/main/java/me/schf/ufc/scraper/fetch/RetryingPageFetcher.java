@@ -0,0 +1,214 @@
+package me.schf.ufc.scraper.fetch;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Retries fetches that failed for transient reasons: HTTP 429 and 5xx gateway/availability
+ * errors, timeouts and refused connections.
+ * <p>
+ * Retries back off exponentially with full jitter, so workers that failed together do not retry
+ * together. A {@code Retry-After} sent by the server is honored as the minimum delay and, since
+ * it applies to the whole client, pauses the shared {@link RateLimiter} for every worker. An
+ * optional {@link AimdRateController} is told about healthy and throttled responses.
+ * </p>
+ */
+public class RetryingPageFetcher implements PageFetcher {
+
+    private static final Logger LOGGER = Logger.getLogger(RetryingPageFetcher.class.getName());
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(TOO_MANY_REQUESTS, 500, 502, SERVICE_UNAVAILABLE, 504);
+
+    private final PageFetcher delegate;
+    private final RateLimiter rateLimiter;
+    private final AimdRateController rateController;
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Runnable onRetry;
+
+    private RetryingPageFetcher(Builder builder) {
+        this.delegate = builder.delegate;
+        this.rateLimiter = builder.rateLimiter;
+        this.rateController = builder.rateController;
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelay = builder.baseDelay;
+        this.maxDelay = builder.maxDelay;
+        this.onRetry = builder.onRetry;
+    }
+
+    public static class Builder {
+        private PageFetcher delegate;
+        private RateLimiter rateLimiter;
+        private AimdRateController rateController;
+        private int maxAttempts = 4;
+        private Duration baseDelay = Duration.ofMillis(500);
+        private Duration maxDelay = Duration.ofSeconds(30);
+        private Runnable onRetry = () -> {
+        };
+
+        public Builder delegate(PageFetcher delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * The limiter to pause when the server sends {@code Retry-After}.
+         */
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        public Builder rateController(AimdRateController rateController) {
+            this.rateController = rateController;
+            return this;
+        }
+
+        /**
+         * Total attempts per fetch, including the first. {@code 1} disables retries.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder baseDelay(Duration baseDelay) {
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Called before every retry, e.g. to count retries.
+         */
+        public Builder onRetry(Runnable onRetry) {
+            this.onRetry = onRetry;
+            return this;
+        }
+
+        public RetryingPageFetcher build() {
+            if (delegate == null) {
+                throw new IllegalStateException("delegate is required");
+            }
+            return new RetryingPageFetcher(this);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Attempt<T> {
+        T run() throws IOException;
+    }
+
+    @Override
+    public FetchResponse fetch(String url, Map<String, String> headers) throws IOException {
+        return withRetries(url, () -> delegate.fetch(url, headers));
+    }
+
+    /**
+     * Retries around the delegate's {@link PageFetcher#fetchDocument(String)}, so a delegate that
+     * parses while it downloads keeps doing so.
+     */
+    @Override
+    public Document fetchDocument(String url) throws IOException {
+        return withRetries(url, () -> delegate.fetchDocument(url));
+    }
+
+    private <T> T withRetries(String url, Attempt<T> attempt) throws IOException {
+        for (int attempts = 1; ; attempts++) {
+            try {
+                T result = attempt.run();
+                if (rateController != null) {
+                    rateController.onSuccess();
+                }
+                return result;
+            } catch (IOException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                if (isThrottle(e) && rateController != null) {
+                    rateController.onThrottle();
+                }
+                Duration retryAfter = e instanceof FetchStatusException status
+                        ? status.getRetryAfter().orElse(null) : null;
+                if (retryAfter != null && rateLimiter != null) {
+                    rateLimiter.pauseUntil(System.nanoTime() + retryAfter.toNanos());
+                }
+                if (attempts >= maxAttempts) {
+                    throw e;
+                }
+
+                Duration delay = backoff(attempts, retryAfter);
+                LOGGER.log(Level.WARNING, "Fetch of {0} failed ({1}), retrying in {2} ms",
+                        new Object[] { url, e.getMessage(), delay.toMillis() });
+                sleep(delay, url);
+                onRetry.run();
+            }
+        }
+    }
+
+    /**
+     * Full jitter: a uniform delay between zero and the exponential cap, but never less than
+     * the server's {@code Retry-After}.
+     */
+    private Duration backoff(int attempt, Duration retryAfter) {
+        long capNanos = baseDelay.toNanos() << Math.min(attempt - 1, 30);
+        if (capNanos <= 0 || capNanos > maxDelay.toNanos()) {
+            capNanos = maxDelay.toNanos();
+        }
+        long jittered = ThreadLocalRandom.current().nextLong(capNanos + 1);
+        long floor = retryAfter != null ? retryAfter.toNanos() : 0;
+        return Duration.ofNanos(Math.max(jittered, floor));
+    }
+
+    private static void sleep(Duration delay, String url) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry " + url);
+        }
+    }
+
+    private static boolean isRetryable(IOException e) {
+        if (e instanceof FetchStatusException status) {
+            return RETRYABLE_STATUSES.contains(status.getStatusCode());
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        return isTimeout(e) || e instanceof ConnectException;
+    }
+
+    private static boolean isThrottle(IOException e) {
+        if (e instanceof FetchStatusException status) {
+            return status.getStatusCode() == TOO_MANY_REQUESTS || status.getStatusCode() == SERVICE_UNAVAILABLE;
+        }
+        return isTimeout(e);
+    }
+
+    private static boolean isTimeout(IOException e) {
+        return e instanceof SocketTimeoutException || e instanceof HttpTimeoutException;
+    }
+}
@@ -0,0 +1,27 @@
+package me.schf.ufc.scraper.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A value that can go up and down, such as the number of items waiting in a queue.
+ */
+public class Gauge {
+
+    private final AtomicLong value = new AtomicLong();
+
+    public void set(long newValue) {
+        value.set(newValue);
+    }
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void decrement() {
+        value.decrementAndGet();
+    }
+
+    public long get() {
+        return value.get();
+    }
+}
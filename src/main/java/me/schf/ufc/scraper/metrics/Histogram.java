@@ -0,0 +1,109 @@
+package me.schf.ufc.scraper.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distribution over fixed buckets, cheap to update from many threads.
+ * <p>
+ * The buckets span 1 ms to 30 s, which covers everything from parsing a card to a slow fetch
+ * under backoff. Observations above the last bucket only show up in the {@code +Inf} bucket.
+ * </p>
+ */
+public class Histogram {
+
+    private static final double[] BUCKET_SECONDS =
+            { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30 };
+    private static final long[] BUCKET_NANOS = new long[BUCKET_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            BUCKET_NANOS[i] = (long) (BUCKET_SECONDS[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    // the last slot counts observations above every bound
+    private final LongAdder[] buckets = new LongAdder[BUCKET_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public Histogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observeNanos(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_NANOS.length && nanos > BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a {@link System#nanoTime()} reading.
+     */
+    public void observeSince(long startNanos) {
+        observeNanos(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public Duration getSum() {
+        return Duration.ofNanos(sumNanos.sum());
+    }
+
+    /**
+     * @return the upper bounds of the buckets in seconds, excluding {@code +Inf}
+     */
+    public static double[] getBucketBounds() {
+        return BUCKET_SECONDS.clone();
+    }
+
+    /**
+     * @return for each bound of {@link #getBucketBounds()}, then {@code +Inf}, the number of
+     *         observations less than or equal to it
+     */
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            counts[i] = running;
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates a quantile by linear interpolation within its bucket.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the estimate, or {@link Duration#ZERO} if nothing was observed
+     */
+    public Duration quantile(double q) {
+        long[] counts = getCumulativeCounts();
+        long total = counts[counts.length - 1];
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        double rank = q * total;
+        for (int i = 0; i < BUCKET_NANOS.length; i++) {
+            if (counts[i] >= rank) {
+                long lower = i == 0 ? 0 : BUCKET_NANOS[i - 1];
+                long below = i == 0 ? 0 : counts[i - 1];
+                long inBucket = counts[i] - below;
+                double fraction = inBucket == 0 ? 1 : (rank - below) / inBucket;
+                return Duration.ofNanos(lower + (long) (fraction * (BUCKET_NANOS[i] - lower)));
+            }
+        }
+        return Duration.ofNanos(BUCKET_NANOS[BUCKET_NANOS.length - 1]);
+    }
+}
@@ -0,0 +1,69 @@
+package me.schf.ufc.scraper.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves {@link ScraperMetrics} in the Prometheus text format at {@code /metrics}, using the
+ * JDK's built-in HTTP server.
+ *
+ * <pre>{@code
+ * try (MetricsServer server = MetricsServer.start(scraper.getMetrics(), new InetSocketAddress(9400))) {
+ *     scraper.scrapeTo(sink);
+ * }
+ * }</pre>
+ */
+public class MetricsServer implements AutoCloseable {
+
+    public static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+
+    private MetricsServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts serving on {@code address}; use port 0 to pick a free port.
+     *
+     * @throws IOException if the address cannot be bound
+     */
+    public static MetricsServer start(ScraperMetrics metrics, InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext(PATH, exchange -> handle(exchange, metrics));
+        server.start();
+        return new MetricsServer(server);
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void handle(HttpExchange exchange, ScraperMetrics metrics) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            StringBuilder text = new StringBuilder(8192);
+            metrics.writePrometheus(text);
+            byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
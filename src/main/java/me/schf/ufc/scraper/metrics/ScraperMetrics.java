@@ -0,0 +1,206 @@
+package me.schf.ufc.scraper.metrics;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counters and per-stage latency histograms of one scraper.
+ * <p>
+ * Fetch stages measure individual HTTP attempts, so cache hits are not included and a retried
+ * fetch is observed once per attempt. They start once the rate limiter has handed out a token;
+ * the wait for it is recorded in {@link #rateLimitWait()}. The parse and build stages measure
+ * the CPU side of scraping an event: turning a response into a DOM, extracting the fight rows
+ * from the event page, and assembling the {@code Event} once its fights are in hand.
+ * </p>
+ * <p>
+ * {@link #writePrometheus(Appendable)} renders everything in the Prometheus text format, which
+ * {@link MetricsServer} serves over HTTP.
+ * </p>
+ */
+public class ScraperMetrics {
+
+    public enum Stage {
+        FETCH_INDEX,
+        FETCH_EVENT,
+        FETCH_FIGHT,
+        FETCH_FIGHTER,
+        FETCH_OTHER,
+        PARSE_DOCUMENT,
+        PARSE_FIGHTS,
+        BUILD_EVENT;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String PREFIX = "ufc_scraper_";
+
+    private final Counter eventsScraped = new Counter();
+    private final Counter eventsFailed = new Counter();
+    private final Counter fightsParsed = new Counter();
+    private final Counter eventPagesUnchanged = new Counter();
+    private final Counter eventPagesChanged = new Counter();
+    private final Counter httpRequests = new Counter();
+    private final Counter httpFailures = new Counter();
+    private final Counter fetchRetries = new Counter();
+    private final Gauge pipelineQueueDepth = new Gauge();
+    private final Gauge fetchesInFlight = new Gauge();
+    private final Gauge parsersBusy = new Gauge();
+    private final Gauge parseThreads = new Gauge();
+    private final Counter parseBusyNanos = new Counter();
+    private final Histogram rateLimitWait = new Histogram();
+    private final Map<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+
+    public ScraperMetrics() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new Histogram());
+        }
+    }
+
+    public Counter eventsScraped() {
+        return eventsScraped;
+    }
+
+    public Counter eventsFailed() {
+        return eventsFailed;
+    }
+
+    public Counter fightsParsed() {
+        return fightsParsed;
+    }
+
+    /**
+     * Counts event pages that hashed the same as their stored copy and were not parsed again.
+     */
+    public Counter eventPagesUnchanged() {
+        return eventPagesUnchanged;
+    }
+
+    /**
+     * Counts event pages whose content differed from their stored copy.
+     */
+    public Counter eventPagesChanged() {
+        return eventPagesChanged;
+    }
+
+    /**
+     * Counts HTTP attempts, including retries.
+     */
+    public Counter httpRequests() {
+        return httpRequests;
+    }
+
+    /**
+     * Counts HTTP attempts that ended in an error status or an I/O failure.
+     */
+    public Counter httpFailures() {
+        return httpFailures;
+    }
+
+    public Counter fetchRetries() {
+        return fetchRetries;
+    }
+
+    /**
+     * Event pages downloaded but not yet taken up by a parse thread.
+     */
+    public Gauge pipelineQueueDepth() {
+        return pipelineQueueDepth;
+    }
+
+    public Gauge fetchesInFlight() {
+        return fetchesInFlight;
+    }
+
+    public Gauge parsersBusy() {
+        return parsersBusy;
+    }
+
+    public Gauge parseThreads() {
+        return parseThreads;
+    }
+
+    /**
+     * Total time the parse threads spent working. Its rate divided by {@link #parseThreads()}
+     * is the utilization of the parse stage.
+     */
+    public Counter parseBusyNanos() {
+        return parseBusyNanos;
+    }
+
+    /**
+     * Time each HTTP attempt waited for a token from the rate limiter.
+     */
+    public Histogram rateLimitWait() {
+        return rateLimitWait;
+    }
+
+    public Histogram stage(Stage stage) {
+        return stages.get(stage);
+    }
+
+    public void writePrometheus(Appendable out) throws IOException {
+        counter(out, "events_scraped_total", "Events scraped successfully.", eventsScraped);
+        counter(out, "events_failed_total", "Events that could not be scraped.", eventsFailed);
+        counter(out, "fights_parsed_total", "Fight rows parsed.", fightsParsed);
+        counter(out, "event_pages_unchanged_total", "Event pages reused from the page store.", eventPagesUnchanged);
+        counter(out, "event_pages_changed_total", "Event pages that changed since they were stored.",
+                eventPagesChanged);
+        counter(out, "http_requests_total", "HTTP attempts, including retries.", httpRequests);
+        counter(out, "http_failures_total", "HTTP attempts that failed.", httpFailures);
+        counter(out, "fetch_retries_total", "Fetches retried after a transient failure.", fetchRetries);
+        gauge(out, "pipeline_queue_depth", "Event pages waiting to be parsed.", pipelineQueueDepth);
+        gauge(out, "pipeline_fetches_in_flight", "Event page fetches in progress.", fetchesInFlight);
+        gauge(out, "pipeline_parsers_busy", "Parse threads currently parsing.", parsersBusy);
+        gauge(out, "pipeline_parse_threads", "Size of the parse thread pool.", parseThreads);
+
+        String busy = PREFIX + "pipeline_parse_busy_seconds_total";
+        out.append("# HELP ").append(busy).append(" Time the parse threads spent parsing.\n");
+        out.append("# TYPE ").append(busy).append(" counter\n");
+        out.append(busy).append(' ').append(Double.toString(parseBusyNanos.get() / 1e9)).append('\n');
+
+        String waitName = PREFIX + "rate_limit_wait_seconds";
+        out.append("# HELP ").append(waitName).append(" Time HTTP attempts waited for a rate limit token.\n");
+        out.append("# TYPE ").append(waitName).append(" histogram\n");
+        histogram(out, waitName, "", rateLimitWait);
+
+        String name = PREFIX + "stage_duration_seconds";
+        out.append("# HELP ").append(name).append(" Time spent per scraping stage.\n");
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        for (var entry : stages.entrySet()) {
+            histogram(out, name, "stage=\"" + entry.getKey().label() + "\"", entry.getValue());
+        }
+    }
+
+    private static void histogram(Appendable out, String name, String labels, Histogram histogram)
+            throws IOException {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        double[] bounds = Histogram.getBucketBounds();
+        long[] counts = histogram.getCumulativeCounts();
+        for (int i = 0; i < counts.length; i++) {
+            String le = i < bounds.length ? Double.toString(bounds[i]) : "+Inf";
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(le).append("\"} ")
+                    .append(Long.toString(counts[i])).append('\n');
+        }
+        out.append(name).append("_sum").append(suffix)
+                .append(Double.toString(histogram.getSum().toNanos() / 1e9)).append('\n');
+        out.append(name).append("_count").append(suffix)
+                .append(Long.toString(counts[counts.length - 1])).append('\n');
+    }
+
+    private static void gauge(Appendable out, String name, String help, Gauge gauge) throws IOException {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+        out.append(PREFIX).append(name).append(' ').append(Long.toString(gauge.get())).append('\n');
+    }
+
+    private static void counter(Appendable out, String name, String help, Counter counter) throws IOException {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+        out.append(PREFIX).append(name).append(' ').append(Long.toString(counter.get())).append('\n');
+    }
+}
@@ -0,0 +1,179 @@
+package me.schf.ufc.scraper.query;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import me.schf.ufc.scraper.compact.EventView;
+import me.schf.ufc.scraper.compact.FightHistory;
+import me.schf.ufc.scraper.compact.FightView;
+import me.schf.ufc.scraper.compact.FighterView;
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.data.WeightClass;
+
+/**
+ * Immutable indexes over the fights of a {@link FightHistory}, answering filter queries without
+ * walking every fight.
+ * <p>
+ * Fights are identified by their index in the history. Weight class, method, round and title
+ * fights each have one bitmap per value, every fighter has a postings bitmap of the fights they
+ * appeared in, and events are kept in a date-ordered {@link NavigableMap}, so a date range
+ * maps to a handful of contiguous fight ranges. {@link #query()} intersects these and streams
+ * the matches lazily.
+ * </p>
+ * <p>
+ * Fighters are told apart by profile URL, as in
+ * {@link me.schf.ufc.scraper.aggregate.CareerAggregator}, so namesakes keep separate postings; a
+ * fighter listed without one is indexed under the name.
+ * </p>
+ * <p>
+ * An index is safe to query from many threads at once; each {@link FightQuery} belongs to one.
+ * </p>
+ *
+ * <pre>{@code
+ * EventIndex index = EventIndex.of(history);
+ * List<FightView> fights = index.query()
+ *         .weightClass(WeightClass.LIGHTWEIGHT)
+ *         .method(Method.SUBMISSION)
+ *         .titleFight(true)
+ *         .from(LocalDate.of(2015, 1, 1))
+ *         .fights()
+ *         .toList();
+ * }</pre>
+ */
+public class EventIndex {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final FightHistory history;
+    // start and end (exclusive) fight index of each event on a date, in pairs
+    private final NavigableMap<LocalDate, int[]> fightRangesByDate;
+    private final Map<WeightClass, BitSet> byWeightClass = new EnumMap<>(WeightClass.class);
+    private final Map<Method, BitSet> byMethod = new EnumMap<>(Method.class);
+    private final Map<Round, BitSet> byRound = new EnumMap<>(Round.class);
+    private final BitSet titleFights = new BitSet();
+    private final Map<String, BitSet> byFighter = new HashMap<>();
+
+    private EventIndex(FightHistory history) {
+        this.history = history;
+
+        TreeMap<LocalDate, int[]> dates = new TreeMap<>();
+        for (EventView event : history.events()) {
+            var fights = event.getFightResults();
+            if (fights.isEmpty()) {
+                continue;
+            }
+            int first = fights.get(0).getIndex();
+            dates.merge(event.getEventDate(), new int[] { first, first + fights.size() }, EventIndex::concat);
+            for (FightView fight : fights) {
+                indexFight(fight);
+            }
+        }
+        this.fightRangesByDate = dates;
+    }
+
+    private void indexFight(FightView fight) {
+        int id = fight.getIndex();
+        if (fight.getWeightClass() != null) {
+            byWeightClass.computeIfAbsent(fight.getWeightClass(), k -> new BitSet()).set(id);
+        }
+        if (fight.getMethod() != null) {
+            byMethod.computeIfAbsent(fight.getMethod(), k -> new BitSet()).set(id);
+        }
+        if (fight.getRound() != null) {
+            byRound.computeIfAbsent(fight.getRound(), k -> new BitSet()).set(id);
+        }
+        if (fight.isTitleFight()) {
+            titleFights.set(id);
+        }
+        for (FighterView fighter : fight.getFighterStatsList()) {
+            String key = fighter.getProfileUrl() != null ? fighter.getProfileUrl() : fighter.getName();
+            if (key != null) {
+                byFighter.computeIfAbsent(key, k -> new BitSet()).set(id);
+            }
+        }
+    }
+
+    /**
+     * Indexes the fights of {@code history}.
+     */
+    public static EventIndex of(FightHistory history) {
+        return new EventIndex(history);
+    }
+
+    /**
+     * Copies {@code events} into a {@link FightHistory} and indexes it.
+     */
+    public static EventIndex of(Iterable<? extends Event> events) {
+        return new EventIndex(new FightHistory.Builder().addAll(events).build());
+    }
+
+    public FightHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Starts a query matching every fight; each filter narrows it down.
+     */
+    public FightQuery query() {
+        return new FightQuery(this);
+    }
+
+    // index lookups for FightQuery; the returned bitmaps must not be modified
+
+    BitSet allFights() {
+        BitSet all = new BitSet(history.fightCount());
+        all.set(0, history.fightCount());
+        return all;
+    }
+
+    BitSet weightClass(WeightClass weightClass) {
+        return byWeightClass.getOrDefault(weightClass, EMPTY);
+    }
+
+    BitSet method(Method method) {
+        return byMethod.getOrDefault(method, EMPTY);
+    }
+
+    BitSet round(Round round) {
+        return byRound.getOrDefault(round, EMPTY);
+    }
+
+    BitSet titleFights() {
+        return titleFights;
+    }
+
+    BitSet fighter(String key) {
+        return byFighter.getOrDefault(key, EMPTY);
+    }
+
+    /**
+     * @return a new bitmap of the fights of events dated from {@code from} to {@code to},
+     *         both inclusive
+     */
+    BitSet dateRange(LocalDate from, LocalDate to) {
+        BitSet fights = new BitSet(history.fightCount());
+        if (from.isAfter(to)) {
+            return fights;
+        }
+        for (int[] ranges : fightRangesByDate.subMap(from, true, to, true).values()) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                fights.set(ranges[i], ranges[i + 1]);
+            }
+        }
+        return fights;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] joined = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+}
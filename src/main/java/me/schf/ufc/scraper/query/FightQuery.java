@@ -0,0 +1,140 @@
+package me.schf.ufc.scraper.query;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.stream.Stream;
+
+import me.schf.ufc.scraper.compact.EventView;
+import me.schf.ufc.scraper.compact.FightHistory;
+import me.schf.ufc.scraper.compact.FightView;
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.data.WeightClass;
+
+/**
+ * A filter over the fights of an {@link EventIndex}, built by chaining conditions that must all
+ * hold. Passing several values to one condition matches any of them.
+ * <p>
+ * Each condition is resolved against the index into a bitmap and intersected right away, so
+ * building a query costs a few word-wise bitmap operations per condition; date bounds are
+ * combined and applied once, from the date-ordered event index. The matching fights
+ * are only turned into views as {@link #fights()} is consumed, in the order they were added to
+ * the history. Not thread-safe.
+ * </p>
+ */
+public class FightQuery {
+
+    private final EventIndex index;
+    private final BitSet matches;
+    private LocalDate from = LocalDate.MIN;
+    private LocalDate to = LocalDate.MAX;
+
+    FightQuery(EventIndex index) {
+        this.index = index;
+        this.matches = index.allFights();
+    }
+
+    public FightQuery weightClass(WeightClass... weightClasses) {
+        BitSet any = new BitSet();
+        for (WeightClass weightClass : weightClasses) {
+            any.or(index.weightClass(weightClass));
+        }
+        matches.and(any);
+        return this;
+    }
+
+    public FightQuery method(Method... methods) {
+        BitSet any = new BitSet();
+        for (Method method : methods) {
+            any.or(index.method(method));
+        }
+        matches.and(any);
+        return this;
+    }
+
+    public FightQuery round(Round... rounds) {
+        BitSet any = new BitSet();
+        for (Round round : rounds) {
+            any.or(index.round(round));
+        }
+        matches.and(any);
+        return this;
+    }
+
+    public FightQuery titleFight(boolean titleFight) {
+        if (titleFight) {
+            matches.and(index.titleFights());
+        } else {
+            matches.andNot(index.titleFights());
+        }
+        return this;
+    }
+
+    /**
+     * Keeps fights in which any of the given fighters appeared.
+     *
+     * @param fighters profile URLs, or, for fighters listed without a profile URL, names; a name
+     *                 does not match fighters that have a URL, so namesakes are never merged
+     */
+    public FightQuery fighter(String... fighters) {
+        BitSet any = new BitSet();
+        for (String fighter : fighters) {
+            any.or(index.fighter(fighter));
+        }
+        matches.and(any);
+        return this;
+    }
+
+    /**
+     * Keeps fights of events dated on or after {@code from}.
+     */
+    public FightQuery from(LocalDate from) {
+        return between(from, to);
+    }
+
+    /**
+     * Keeps fights of events dated on or before {@code to}.
+     */
+    public FightQuery to(LocalDate to) {
+        return between(from, to);
+    }
+
+    /**
+     * Keeps fights of events dated from {@code from} to {@code to}, both inclusive.
+     */
+    public FightQuery between(LocalDate from, LocalDate to) {
+        this.from = from.isAfter(this.from) ? from : this.from;
+        this.to = to.isBefore(this.to) ? to : this.to;
+        return this;
+    }
+
+    /**
+     * @return the matching fights, created lazily as the stream is consumed
+     */
+    public Stream<FightView> fights() {
+        FightHistory history = index.getHistory();
+        return resolve().stream().mapToObj(history::fight);
+    }
+
+    /**
+     * @return the events with at least one matching fight
+     */
+    public Stream<EventView> events() {
+        return fights().map(FightView::getEvent).distinct();
+    }
+
+    /**
+     * @return the number of matching fights, without creating any views
+     */
+    public int count() {
+        return resolve().cardinality();
+    }
+
+    private BitSet resolve() {
+        BitSet result = (BitSet) matches.clone();
+        if (!from.equals(LocalDate.MIN) || !to.equals(LocalDate.MAX)) {
+            result.and(index.dateRange(from, to));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package me.schf.ufc.scraper.rating;
+
+/**
+ * One fighter's rating as of the last event a {@link RatingEngine} applied.
+ */
+public class FighterRating {
+
+    private final String name;
+    private final String profileUrl;
+    private final double rating;
+    private final int fights;
+
+    FighterRating(String name, String profileUrl, double rating, int fights) {
+        this.name = name;
+        this.profileUrl = profileUrl;
+        this.rating = rating;
+        this.fights = fights;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the fighter's profile URL, or {@code null} if the fighter was listed without one
+     */
+    public String getProfileUrl() {
+        return profileUrl;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    /**
+     * @return the number of fights that went into the rating
+     */
+    public int getFights() {
+        return fights;
+    }
+
+    @Override
+    public String toString() {
+        return "FighterRating [name=" + name + ", profileUrl=" + profileUrl + ", rating=" + rating + ", fights=" + fights + "]";
+    }
+}
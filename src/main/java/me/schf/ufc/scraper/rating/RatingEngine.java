@@ -0,0 +1,324 @@
+package me.schf.ufc.scraper.rating;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.data.Method;
+import me.schf.ufc.scraper.data.Round;
+import me.schf.ufc.scraper.util.StringDictionary;
+
+/**
+ * Elo ratings of every fighter, updated event by event in date order.
+ * <p>
+ * Fighters get dense ids from a {@link StringDictionary} and their ratings and fight counts live
+ * in primitive arrays indexed by id. Fighters are told apart by profile URL, falling back to the
+ * name for fighters listed without one. For each fight the winner gains, and the loser loses,
+ * {@code k * weight * (1 - expected)}, where {@code expected} is the winner's Elo win probability
+ * and {@code weight} is the product of the configured {@link Method}, {@link Round} and title
+ * fight weights, so e.g. an early finish in a title fight moves ratings more than a split
+ * decision. Draws, fights with a method but no winner, pull both ratings towards each other; no
+ * contests, overturned results and fights without a known outcome change nothing.
+ * </p>
+ * <p>
+ * Events must arrive in non-decreasing date order, which is the reverse of the site's listing;
+ * {@link #applyAll(Collection)} sorts a batch first. An engine therefore cannot be fed directly
+ * from {@code Scraper.Builder#eventListener}, which sees the newest events first; collect them and
+ * apply them as a batch. {@link #snapshot()} captures the state so a later run can
+ * {@link #restore(RatingSnapshot) restore} it and apply only the new events instead of replaying
+ * the whole history. Events are told apart by name on the day of the last event applied, so one
+ * seen again there, e.g. because the next run's date range overlaps, is not applied twice.
+ * Not thread-safe.
+ * </p>
+ *
+ * <pre>{@code
+ * RatingEngine engine = new RatingEngine.Builder().build();
+ * engine.applyAll(scraper.doScrape());
+ * engine.snapshot().write(Path.of("ratings.bin"));
+ * }</pre>
+ */
+public class RatingEngine implements Consumer<Event> {
+
+    private static final Method[] METHODS = Method.values();
+    private static final Round[] ROUNDS = Round.values();
+
+    private final double initialRating;
+    private final double kFactor;
+    private final double[] methodWeights;
+    private final double[] roundWeights;
+    private final double titleFightWeight;
+
+    // profile URLs, or names for fighters listed without one
+    private StringDictionary fighters = new StringDictionary();
+    private String[] names = new String[256];
+    private double[] ratings = new double[256];
+    private int[] fightCounts = new int[256];
+    private LocalDate lastEventDate;
+    // names of the events applied on lastEventDate
+    private Set<String> eventsOnLastDate = new HashSet<>();
+
+    private RatingEngine(Builder builder) {
+        this.initialRating = builder.initialRating;
+        this.kFactor = builder.kFactor;
+        this.methodWeights = builder.methodWeights.clone();
+        this.roundWeights = builder.roundWeights.clone();
+        this.titleFightWeight = builder.titleFightWeight;
+    }
+
+    public static class Builder {
+        private double initialRating = 1500;
+        private double kFactor = 32;
+        private final double[] methodWeights = new double[METHODS.length];
+        private final double[] roundWeights = new double[ROUNDS.length];
+        private double titleFightWeight = 1.25;
+
+        public Builder() {
+            Arrays.fill(methodWeights, 1.0);
+            methodWeights[Method.KO_TKO.ordinal()] = 1.2;
+            methodWeights[Method.SUBMISSION.ordinal()] = 1.2;
+            methodWeights[Method.SPLIT_DECISION.ordinal()] = 0.75;
+            methodWeights[Method.MAJORITY_DECISION.ordinal()] = 0.9;
+            methodWeights[Method.DISQUALIFICATION.ordinal()] = 0.5;
+            Arrays.fill(roundWeights, 1.0);
+            roundWeights[Round.ONE.ordinal()] = 1.1;
+            roundWeights[Round.TWO.ordinal()] = 1.05;
+        }
+
+        /**
+         * Sets the rating of a fighter's first appearance. Defaults to 1500.
+         */
+        public Builder initialRating(double initialRating) {
+            this.initialRating = initialRating;
+            return this;
+        }
+
+        /**
+         * Sets the largest change a single fight of weight 1 can make. Defaults to 32.
+         */
+        public Builder kFactor(double kFactor) {
+            if (kFactor <= 0) {
+                throw new IllegalArgumentException("kFactor must be positive: " + kFactor);
+            }
+            this.kFactor = kFactor;
+            return this;
+        }
+
+        /**
+         * Scales updates for fights ending by {@code method}. Finishes default to 1.2, split
+         * decisions to 0.75, majority decisions to 0.9, disqualifications to 0.5 and the rest
+         * to 1.
+         */
+        public Builder methodWeight(Method method, double weight) {
+            methodWeights[method.ordinal()] = checkWeight(weight);
+            return this;
+        }
+
+        /**
+         * Scales updates for fights ending in {@code round}. Defaults to 1.1 for the first round,
+         * 1.05 for the second and 1 otherwise.
+         */
+        public Builder roundWeight(Round round, double weight) {
+            roundWeights[round.ordinal()] = checkWeight(weight);
+            return this;
+        }
+
+        /**
+         * Scales updates for title fights. Defaults to 1.25.
+         */
+        public Builder titleFightWeight(double weight) {
+            this.titleFightWeight = checkWeight(weight);
+            return this;
+        }
+
+        public RatingEngine build() {
+            return new RatingEngine(this);
+        }
+
+        private static double checkWeight(double weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("weight must not be negative: " + weight);
+            }
+            return weight;
+        }
+    }
+
+    /**
+     * Applies the fights of {@code event}, unless an event of the same name has already been
+     * applied on the same date as the last one.
+     *
+     * @throws IllegalArgumentException if the event is older than the last one applied
+     */
+    @Override
+    public void accept(Event event) {
+        LocalDate date = event.getEventDate();
+        if (lastEventDate != null && date.isBefore(lastEventDate)) {
+            throw new IllegalArgumentException("Event " + event.getEventName() + " on " + date
+                    + " is older than the last one applied, on " + lastEventDate);
+        }
+        if (date.equals(lastEventDate)) {
+            if (!eventsOnLastDate.add(event.getEventName())) {
+                return;
+            }
+        } else {
+            lastEventDate = date;
+            eventsOnLastDate = new HashSet<>();
+            eventsOnLastDate.add(event.getEventName());
+        }
+        if (event.getFightResults() == null) {
+            return;
+        }
+        for (FightResult fight : event.getFightResults()) {
+            apply(fight);
+        }
+    }
+
+    /**
+     * Applies a batch of events in date order, keeping the listing order of events on the same
+     * day.
+     *
+     * @throws IllegalArgumentException if any event is older than the last one applied
+     */
+    public void applyAll(Collection<? extends Event> events) {
+        List<Event> byDate = new ArrayList<>(events);
+        byDate.sort(Comparator.comparing(Event::getEventDate));
+        byDate.forEach(this);
+    }
+
+    private void apply(FightResult fight) {
+        List<FighterStats> stats = fight.getFighterStatsList();
+        if (stats.size() != 2 || key(stats.get(0)) == null || key(stats.get(1)) == null) {
+            return;
+        }
+        Method method = fight.getMethod();
+        if (method == Method.NO_CONTEST || method == Method.OVERTURNED) {
+            return;
+        }
+        boolean firstWon = stats.get(0).isWinner();
+        boolean secondWon = stats.get(1).isWinner();
+        if (firstWon && secondWon || !firstWon && !secondWon && method == null) {
+            return;
+        }
+        int a = idOf(stats.get(0));
+        int b = idOf(stats.get(1));
+
+        double expectedA = 1 / (1 + Math.pow(10, (ratings[b] - ratings[a]) / 400));
+        double scoreA = firstWon ? 1 : secondWon ? 0 : 0.5;
+        double delta = kFactor * weight(fight) * (scoreA - expectedA);
+        ratings[a] += delta;
+        ratings[b] -= delta;
+        fightCounts[a]++;
+        fightCounts[b]++;
+    }
+
+    private double weight(FightResult fight) {
+        double weight = 1;
+        if (fight.getMethod() != null) {
+            weight *= methodWeights[fight.getMethod().ordinal()];
+        }
+        if (fight.getRound() != null) {
+            weight *= roundWeights[fight.getRound().ordinal()];
+        }
+        return fight.isTitleFight() ? weight * titleFightWeight : weight;
+    }
+
+    /**
+     * @param fighter the fighter's profile URL, or the name if the fighter was listed without one
+     * @return the fighter's rating, or empty if the fighter has not been rated yet
+     */
+    public Optional<FighterRating> getRating(String fighter) {
+        int id = fighters.find(fighter);
+        return id < 0 ? Optional.empty() : Optional.of(rating(id));
+    }
+
+    /**
+     * @return the {@code limit} highest-rated fighters with at least {@code minFights} rated
+     *         fights, best first
+     */
+    public List<FighterRating> top(int limit, int minFights) {
+        List<FighterRating> rated = new ArrayList<>();
+        for (int id = 0; id < fighters.size(); id++) {
+            if (fightCounts[id] >= minFights) {
+                rated.add(rating(id));
+            }
+        }
+        rated.sort(Comparator.comparingDouble(FighterRating::getRating).reversed());
+        return rated.subList(0, Math.min(limit, rated.size()));
+    }
+
+    public int fighterCount() {
+        return fighters.size();
+    }
+
+    /**
+     * @return the date of the last event applied, or empty if none has been
+     */
+    public Optional<LocalDate> getLastEventDate() {
+        return Optional.ofNullable(lastEventDate);
+    }
+
+    /**
+     * Captures the current ratings. Later updates do not affect the snapshot.
+     */
+    public RatingSnapshot snapshot() {
+        int size = fighters.size();
+        return new RatingSnapshot(fighters.values().toArray(String[]::new), Arrays.copyOf(names, size),
+                Arrays.copyOf(ratings, size), Arrays.copyOf(fightCounts, size), lastEventDate,
+                eventsOnLastDate.toArray(String[]::new));
+    }
+
+    /**
+     * Replaces the current state with {@code snapshot}, e.g. one read back with
+     * {@link RatingSnapshot#read(java.nio.file.Path)}. The weights of this engine are kept.
+     */
+    public void restore(RatingSnapshot snapshot) {
+        fighters = new StringDictionary();
+        int size = snapshot.size();
+        names = new String[Math.max(256, size)];
+        ratings = new double[names.length];
+        fightCounts = new int[names.length];
+        for (int id = 0; id < size; id++) {
+            fighters.idOf(snapshot.key(id));
+            names[id] = snapshot.name(id);
+            ratings[id] = snapshot.rating(id);
+            fightCounts[id] = snapshot.fights(id);
+        }
+        lastEventDate = snapshot.getLastEventDate().orElse(null);
+        eventsOnLastDate = new HashSet<>(Arrays.asList(snapshot.eventsOnLastDate()));
+    }
+
+    private FighterRating rating(int id) {
+        String key = fighters.get(id);
+        return new FighterRating(names[id], key.equals(names[id]) ? null : key, ratings[id], fightCounts[id]);
+    }
+
+    private static String key(FighterStats stats) {
+        return stats.getProfileUrl() != null ? stats.getProfileUrl() : stats.getName();
+    }
+
+    private int idOf(FighterStats stats) {
+        int known = fighters.size();
+        int id = fighters.idOf(key(stats));
+        if (id == known) {
+            if (id == ratings.length) {
+                names = Arrays.copyOf(names, id * 2);
+                ratings = Arrays.copyOf(ratings, id * 2);
+                fightCounts = Arrays.copyOf(fightCounts, id * 2);
+            }
+            ratings[id] = initialRating;
+        }
+        if (stats.getName() != null) {
+            names[id] = stats.getName();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,156 @@
+package me.schf.ufc.scraper.rating;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * The state of a {@link RatingEngine} at one point in time: every fighter's rating and fight
+ * count plus the date and names of the last events applied.
+ * <p>
+ * Snapshots are immutable and can be saved with {@link #write(Path)} and loaded with
+ * {@link #read(Path)}, so each scheduled run restores the previous ratings and applies only the
+ * events scraped since. The file holds a magic number and version, the last event date and the
+ * names of the events applied on it, then per fighter its key (profile URL, or name), name,
+ * rating and fight count. Files of any other version are rejected.
+ * </p>
+ */
+public class RatingSnapshot {
+
+    private static final int MAGIC = 0x55464352; // "UFCR"
+    private static final int VERSION = 2;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final String[] keys;
+    private final String[] names;
+    private final double[] ratings;
+    private final int[] fights;
+    private final LocalDate lastEventDate;
+    private final String[] eventsOnLastDate;
+
+    RatingSnapshot(String[] keys, String[] names, double[] ratings, int[] fights, LocalDate lastEventDate,
+            String[] eventsOnLastDate) {
+        this.keys = keys;
+        this.names = names;
+        this.ratings = ratings;
+        this.fights = fights;
+        this.lastEventDate = lastEventDate;
+        this.eventsOnLastDate = eventsOnLastDate;
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(Path)}.
+     *
+     * @throws IOException if the file cannot be read or is not a rating snapshot
+     */
+    public static RatingSnapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a rating snapshot: " + file);
+            }
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported rating snapshot version " + version + ": " + file);
+            }
+            long epochDay = in.readLong();
+            String[] events = new String[in.readInt()];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = readOptionalUTF(in);
+            }
+            int size = in.readInt();
+            String[] keys = new String[size];
+            String[] names = new String[size];
+            double[] ratings = new double[size];
+            int[] fights = new int[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = in.readUTF();
+                names[i] = readOptionalUTF(in);
+                ratings[i] = in.readDouble();
+                fights[i] = in.readInt();
+            }
+            return new RatingSnapshot(keys, names, ratings, fights,
+                    epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay), events);
+        }
+    }
+
+    /**
+     * Writes this snapshot to {@code file}, replacing it atomically.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(lastEventDate == null ? NO_DATE : lastEventDate.toEpochDay());
+                out.writeInt(eventsOnLastDate.length);
+                for (String event : eventsOnLastDate) {
+                    writeOptionalUTF(out, event);
+                }
+                out.writeInt(keys.length);
+                for (int i = 0; i < keys.length; i++) {
+                    out.writeUTF(keys[i]);
+                    writeOptionalUTF(out, names[i]);
+                    out.writeDouble(ratings[i]);
+                    out.writeInt(fights[i]);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String readOptionalUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeOptionalUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * @return the number of fighters in the snapshot
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    public Optional<LocalDate> getLastEventDate() {
+        return Optional.ofNullable(lastEventDate);
+    }
+
+    String key(int id) {
+        return keys[id];
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    double rating(int id) {
+        return ratings[id];
+    }
+
+    int fights(int id) {
+        return fights[id];
+    }
+
+    String[] eventsOnLastDate() {
+        return eventsOnLastDate;
+    }
+}
@@ -0,0 +1,59 @@
+package me.schf.ufc.scraper.shard;
+
+import java.time.LocalDate;
+
+/**
+ * A slice of the event history scraped as one unit of work: every event dated between
+ * {@link #getStartDate()} and {@link #getEndDate()}, both inclusive.
+ */
+public final class Shard {
+
+    private final int id;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public Shard(int id, LocalDate startDate, LocalDate endDate) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id must not be negative: " + id);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate " + endDate + " is before startDate " + startDate);
+        }
+        this.id = id;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    /**
+     * @return the shard's position in the plan; shard 0 holds the newest events
+     */
+    public int getId() {
+        return id;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Shard other
+                && id == other.id
+                && startDate.equals(other.startDate)
+                && endDate.equals(other.endDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return (id * 31 + startDate.hashCode()) * 31 + endDate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Shard " + id + " [" + startDate + ", " + endDate + "]";
+    }
+}
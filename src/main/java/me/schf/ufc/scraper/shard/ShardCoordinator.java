@@ -0,0 +1,133 @@
+package me.schf.ufc.scraper.shard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import me.schf.ufc.scraper.Scraper;
+
+/**
+ * Splits a scrape into {@link Shard}s for several {@link ShardWorker} processes and merges their
+ * results.
+ * <p>
+ * Splitting by the event dates from the listing gives shards with about the same number of
+ * events, whereas splitting the calendar range evenly needs no listing but gives the older
+ * shards, from years with fewer cards, less to do. Either way the shards cover the whole range
+ * without overlap, newest first.
+ * </p>
+ *
+ * <pre>{@code
+ * ShardCoordinator plan  <queueDir> <startDate> <endDate> <eventsPerShard>
+ * ShardCoordinator merge <queueDir> <output.ndjson>
+ * }</pre>
+ */
+public final class ShardCoordinator {
+
+    private ShardCoordinator() {
+    }
+
+    /**
+     * Splits the events in the scraper's date range into shards of about {@code eventsPerShard}
+     * events and creates a queue for them.
+     *
+     * @param dir            the queue directory, which must not hold a plan yet
+     * @param scraper        reads the event listing; its date range should match the one given
+     * @param startDate      the start of the range, inclusive
+     * @param endDate        the end of the range, inclusive
+     * @param eventsPerShard the target number of events per shard
+     * @return the new queue
+     * @throws IOException if the listing cannot be fetched or the queue cannot be created
+     */
+    public static ShardQueue plan(Path dir, Scraper scraper, LocalDate startDate, LocalDate endDate,
+            int eventsPerShard) throws IOException {
+        return ShardQueue.create(dir, splitByEvents(scraper.listEventDates(), startDate, endDate, eventsPerShard));
+    }
+
+    /**
+     * Splits {@code [startDate, endDate]} into consecutive shards holding about
+     * {@code eventsPerShard} of the given events each. Events on the same day always share a
+     * shard. Days without events are added to the neighbouring shard, so cards added to the
+     * listing after planning are still covered.
+     *
+     * @param eventDates the event dates, in any order; dates outside the range are ignored
+     * @return the shards, newest first
+     */
+    public static List<Shard> splitByEvents(List<LocalDate> eventDates, LocalDate startDate, LocalDate endDate,
+            int eventsPerShard) {
+        if (eventsPerShard < 1) {
+            throw new IllegalArgumentException("eventsPerShard must be at least 1: " + eventsPerShard);
+        }
+        List<LocalDate> dates = eventDates.stream()
+                .filter(date -> !date.isBefore(startDate) && !date.isAfter(endDate))
+                .sorted(Comparator.reverseOrder())
+                .toList();
+
+        // the oldest date of each shard but the last, newest shard first
+        List<LocalDate> boundaries = new ArrayList<>();
+        int inShard = 0;
+        for (int i = 0; i < dates.size(); i++) {
+            inShard++;
+            boolean lastOfDay = i + 1 == dates.size() || !dates.get(i + 1).equals(dates.get(i));
+            if (inShard >= eventsPerShard && lastOfDay && i + 1 < dates.size()) {
+                boundaries.add(dates.get(i));
+                inShard = 0;
+            }
+        }
+
+        List<Shard> shards = new ArrayList<>(boundaries.size() + 1);
+        LocalDate end = endDate;
+        for (LocalDate boundary : boundaries) {
+            shards.add(new Shard(shards.size(), boundary, end));
+            end = boundary.minusDays(1);
+        }
+        shards.add(new Shard(shards.size(), startDate, end));
+        return shards;
+    }
+
+    /**
+     * Splits {@code [startDate, endDate]} into {@code count} consecutive shards of about the same
+     * number of days.
+     *
+     * @return the shards, newest first
+     */
+    public static List<Shard> splitByDays(LocalDate startDate, LocalDate endDate, int count) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (count < 1 || days < 1) {
+            throw new IllegalArgumentException("cannot split " + startDate + ".." + endDate + " into " + count);
+        }
+        int shardCount = (int) Math.min(count, days);
+        List<Shard> shards = new ArrayList<>(shardCount);
+        LocalDate end = endDate;
+        for (int i = 0; i < shardCount; i++) {
+            long remaining = ChronoUnit.DAYS.between(startDate, end) + 1;
+            long length = remaining / (shardCount - i);
+            LocalDate start = end.minusDays(length - 1);
+            shards.add(new Shard(i, start, end));
+            end = start.minusDays(1);
+        }
+        return shards;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 5 && args[0].equals("plan")) {
+            LocalDate startDate = LocalDate.parse(args[2]);
+            LocalDate endDate = LocalDate.parse(args[3]);
+            Scraper scraper = new Scraper.Builder()
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .build();
+            ShardQueue queue = plan(Path.of(args[1]), scraper, startDate, endDate, Integer.parseInt(args[4]));
+            System.out.println("Planned " + queue.getShards().size() + " shards");
+        } else if (args.length == 3 && args[0].equals("merge")) {
+            ShardQueue.open(Path.of(args[1])).mergeTo(Path.of(args[2]));
+        } else {
+            System.err.println("usage: ShardCoordinator plan <queueDir> <startDate> <endDate> <eventsPerShard>");
+            System.err.println("       ShardCoordinator merge <queueDir> <output.ndjson>");
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package me.schf.ufc.scraper.shard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.sink.NdjsonEventSink;
+
+/**
+ * A worker's claim on a {@link Shard}, obtained from {@link ShardQueue#claim(String)}. It must be
+ * renewed with {@link #heartbeat()} more often than the queue's lease timeout.
+ */
+public class ShardLease {
+
+    private final ShardQueue queue;
+    private final Shard shard;
+    private final int attempt;
+    private final Path file;
+
+    ShardLease(ShardQueue queue, Shard shard, int attempt) {
+        this.queue = queue;
+        this.shard = shard;
+        this.attempt = attempt;
+        this.file = queue.leaseFile(shard, attempt);
+    }
+
+    public Shard getShard() {
+        return shard;
+    }
+
+    /**
+     * @return which claim of the shard this is, starting at 1
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * @return {@code false} once another worker has claimed the shard after this lease expired
+     */
+    public boolean isHeld() throws IOException {
+        return Files.exists(file) && queue.latestAttempt(shard) == attempt;
+    }
+
+    /**
+     * Renews the lease.
+     *
+     * @return {@code false} if the lease has been lost and the shard should be abandoned
+     * @throws IOException if the lease file cannot be touched
+     */
+    public boolean heartbeat() throws IOException {
+        if (!isHeld()) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(queue.getClock().instant()));
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stores the shard's events, which ends the lease. The lease file stays behind so the shard's
+     * attempt count is kept; with the output in place no worker claims the shard again.
+     *
+     * @param events the events scraped for the shard, newest first
+     * @return {@code false} if the lease had been lost, in which case nothing is stored
+     * @throws IOException if the output cannot be written
+     */
+    public boolean complete(List<Event> events) throws IOException {
+        if (!isHeld()) {
+            return false;
+        }
+        Path output = queue.outputFile(shard);
+        Path temp = Files.createTempFile(output.getParent(), output.getFileName().toString(), ".tmp");
+        try {
+            try (NdjsonEventSink sink = new NdjsonEventSink(temp)) {
+                for (Event event : events) {
+                    sink.write(event);
+                }
+            }
+            Files.move(temp, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * Gives up the lease after a failed attempt, leaving the shard to be claimed again right
+     * away unless it has used up its attempts.
+     *
+     * @throws IOException if the lease file cannot be updated
+     */
+    public void release() throws IOException {
+        if (isHeld()) {
+            try {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.EPOCH));
+            } catch (NoSuchFileException e) {
+                // lost in the meantime
+            }
+        }
+    }
+}
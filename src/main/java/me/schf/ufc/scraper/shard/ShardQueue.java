@@ -0,0 +1,315 @@
+package me.schf.ufc.scraper.shard;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A work queue of {@link Shard}s kept in a directory shared by all workers, e.g. on a network
+ * filesystem. No process coordinates the workers; they only rely on atomic file creation.
+ * <p>
+ * A worker claims a shard by creating its next lease file, {@code leases/<shard>.<attempt>},
+ * which only one worker can do for a given attempt. The lease is held as long as its holder keeps
+ * touching the file: one that has not been touched for the lease timeout has expired, and any
+ * worker may then claim the shard with the following attempt. A holder that finds a later
+ * attempt has lost the lease. After {@code maxAttempts} expired or failed attempts the shard is
+ * given up. The latest lease file of a shard is never deleted, not even once the shard is done,
+ * since its name is the only record of how many attempts have been made.
+ * </p>
+ * <p>
+ * A completed shard's events are written to {@code done/<shard>.ndjson} by
+ * {@link me.schf.ufc.scraper.sink.NdjsonEventSink}, which keeps per-round stats and fighter
+ * profiles, replacing the file atomically, so a shard finished twice by a slow worker and its
+ * successor simply ends up with the same result. {@link #mergeTo(Path)} concatenates the outputs
+ * in plan order, newest events first.
+ * </p>
+ * <p>
+ * Lease expiry compares file modification times with the local clock, so the clocks of the
+ * worker hosts should agree to well within the lease timeout.
+ * </p>
+ */
+public class ShardQueue {
+
+    public static final Duration DEFAULT_LEASE_TIMEOUT = Duration.ofMinutes(2);
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final String PLAN_FILE = "plan";
+    private static final String LEASE_DIR = "leases";
+    private static final String DONE_DIR = "done";
+    private static final String OUTPUT_SUFFIX = ".ndjson";
+    private static final String LEASE_TIMEOUT_KEY = "leaseTimeout=";
+    private static final String MAX_ATTEMPTS_KEY = "maxAttempts=";
+    private static final String SHARD_KEY = "shard=";
+
+    private final Path dir;
+    private final List<Shard> shards;
+    private final Duration leaseTimeout;
+    private final int maxAttempts;
+    private final Clock clock;
+
+    private ShardQueue(Path dir, List<Shard> shards, Duration leaseTimeout, int maxAttempts, Clock clock) {
+        this.dir = dir;
+        this.shards = List.copyOf(shards);
+        this.leaseTimeout = leaseTimeout;
+        this.maxAttempts = maxAttempts;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a queue with the default lease timeout and attempts.
+     *
+     * @see #create(Path, List, Duration, int)
+     */
+    public static ShardQueue create(Path dir, List<Shard> shards) throws IOException {
+        return create(dir, shards, DEFAULT_LEASE_TIMEOUT, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Writes a new plan to {@code dir}. Workers then {@link #open(Path)} the same directory.
+     *
+     * @param dir          the queue directory
+     * @param shards       the shards, ordered newest first and numbered from 0 in that order
+     * @param leaseTimeout how long a lease stays valid without a heartbeat
+     * @param maxAttempts  how many times a shard is claimed before it is given up
+     * @return the new queue
+     * @throws FileAlreadyExistsException if the directory already holds a plan
+     * @throws IOException                if the plan cannot be written
+     */
+    public static ShardQueue create(Path dir, List<Shard> shards, Duration leaseTimeout, int maxAttempts)
+            throws IOException {
+        if (leaseTimeout.isZero() || leaseTimeout.isNegative()) {
+            throw new IllegalArgumentException("leaseTimeout must be positive: " + leaseTimeout);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            if (shards.get(i).getId() != i) {
+                throw new IllegalArgumentException("shard " + i + " has id " + shards.get(i).getId());
+            }
+        }
+
+        Path plan = dir.resolve(PLAN_FILE);
+        if (Files.exists(plan)) {
+            throw new FileAlreadyExistsException(plan.toString(), null, "a shard plan already exists");
+        }
+        Files.createDirectories(dir.resolve(LEASE_DIR));
+        Files.createDirectories(dir.resolve(DONE_DIR));
+        Path temp = Files.createTempFile(dir, PLAN_FILE, ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(LEASE_TIMEOUT_KEY + leaseTimeout);
+                writer.newLine();
+                writer.write(MAX_ATTEMPTS_KEY + maxAttempts);
+                writer.newLine();
+                for (Shard shard : shards) {
+                    writer.write(SHARD_KEY + shard.getId() + " " + shard.getStartDate() + " " + shard.getEndDate());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, plan, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new ShardQueue(dir, shards, leaseTimeout, maxAttempts, Clock.systemUTC());
+    }
+
+    /**
+     * Opens the queue whose plan was written to {@code dir} by {@link #create}.
+     *
+     * @param dir the queue directory
+     * @return the queue
+     * @throws IOException if there is no plan or it cannot be read
+     */
+    public static ShardQueue open(Path dir) throws IOException {
+        return open(dir, Clock.systemUTC());
+    }
+
+    static ShardQueue open(Path dir, Clock clock) throws IOException {
+        Duration leaseTimeout = DEFAULT_LEASE_TIMEOUT;
+        int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        List<Shard> shards = new ArrayList<>();
+        for (String line : Files.readAllLines(dir.resolve(PLAN_FILE), StandardCharsets.UTF_8)) {
+            if (line.startsWith(LEASE_TIMEOUT_KEY)) {
+                leaseTimeout = Duration.parse(line.substring(LEASE_TIMEOUT_KEY.length()).trim());
+            } else if (line.startsWith(MAX_ATTEMPTS_KEY)) {
+                maxAttempts = Integer.parseInt(line.substring(MAX_ATTEMPTS_KEY.length()).trim());
+            } else if (line.startsWith(SHARD_KEY)) {
+                String[] parts = line.substring(SHARD_KEY.length()).trim().split(" ");
+                shards.add(new Shard(Integer.parseInt(parts[0]), LocalDate.parse(parts[1]), LocalDate.parse(parts[2])));
+            }
+        }
+        return new ShardQueue(dir, shards, leaseTimeout, maxAttempts, clock);
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public Duration getLeaseTimeout() {
+        return leaseTimeout;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Claims the first shard, in plan order, that is neither done, nor leased, nor given up.
+     *
+     * @param workerId recorded in the lease file, for diagnostics only
+     * @return the lease, or empty if no shard can be claimed right now
+     * @throws IOException if the queue directory cannot be read or written
+     */
+    public Optional<ShardLease> claim(String workerId) throws IOException {
+        for (Shard shard : shards) {
+            if (isDone(shard)) {
+                continue;
+            }
+            int attempt = latestAttempt(shard);
+            if (attempt > 0 && (attempt >= maxAttempts || !isExpired(leaseFile(shard, attempt)))) {
+                continue;
+            }
+            Path lease = leaseFile(shard, attempt + 1);
+            try {
+                Files.createFile(lease);
+            } catch (FileAlreadyExistsException e) {
+                // another worker claimed it first
+                continue;
+            }
+            if (isDone(shard)) {
+                // completed since we looked; leave the lease on record, but expired
+                Files.setLastModifiedTime(lease, FileTime.from(Instant.EPOCH));
+                continue;
+            }
+            Files.writeString(lease, workerId + System.lineSeparator(), StandardCharsets.UTF_8);
+            // stamped like a heartbeat, so expiry is measured on one clock
+            Files.setLastModifiedTime(lease, FileTime.from(clock.instant()));
+            if (attempt > 0) {
+                Files.deleteIfExists(leaseFile(shard, attempt));
+            }
+            return Optional.of(new ShardLease(this, shard, attempt + 1));
+        }
+        return Optional.empty();
+    }
+
+    public boolean isDone(Shard shard) {
+        return Files.exists(outputFile(shard));
+    }
+
+    /**
+     * @return {@code true} if the shard is not done and has used up its attempts
+     */
+    public boolean isFailed(Shard shard) throws IOException {
+        if (isDone(shard)) {
+            return false;
+        }
+        int attempt = latestAttempt(shard);
+        return attempt >= maxAttempts && isExpired(leaseFile(shard, attempt));
+    }
+
+    /**
+     * @return {@code true} once every shard is either done or failed, i.e. there is nothing left
+     *         for a worker to wait for
+     */
+    public boolean isFinished() throws IOException {
+        for (Shard shard : shards) {
+            if (!isDone(shard) && !isFailed(shard)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<Shard> getFailedShards() throws IOException {
+        List<Shard> failed = new ArrayList<>();
+        for (Shard shard : shards) {
+            if (isFailed(shard)) {
+                failed.add(shard);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Writes the events of every shard to {@code output} as newline-delimited JSON, in plan
+     * order, replacing the file atomically. The shard outputs are copied as they are, so the
+     * merged file holds everything the workers scraped.
+     *
+     * @param output the file to write
+     * @throws IllegalStateException if a shard is not done yet
+     * @throws IOException           if a shard output cannot be read or the file cannot be written
+     */
+    public void mergeTo(Path output) throws IOException {
+        List<Shard> missing = shards.stream().filter(shard -> !isDone(shard)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Shards not done: " + missing);
+        }
+        Path dir = output.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, output.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                for (Shard shard : shards) {
+                    Files.copy(outputFile(shard), out);
+                }
+            }
+            Files.move(temp, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    int latestAttempt(Shard shard) throws IOException {
+        String prefix = shard.getId() + ".";
+        int latest = 0;
+        try (DirectoryStream<Path> leases = Files.newDirectoryStream(dir.resolve(LEASE_DIR), prefix + "*")) {
+            for (Path lease : leases) {
+                String attempt = lease.getFileName().toString().substring(prefix.length());
+                try {
+                    latest = Math.max(latest, Integer.parseInt(attempt));
+                } catch (NumberFormatException e) {
+                    // not a lease file
+                }
+            }
+        }
+        return latest;
+    }
+
+    boolean isExpired(Path lease) throws IOException {
+        try {
+            Instant touched = Files.getLastModifiedTime(lease).toInstant();
+            return !touched.plus(leaseTimeout).isAfter(clock.instant());
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+
+    Path leaseFile(Shard shard, int attempt) {
+        return dir.resolve(LEASE_DIR).resolve(shard.getId() + "." + attempt);
+    }
+
+    Path outputFile(Shard shard) {
+        return dir.resolve(DONE_DIR).resolve(shard.getId() + OUTPUT_SUFFIX);
+    }
+
+    Clock getClock() {
+        return clock;
+    }
+}
@@ -0,0 +1,219 @@
+package me.schf.ufc.scraper.shard;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.schf.ufc.scraper.Scraper;
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.fetch.DiskResponseCache;
+
+/**
+ * Takes shards from a {@link ShardQueue} and scrapes them until every shard is done or has
+ * failed. Any number of workers, in one process or many, can work on the same queue.
+ * <p>
+ * While a shard is being scraped a virtual thread renews its lease three times per lease
+ * timeout. If the lease is lost anyway, e.g. after a long pause, the scrape is interrupted and
+ * its result discarded. A shard in which any event fails to scrape is released, to be retried
+ * by whichever worker claims it next.
+ * </p>
+ *
+ * <pre>{@code
+ * ShardWorker <queueDir> [--id <workerId>] [--rate <requestsPerSecond>] [--concurrency <n>]
+ *             [--cache <responseCacheDir>] [--fight-details] [--fighter-profiles]
+ * }</pre>
+ */
+public class ShardWorker {
+
+    private static final Logger LOGGER = Logger.getLogger(ShardWorker.class.getName());
+
+    private final ShardQueue queue;
+    private final String workerId;
+    private final Supplier<Scraper.Builder> scraperFactory;
+    private final Duration pollInterval;
+
+    private ShardWorker(Builder builder) {
+        this.queue = builder.queue;
+        this.workerId = builder.workerId;
+        this.scraperFactory = builder.scraperFactory;
+        this.pollInterval = builder.pollInterval;
+    }
+
+    public static class Builder {
+        private ShardQueue queue;
+        private String workerId = ManagementFactory.getRuntimeMXBean().getName();
+        private Supplier<Scraper.Builder> scraperFactory = Scraper.Builder::new;
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        public Builder queue(ShardQueue queue) {
+            this.queue = queue;
+            return this;
+        }
+
+        /**
+         * Identifies this worker in lease files. Defaults to {@code pid@host}.
+         */
+        public Builder workerId(String workerId) {
+            this.workerId = workerId;
+            return this;
+        }
+
+        /**
+         * Supplies a configured scraper builder for each shard; the worker sets its date range.
+         */
+        public Builder scraper(Supplier<Scraper.Builder> scraperFactory) {
+            this.scraperFactory = scraperFactory;
+            return this;
+        }
+
+        /**
+         * Sets how long to wait before looking again when every remaining shard is leased by
+         * another worker.
+         */
+        public Builder pollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        public ShardWorker build() {
+            if (queue == null) {
+                throw new IllegalStateException("queue is required");
+            }
+            return new ShardWorker(this);
+        }
+    }
+
+    /**
+     * Scrapes shards until there is nothing left to claim or wait for.
+     *
+     * @return the number of shards this worker completed
+     * @throws IOException          if the queue directory cannot be read or written
+     * @throws InterruptedException if interrupted while scraping or waiting
+     */
+    public int run() throws IOException, InterruptedException {
+        int completed = 0;
+        while (true) {
+            Optional<ShardLease> lease = queue.claim(workerId);
+            if (lease.isPresent()) {
+                if (work(lease.get())) {
+                    completed++;
+                }
+            } else if (queue.isFinished()) {
+                return completed;
+            } else {
+                Thread.sleep(pollInterval.toMillis());
+            }
+        }
+    }
+
+    private boolean work(ShardLease lease) throws IOException, InterruptedException {
+        Shard shard = lease.getShard();
+        LOGGER.info(() -> workerId + " scraping " + shard + ", attempt " + lease.getAttempt());
+        AtomicBoolean lost = new AtomicBoolean();
+        Thread heartbeat = startHeartbeat(lease, Thread.currentThread(), lost);
+        List<Event> output = new ArrayList<>();
+        long failed;
+        try {
+            Scraper scraper = scraperFactory.get()
+                    .startDate(shard.getStartDate())
+                    .endDate(shard.getEndDate())
+                    .build();
+            scraper.scrapeTo(output::add);
+            failed = scraper.getMetrics().eventsFailed().get();
+        } catch (IOException | RuntimeException e) {
+            failed = -1;
+            if (!lost.get()) {
+                LOGGER.log(Level.SEVERE, workerId + " failed to scrape " + shard, e);
+            }
+        } finally {
+            heartbeat.interrupt();
+            heartbeat.join();
+        }
+
+        if (lost.get()) {
+            // the interrupt was ours, not a request to stop
+            Thread.interrupted();
+            LOGGER.warning(() -> workerId + " lost the lease on " + shard);
+            return false;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            lease.release();
+            throw new InterruptedException("Interrupted while scraping " + shard);
+        }
+        if (failed != 0) {
+            if (failed > 0) {
+                LOGGER.severe(workerId + " failed to scrape " + failed + " events of " + shard);
+            }
+            lease.release();
+            return false;
+        }
+        if (!lease.complete(output)) {
+            LOGGER.warning(() -> workerId + " lost the lease on " + shard);
+            return false;
+        }
+        LOGGER.info(() -> workerId + " completed " + shard);
+        return true;
+    }
+
+    private Thread startHeartbeat(ShardLease lease, Thread worker, AtomicBoolean lost) {
+        long intervalMillis = Math.max(1, queue.getLeaseTimeout().toMillis() / 3);
+        return Thread.ofVirtual().name("shard-heartbeat-" + lease.getShard().getId()).start(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    if (!lease.heartbeat()) {
+                        lost.set(true);
+                        worker.interrupt();
+                        return;
+                    }
+                } catch (IOException e) {
+                    // try again on the next beat; the lease only expires after several misses
+                    LOGGER.log(Level.WARNING, "Failed to renew the lease on " + lease.getShard(), e);
+                }
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: ShardWorker <queueDir> [--id <workerId>] [--rate <requestsPerSecond>]"
+                    + " [--concurrency <n>] [--cache <responseCacheDir>] [--fight-details] [--fighter-profiles]");
+            System.exit(2);
+        }
+        ShardQueue queue = ShardQueue.open(Path.of(args[0]));
+        Builder worker = new Builder().queue(queue);
+        // the worker sets the date range before every build, so one builder serves all shards
+        Scraper.Builder scraper = new Scraper.Builder();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--id" -> worker.workerId(args[++i]);
+                case "--rate" -> scraper.requestsPerSecond(Double.parseDouble(args[++i]));
+                case "--concurrency" -> scraper.concurrency(Integer.parseInt(args[++i]));
+                case "--cache" -> scraper.responseCache(new DiskResponseCache(Path.of(args[++i])));
+                case "--fight-details" -> scraper.fightDetails(true);
+                case "--fighter-profiles" -> scraper.fighterProfiles(true);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        worker.scraper(() -> scraper);
+
+        int completed = worker.build().run();
+        System.out.println("Completed " + completed + " shards");
+        if (!queue.getFailedShards().isEmpty()) {
+            System.err.println("Failed shards: " + queue.getFailedShards());
+            System.exit(1);
+        }
+    }
+}
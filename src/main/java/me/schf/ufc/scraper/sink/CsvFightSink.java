@@ -0,0 +1,105 @@
+package me.schf.ufc.scraper.sink;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterStats;
+
+/**
+ * Writes one CSV row per fight, with the event and both fighters' stats flattened into columns.
+ * <p>
+ * Values are quoted per RFC 4180 where needed. Enums are written as their constant names and
+ * the final round end time in seconds.
+ * </p>
+ */
+public class CsvFightSink extends WriterEventSink {
+
+    private static final int FIGHTERS_PER_ROW = 2;
+    private static final List<String> FIGHTER_COLUMNS =
+            List.of("name", "profile_url", "knockdowns", "significant_strikes", "takedowns",
+                    "submission_attempts", "winner");
+
+    public CsvFightSink(Writer writer) {
+        this(writer, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    public CsvFightSink(Writer writer, Duration flushInterval) {
+        super(writer, flushInterval);
+    }
+
+    public CsvFightSink(Path file) throws IOException {
+        this(newWriter(file));
+    }
+
+    @Override
+    protected void writeHeader(Writer out) throws IOException {
+        StringBuilder header = new StringBuilder(
+                "event_name,event_date,weight_class,method,round,final_round_end_seconds,title_fight,fight_detail_link");
+        for (int i = 1; i <= FIGHTERS_PER_ROW; i++) {
+            for (String column : FIGHTER_COLUMNS) {
+                header.append(",fighter").append(i).append('_').append(column);
+            }
+        }
+        out.write(header.append("\r\n").toString());
+    }
+
+    @Override
+    protected void writeEvent(Event event, Writer out) throws IOException {
+        if (event.getFightResults() == null) {
+            return;
+        }
+        StringBuilder row = new StringBuilder(256);
+        for (FightResult fight : event.getFightResults()) {
+            row.setLength(0);
+            value(row, event.getEventName()).append(',');
+            value(row, event.getEventDate()).append(',');
+            value(row, fight.getWeightClass()).append(',');
+            value(row, fight.getMethod()).append(',');
+            value(row, fight.getRound()).append(',');
+            value(row, fight.getFinalRoundEndTime() != null ? fight.getFinalRoundEndTime().toSeconds() : null).append(',');
+            value(row, fight.isTitleFight()).append(',');
+            value(row, fight.getFightDetailLink());
+
+            List<FighterStats> fighters = fight.getFighterStatsList();
+            for (int i = 0; i < FIGHTERS_PER_ROW; i++) {
+                FighterStats stats = i < fighters.size() ? fighters.get(i) : null;
+                if (stats == null) {
+                    row.append(",".repeat(FIGHTER_COLUMNS.size()));
+                    continue;
+                }
+                row.append(',');
+                value(row, stats.getName()).append(',');
+                value(row, stats.getProfileUrl()).append(',');
+                count(row, stats.getKnockdowns()).append(',');
+                count(row, stats.getSignificantStrikes()).append(',');
+                count(row, stats.getTakedowns()).append(',');
+                count(row, stats.getSubmissionAttempts()).append(',');
+                value(row, stats.isWinner());
+            }
+            out.write(row.append("\r\n").toString());
+        }
+    }
+
+    /**
+     * Leaves the cell empty for a count the site did not record.
+     */
+    private static StringBuilder count(StringBuilder row, int count) {
+        return count == FighterStats.MISSING ? row : row.append(count);
+    }
+
+    private static StringBuilder value(StringBuilder row, Object value) {
+        if (value == null) {
+            return row;
+        }
+        String text = value instanceof Enum<?> e ? e.name() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return row.append(text);
+        }
+        return row.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
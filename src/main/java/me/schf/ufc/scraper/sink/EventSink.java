@@ -0,0 +1,24 @@
+package me.schf.ufc.scraper.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import me.schf.ufc.scraper.data.Event;
+
+/**
+ * Destination for events as they are scraped, see {@link me.schf.ufc.scraper.Scraper#scrapeTo(EventSink)}.
+ */
+public interface EventSink extends Closeable {
+
+    void write(Event event) throws IOException;
+
+    /**
+     * Pushes anything buffered to the underlying destination.
+     */
+    default void flush() throws IOException {
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
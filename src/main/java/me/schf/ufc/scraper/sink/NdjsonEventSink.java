@@ -0,0 +1,179 @@
+package me.schf.ufc.scraper.sink;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterProfile;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.data.RoundStats;
+
+/**
+ * Writes one JSON object per line per event (newline-delimited JSON).
+ * <p>
+ * Property names follow the getters of the data classes. Dates and durations are ISO-8601
+ * strings, enums their constant names. Per-round stats and profiles are only written when they
+ * were scraped.
+ * </p>
+ */
+public class NdjsonEventSink extends WriterEventSink {
+
+    public NdjsonEventSink(Writer writer) {
+        this(writer, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    public NdjsonEventSink(Writer writer, Duration flushInterval) {
+        super(writer, flushInterval);
+    }
+
+    public NdjsonEventSink(Path file) throws IOException {
+        this(newWriter(file));
+    }
+
+    @Override
+    protected void writeEvent(Event event, Writer out) throws IOException {
+        StringBuilder json = new StringBuilder(4096);
+        json.append('{');
+        field(json, "eventName", event.getEventName()).append(',');
+        field(json, "eventDate", event.getEventDate()).append(",\"fightResults\":[");
+        List<FightResult> fights = event.getFightResults() != null ? event.getFightResults() : List.of();
+        for (int i = 0; i < fights.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendFight(json, fights.get(i));
+        }
+        json.append("]}\n");
+        out.write(json.toString());
+    }
+
+    private static void appendFight(StringBuilder json, FightResult fight) {
+        json.append("{\"fighterStatsList\":[");
+        List<FighterStats> fighters = fight.getFighterStatsList();
+        for (int i = 0; i < fighters.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendFighter(json, fighters.get(i));
+        }
+        json.append("],");
+        field(json, "weightClass", fight.getWeightClass()).append(',');
+        field(json, "method", fight.getMethod()).append(',');
+        field(json, "round", fight.getRound()).append(',');
+        field(json, "finalRoundEndTime", fight.getFinalRoundEndTime()).append(',');
+        json.append("\"titleFight\":").append(fight.isTitleFight());
+        if (fight.getFightDetailLink() != null) {
+            json.append(',');
+            field(json, "fightDetailLink", fight.getFightDetailLink());
+        }
+        json.append('}');
+    }
+
+    private static void appendFighter(StringBuilder json, FighterStats stats) {
+        json.append('{');
+        field(json, "name", stats.getName());
+        if (stats.getProfileUrl() != null) {
+            json.append(',');
+            field(json, "profileUrl", stats.getProfileUrl());
+        }
+        count(json.append(",\"knockdowns\":"), stats.getKnockdowns());
+        count(json.append(",\"significantStrikes\":"), stats.getSignificantStrikes());
+        count(json.append(",\"takedowns\":"), stats.getTakedowns());
+        count(json.append(",\"submissionAttempts\":"), stats.getSubmissionAttempts());
+        json.append(",\"winner\":").append(stats.isWinner());
+        if (stats.getProfile() != null) {
+            json.append(",\"profile\":");
+            appendProfile(json, stats.getProfile());
+        }
+        if (!stats.getRoundStats().isEmpty()) {
+            json.append(",\"roundStats\":[");
+            List<RoundStats> rounds = stats.getRoundStats();
+            for (int i = 0; i < rounds.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendRound(json, rounds.get(i));
+            }
+            json.append(']');
+        }
+        json.append('}');
+    }
+
+    private static void appendProfile(StringBuilder json, FighterProfile profile) {
+        json.append('{');
+        field(json, "name", profile.getName()).append(',');
+        field(json, "heightInches", profile.getHeightInches()).append(',');
+        field(json, "reachInches", profile.getReachInches()).append(',');
+        field(json, "stance", profile.getStance()).append(',');
+        field(json, "dateOfBirth", profile.getDateOfBirth());
+        json.append('}');
+    }
+
+    private static void appendRound(StringBuilder json, RoundStats round) {
+        json.append('{');
+        field(json, "round", round.getRound());
+        count(json.append(",\"knockdowns\":"), round.getKnockdowns());
+        count(json.append(",\"significantStrikesLanded\":"), round.getSignificantStrikesLanded());
+        count(json.append(",\"significantStrikesAttempted\":"), round.getSignificantStrikesAttempted());
+        count(json.append(",\"totalStrikesLanded\":"), round.getTotalStrikesLanded());
+        count(json.append(",\"totalStrikesAttempted\":"), round.getTotalStrikesAttempted());
+        count(json.append(",\"takedownsLanded\":"), round.getTakedownsLanded());
+        count(json.append(",\"takedownsAttempted\":"), round.getTakedownsAttempted());
+        count(json.append(",\"submissionAttempts\":"), round.getSubmissionAttempts());
+        field(json.append(','), "controlTime", round.getControlTime());
+        count(json.append(",\"headStrikesLanded\":"), round.getHeadStrikesLanded());
+        count(json.append(",\"headStrikesAttempted\":"), round.getHeadStrikesAttempted());
+        count(json.append(",\"bodyStrikesLanded\":"), round.getBodyStrikesLanded());
+        count(json.append(",\"bodyStrikesAttempted\":"), round.getBodyStrikesAttempted());
+        count(json.append(",\"legStrikesLanded\":"), round.getLegStrikesLanded());
+        count(json.append(",\"legStrikesAttempted\":"), round.getLegStrikesAttempted());
+        json.append('}');
+    }
+
+    /**
+     * Appends {@code "name":value}; numbers are written bare, everything else as a JSON string.
+     */
+    private static StringBuilder field(StringBuilder json, String name, Object value) {
+        json.append('"').append(name).append("\":");
+        if (value == null) {
+            return json.append("null");
+        }
+        if (value instanceof Number) {
+            return json.append(value);
+        }
+        return string(json, value instanceof Enum<?> e ? e.name() : value.toString());
+    }
+
+    /**
+     * Appends a fight-row or round count, or {@code null} if the site did not record it.
+     */
+    private static StringBuilder count(StringBuilder json, int count) {
+        return count == FighterStats.MISSING ? json.append("null") : json.append(count);
+    }
+
+    private static StringBuilder string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
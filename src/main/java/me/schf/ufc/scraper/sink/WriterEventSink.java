@@ -0,0 +1,66 @@
+package me.schf.ufc.scraper.sink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import me.schf.ufc.scraper.data.Event;
+
+/**
+ * Base for text sinks: output is buffered and flushed at most every {@code flushInterval}, so
+ * progress shows up in the file during a long scrape without a write call per line.
+ */
+public abstract class WriterEventSink implements EventSink {
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(5);
+
+    private final Writer writer;
+    private final long flushIntervalNanos;
+    private long lastFlushNanos = System.nanoTime();
+    private boolean headerWritten;
+
+    protected WriterEventSink(Writer writer, Duration flushInterval) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+        this.flushIntervalNanos = flushInterval.toNanos();
+    }
+
+    protected static Writer newWriter(Path file) throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void write(Event event) throws IOException {
+        if (!headerWritten) {
+            writeHeader(writer);
+            headerWritten = true;
+        }
+        writeEvent(event, writer);
+        if (System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        writer.flush();
+        lastFlushNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!headerWritten) {
+            writeHeader(writer);
+            headerWritten = true;
+        }
+        writer.close();
+    }
+
+    protected void writeHeader(Writer out) throws IOException {
+    }
+
+    protected abstract void writeEvent(Event event, Writer out) throws IOException;
+}
@@ -0,0 +1,55 @@
+package me.schf.ufc.scraper.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense, stable integer ids to strings in first-seen order.
+ * <p>
+ * Used to dictionary-encode fighter and event names, which repeat across thousands of rows, so
+ * each distinct value is stored once and rows refer to it by id. Not thread-safe.
+ * </p>
+ */
+public class StringDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Returns the id of {@code value}, assigning the next free id if it has not been seen yet.
+     */
+    public int idOf(String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /**
+     * @return the id of {@code value}, or {@code -1} if it is not in the dictionary
+     */
+    public int find(String value) {
+        return ids.getOrDefault(value, -1);
+    }
+
+    public String get(int id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return the strings in id order
+     */
+    public List<String> values() {
+        return Collections.unmodifiableList(values);
+    }
+}
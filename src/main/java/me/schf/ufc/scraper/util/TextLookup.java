@@ -0,0 +1,49 @@
+package me.schf.ufc.scraper.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lookup of enum constants by their display text, built once per enum.
+ * <p>
+ * Scraped text normally matches a constant's text exactly and is answered by a single hash
+ * lookup without allocating. A case-insensitive lookup only falls back to a lower-cased copy for
+ * text that differs in case.
+ * </p>
+ */
+public class TextLookup<E extends Enum<E>> {
+
+    private final Map<String, E> exact = new HashMap<>();
+    private final Map<String, E> folded;
+
+    /**
+     * Creates a case-insensitive lookup.
+     */
+    public TextLookup(E[] constants, Function<E, String> text) {
+        this(constants, text, true);
+    }
+
+    public TextLookup(E[] constants, Function<E, String> text, boolean ignoreCase) {
+        this.folded = ignoreCase ? new HashMap<>() : null;
+        for (E constant : constants) {
+            exact.put(text.apply(constant), constant);
+            if (ignoreCase) {
+                folded.put(text.apply(constant).toLowerCase(Locale.ROOT), constant);
+            }
+        }
+    }
+
+    /**
+     * @return the constant whose text equals {@code text}, ignoring case if this lookup does, or
+     *         {@code null} if there is none
+     */
+    public E find(String text) {
+        if (text == null) {
+            return null;
+        }
+        E constant = exact.get(text);
+        return constant != null || folded == null ? constant : folded.get(text.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,60 @@
+package me.schf.ufc.scraper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import me.schf.ufc.scraper.data.FighterProfile;
+
+class FighterProfileScraperTest {
+
+    private static final String URL = "http://ufcstats.com/fighter-details/0123456789abcdef";
+
+    private final FighterProfileScraper scraper = new FighterProfileScraper();
+
+    @Test
+    void parsesTheUsualFormats() {
+        FighterProfile profile = parse("5' 11\"", "74.0\"", "Jul 22, 1989");
+
+        assertThat(profile.getHeightInches()).isEqualTo(71);
+        assertThat(profile.getReachInches()).isEqualTo(74);
+        assertThat(profile.getDateOfBirth()).isEqualTo(LocalDate.of(1989, 7, 22));
+    }
+
+    @Test
+    void acceptsHeightsWithoutInchesAndFractionalReaches() {
+        FighterProfile profile = parse("6'", "74.5\"", "Feb 29, 1996");
+
+        assertThat(profile.getHeightInches()).isEqualTo(72);
+        assertThat(profile.getReachInches()).isEqualTo(74);
+        assertThat(profile.getDateOfBirth()).isEqualTo(LocalDate.of(1996, 2, 29));
+    }
+
+    @Test
+    void leavesUnparseableValuesUnset() {
+        FighterProfile profile = parse("tall", "74 cm\"", "1989-07-22");
+
+        assertThat(profile.getName()).isEqualTo("Dustin Poirier");
+        assertThat(profile.getHeightInches()).isNull();
+        assertThat(profile.getReachInches()).isNull();
+        assertThat(profile.getDateOfBirth()).isNull();
+        assertThat(parse("5' x\"", "--", "Feb 30, 1990").getHeightInches()).isNull();
+        assertThat(parse("5' x\"", "--", "Feb 30, 1990").getDateOfBirth()).isNull();
+    }
+
+    private FighterProfile parse(String height, String reach, String dateOfBirth) {
+        String html = "<html><body><span class=\"b-content__title-highlight\">Dustin Poirier</span>"
+                + "<ul class=\"b-list__box-list\">"
+                + item("Height:", height) + item("Reach:", reach) + item("DOB:", dateOfBirth)
+                + "</ul></body></html>";
+        return scraper.parseProfile(URL, Jsoup.parse(html));
+    }
+
+    private static String item(String title, String value) {
+        return "<li class=\"b-list__box-list-item\"><i class=\"b-list__box-item-title\">" + title + "</i> "
+                + value + "</li>";
+    }
+}
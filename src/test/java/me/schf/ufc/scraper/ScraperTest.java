@@ -0,0 +1,121 @@
+package me.schf.ufc.scraper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ProxySelector;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.fetch.CachePolicy;
+import me.schf.ufc.scraper.fetch.CachedResponse;
+import me.schf.ufc.scraper.fetch.ResponseCache;
+
+/**
+ * Runs scrapes through the fetcher chain {@link Scraper} builds, against a {@link StubSite}.
+ */
+class ScraperTest {
+
+    private static final LocalDate EVENT_DATE = LocalDate.of(2015, 1, 3);
+
+    private StubSite site;
+    private ProxySelector defaultProxySelector;
+
+    @BeforeEach
+    void startSite() throws IOException {
+        site = StubSite.start(List.of(EVENT_DATE));
+        defaultProxySelector = ProxySelector.getDefault();
+        // clients pick up the default selector when they are built
+        ProxySelector.setDefault(site.proxySelector());
+    }
+
+    @AfterEach
+    void stopSite() {
+        ProxySelector.setDefault(defaultProxySelector);
+        site.close();
+    }
+
+    @Test
+    void fighterProfilesAreRetriedAndParsedWithoutACache() throws IOException {
+        site.failNext(StubSite.winnerUrl(EVENT_DATE), 1);
+
+        List<Event> events = scraper().build().doScrape();
+
+        assertThat(profileNames(events)).containsExactly("Winner " + EVENT_DATE, "Loser " + EVENT_DATE);
+        assertThat(events.get(0).getFightResults().get(0).getFighterStatsList().get(0).getProfile().getHeightInches())
+                .isEqualTo(70);
+        assertThat(site.getRequests()).filteredOn(StubSite.winnerUrl(EVENT_DATE)::equals).hasSize(2);
+    }
+
+    @Test
+    void profilesTheCacheDoesNotKeepArePassedThroughUnstored() throws IOException {
+        MemoryCache cache = new MemoryCache();
+
+        List<Event> events = scraper()
+                .responseCache(cache)
+                .cachePolicy(new CachePolicy.Builder().defaultTtl(Duration.ZERO).build())
+                .build()
+                .doScrape();
+
+        assertThat(profileNames(events)).containsExactly("Winner " + EVENT_DATE, "Loser " + EVENT_DATE);
+        assertThat(cache.entries).containsOnlyKeys(StubSite.LISTING_URL, StubSite.EVENT_URL + EVENT_DATE);
+    }
+
+    @Test
+    void cachedProfilesAreParsedWithoutARequest() throws IOException {
+        MemoryCache cache = new MemoryCache();
+        for (String url : List.of(StubSite.winnerUrl(EVENT_DATE), StubSite.loserUrl(EVENT_DATE))) {
+            cache.put(new CachedResponse(url, site.getPages().get(url).getBytes(StandardCharsets.UTF_8), "UTF-8",
+                    null, null, Instant.now()));
+        }
+
+        List<Event> events = scraper().responseCache(cache).build().doScrape();
+
+        assertThat(profileNames(events)).containsExactly("Winner " + EVENT_DATE, "Loser " + EVENT_DATE);
+        assertThat(site.getRequests()).noneMatch(url -> url.startsWith(StubSite.FIGHTER_URL));
+    }
+
+    private static Scraper.Builder scraper() {
+        return new Scraper.Builder()
+                .requestsPerSecond(1000)
+                .maxAttempts(2)
+                .fighterProfiles(true)
+                .startDate(EVENT_DATE)
+                .endDate(EVENT_DATE);
+    }
+
+    private static List<String> profileNames(List<Event> events) {
+        return events.stream()
+                .flatMap(event -> event.getFightResults().stream())
+                .flatMap(fight -> fight.getFighterStatsList().stream())
+                .map(FighterStats::getProfile)
+                .map(profile -> profile.getName())
+                .toList();
+    }
+
+    private static final class MemoryCache implements ResponseCache {
+        private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<CachedResponse> get(String url) {
+            return Optional.ofNullable(entries.get(url));
+        }
+
+        @Override
+        public void put(CachedResponse response) {
+            entries.put(response.getUrl(), response);
+        }
+    }
+}
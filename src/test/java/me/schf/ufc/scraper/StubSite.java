@@ -0,0 +1,210 @@
+package me.schf.ufc.scraper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the statistics site: a plain HTTP proxy that answers requests for site
+ * URLs with generated pages, so scrapers run end to end without going to the network.
+ * <p>
+ * Every event has one fight between two fighters with profile pages. Point this JVM's clients at
+ * it with {@link #proxySelector()}, or a child JVM with {@link #proxyProperties()}.
+ * </p>
+ */
+public final class StubSite implements AutoCloseable {
+
+    public static final String LISTING_URL = "http://www.ufcstats.com/statistics/events/completed?page=all";
+    public static final String EVENT_URL = "http://www.ufcstats.com/event-details/";
+    public static final String FIGHTER_URL = "http://www.ufcstats.com/fighter-details/";
+
+    private static final DateTimeFormatter LISTING_DATE = DateTimeFormatter.ofPattern("MMMM dd, yyyy", Locale.ENGLISH);
+
+    private final HttpServer server;
+    private final Map<String, String> pages;
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile Duration delay = Duration.ZERO;
+
+    private StubSite(List<LocalDate> eventDates) throws IOException {
+        pages = new ConcurrentHashMap<>(pages(eventDates));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * Starts a site listing one event on each of {@code eventDates}, newest first.
+     */
+    public static StubSite start(List<LocalDate> eventDates) throws IOException {
+        return new StubSite(eventDates);
+    }
+
+    /**
+     * @return the pages of a site listing one event on each of {@code eventDates}, by URL, e.g.
+     *         to fill a response cache
+     */
+    public static Map<String, String> pages(List<LocalDate> eventDates) {
+        Map<String, String> pages = new HashMap<>();
+        pages.put(LISTING_URL, listingPage(eventDates));
+        for (LocalDate date : eventDates) {
+            pages.put(EVENT_URL + date, eventPage(date));
+            pages.put(winnerUrl(date), profilePage("Winner " + date));
+            pages.put(loserUrl(date), profilePage("Loser " + date));
+        }
+        return pages;
+    }
+
+    public static String winnerUrl(LocalDate date) {
+        return FIGHTER_URL + "a" + date;
+    }
+
+    public static String loserUrl(LocalDate date) {
+        return FIGHTER_URL + "b" + date;
+    }
+
+    /**
+     * @return the pages served, by URL
+     */
+    public Map<String, String> getPages() {
+        return pages;
+    }
+
+    /**
+     * @return the URLs requested so far, in order
+     */
+    public List<String> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Answers the next {@code times} requests for {@code url} with {@code 503} and
+     * {@code Retry-After: 0}.
+     */
+    public void failNext(String url, int times) {
+        failures.put(url, new AtomicInteger(times));
+    }
+
+    /**
+     * Holds every response for {@code delay}, so a scrape takes long enough to be interrupted.
+     */
+    public void slowDown(Duration delay) {
+        this.delay = delay;
+    }
+
+    public ProxySelector proxySelector() {
+        return ProxySelector.of(server.getAddress());
+    }
+
+    /**
+     * @return the {@code -D} options that route a child JVM's HTTP requests through this site
+     */
+    public List<String> proxyProperties() {
+        return List.of("-Dhttp.proxyHost=" + server.getAddress().getHostString(),
+                "-Dhttp.proxyPort=" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // proxied requests carry the absolute URL
+            String url = exchange.getRequestURI().toString();
+            requests.add(url);
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            AtomicInteger failuresLeft = failures.get(url);
+            if (failuresLeft != null && failuresLeft.getAndDecrement() > 0) {
+                exchange.getResponseHeaders().set("Retry-After", "0");
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            String page = pages.get(url);
+            if (page == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = page.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    public static String listingPage(List<LocalDate> eventDates) {
+        StringBuilder listing = new StringBuilder("<html><body><table class=\"b-statistics__table-events\"><tbody>"
+                + "<tr class=\"b-statistics__table-row\"><td class=\"b-statistics__table-col\"></td></tr>");
+        for (LocalDate date : eventDates) {
+            listing.append("<tr class=\"b-statistics__table-row\"><td class=\"b-statistics__table-col\">")
+                    .append("<i class=\"b-statistics__table-content\"><a href=\"").append(EVENT_URL).append(date)
+                    .append("\" class=\"b-link b-link_style_black\">UFC ").append(date).append("</a>")
+                    .append("<span class=\"b-statistics__date\">").append(LISTING_DATE.format(date))
+                    .append("</span></i></td><td class=\"b-statistics__table-col\">Las Vegas</td></tr>");
+        }
+        return listing.append("</tbody></table></body></html>").toString();
+    }
+
+    public static String eventPage(LocalDate date) {
+        StringBuilder page = new StringBuilder("<html><body><table class=\"b-fight-details__table js-fight-table\">"
+                + "<thead class=\"b-fight-details__table-head\"><tr class=\"b-fight-details__table-row\">");
+        for (String column : List.of("W/L", "Fighter", "Kd", "Str", "Td", "Sub", "Weight class", "Method", "Round", "Time")) {
+            page.append("<th class=\"b-fight-details__table-col\">").append(column).append("</th>");
+        }
+        page.append("</tr></thead><tbody class=\"b-fight-details__table-body\"><tr class=\"b-fight-details__table-row\">")
+                .append(cell("<a class=\"b-flag b-flag_style_green\"><i class=\"b-flag__text\">win</i></a>"))
+                .append(cell(fighterLink(winnerUrl(date), "Winner " + date), fighterLink(loserUrl(date), "Loser " + date)));
+        for (int i = 0; i < 4; i++) {
+            page.append(cell("1", "0"));
+        }
+        page.append(cell("Lightweight")).append(cell("KO/TKO", "Punches")).append(cell("1")).append(cell("4:20"))
+                .append("</tr></tbody></table></body></html>");
+        return page.toString();
+    }
+
+    public static String profilePage(String name) {
+        return "<html><body><span class=\"b-content__title-highlight\">" + name + "</span>"
+                + "<ul class=\"b-list__box-list\">"
+                + "<li class=\"b-list__box-list-item\"><i class=\"b-list__box-item-title\">Height:</i> 5' 10\"</li>"
+                + "<li class=\"b-list__box-list-item\"><i class=\"b-list__box-item-title\">Reach:</i> 72\"</li>"
+                + "</ul></body></html>";
+    }
+
+    private static String fighterLink(String url, String name) {
+        return "<a href=\"" + url + "\" class=\"b-link b-link_style_black\">" + name + "</a>";
+    }
+
+    private static String cell(String... paragraphs) {
+        StringBuilder cell = new StringBuilder("<td class=\"b-fight-details__table-col\">");
+        for (String paragraph : paragraphs) {
+            cell.append("<p class=\"b-fight-details__table-text\">").append(paragraph).append("</p>");
+        }
+        return cell.append("</td>").toString();
+    }
+}
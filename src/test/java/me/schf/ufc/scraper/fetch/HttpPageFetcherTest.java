@@ -0,0 +1,287 @@
+package me.schf.ufc.scraper.fetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpPageFetcherTest {
+
+    private static final String PAGE = "<html><head><title>Fight Night</title></head><body><p>Poirier</p></body></html>";
+
+    private HttpServer server;
+    private HttpPageFetcher fetcher;
+    private final List<HttpExchange> requests = new CopyOnWriteArrayList<>();
+    private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+        fetcher = new HttpPageFetcher(new RateLimiter(0, 1), HttpPageFetcher.newHttpClient(Duration.ofSeconds(5)),
+                Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void decodesGzipBodies() throws IOException {
+        serve("/gzip", exchange -> respond(exchange, 200, "text/html; charset=UTF-8", "gzip", gzip(utf8(PAGE))));
+
+        FetchResponse response = fetcher.fetch(url("/gzip"), Map.of());
+
+        assertThat(requests.get(0).getRequestHeaders().getFirst("Accept-Encoding")).contains("gzip");
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo(PAGE);
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(fetcher.fetchDocument(url("/gzip")).title()).isEqualTo("Fight Night");
+    }
+
+    @Test
+    void decodesDeflateBodies() throws IOException {
+        serve("/deflate", exchange -> respond(exchange, 200, "text/html; charset=UTF-8", "deflate", deflate(utf8(PAGE))));
+
+        FetchResponse response = fetcher.fetch(url("/deflate"), Map.of());
+
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo(PAGE);
+        assertThat(fetcher.fetchDocument(url("/deflate")).select("p").text()).isEqualTo("Poirier");
+    }
+
+    @Test
+    void takesTheCharsetFromTheContentType() throws IOException {
+        byte[] body = "<html><body><p>José Aldo</p></body></html>".getBytes(StandardCharsets.ISO_8859_1);
+        serve("/latin1", exchange -> respond(exchange, 200, "text/html; charset=\"ISO-8859-1\"", null, body));
+
+        FetchResponse response = fetcher.fetch(url("/latin1"), Map.of());
+        Document document = fetcher.fetchDocument(url("/latin1"));
+
+        assertThat(response.getCharset()).isEqualTo("ISO-8859-1");
+        assertThat(response.parse().select("p").text()).isEqualTo("José Aldo");
+        assertThat(document.select("p").text()).isEqualTo("José Aldo");
+    }
+
+    @Test
+    void detectsTheCharsetFromAMetaTagWhenTheContentTypeHasNone() throws IOException {
+        byte[] body = ("<html><head><meta charset=\"windows-1252\"></head>"
+                + "<body><p>José Aldo – featherweight</p></body></html>").getBytes(Charset.forName("windows-1252"));
+        serve("/meta", exchange -> respond(exchange, 200, "text/html", "gzip", gzip(body)));
+
+        FetchResponse response = fetcher.fetch(url("/meta"), Map.of());
+        Document document = fetcher.fetchDocument(url("/meta"));
+
+        assertThat(response.getCharset()).isNull();
+        assertThat(response.parse().select("p").text()).isEqualTo("José Aldo – featherweight");
+        assertThat(document.select("p").text()).isEqualTo("José Aldo – featherweight");
+    }
+
+    @Test
+    void revalidatesStaleCacheEntriesWithNotModified() throws IOException {
+        AtomicInteger hits = new AtomicInteger();
+        serve("/cached", exchange -> {
+            if (hits.getAndIncrement() == 0) {
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                exchange.getResponseHeaders().set("Last-Modified", "Sat, 07 Jun 2025 00:00:00 GMT");
+                respond(exchange, 200, "text/html; charset=UTF-8", "gzip", gzip(utf8(PAGE)));
+            } else {
+                respond(exchange, FetchResponse.NOT_MODIFIED, null, null, null);
+            }
+        });
+        MemoryCache cache = new MemoryCache();
+        CachingPageFetcher caching = new CachingPageFetcher(fetcher, cache,
+                new CachePolicy.Builder().defaultTtl(Duration.ZERO).build());
+
+        FetchResponse first = caching.fetch(url("/cached"), Map.of());
+        FetchResponse second = caching.fetch(url("/cached"), Map.of());
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).getRequestHeaders().getFirst("If-None-Match")).isEqualTo("\"v1\"");
+        assertThat(requests.get(1).getRequestHeaders().getFirst("If-Modified-Since"))
+                .isEqualTo("Sat, 07 Jun 2025 00:00:00 GMT");
+        assertThat(first.isFromCache()).isFalse();
+        assertThat(second.isFromCache()).isTrue();
+        assertThat(second.getBody()).isEqualTo(first.getBody()).isEqualTo(utf8(PAGE));
+        assertThat(second.getCharset()).isEqualTo("UTF-8");
+    }
+
+    @Test
+    void reportsRetryAfterOnThrottledResponses() {
+        serve("/throttled", exchange -> {
+            exchange.getResponseHeaders().set("Retry-After", "7");
+            respond(exchange, 429, "text/html", null, utf8("slow down"));
+        });
+
+        assertThatThrownBy(() -> fetcher.fetch(url("/throttled"), Map.of()))
+                .isInstanceOfSatisfying(FetchStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(429);
+                    assertThat(e.getRetryAfter()).contains(Duration.ofSeconds(7));
+                });
+    }
+
+    @Test
+    void retriesNoSoonerThanRetryAfterAndPausesTheRateLimiter() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        serve("/retry", exchange -> {
+            if (hits.getAndIncrement() == 0) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 503, "text/html", null, utf8("unavailable"));
+            } else {
+                respond(exchange, 200, "text/html; charset=UTF-8", null, utf8(PAGE));
+            }
+        });
+        RateLimiter rateLimiter = new RateLimiter(1000, 1);
+        HttpPageFetcher limited = new HttpPageFetcher(rateLimiter, HttpPageFetcher.newHttpClient(Duration.ofSeconds(5)),
+                Duration.ofSeconds(5));
+        RetryingPageFetcher retrying = new RetryingPageFetcher.Builder()
+                .delegate(limited)
+                .rateLimiter(rateLimiter)
+                .baseDelay(Duration.ofMillis(1))
+                .maxAttempts(2)
+                .build();
+
+        FetchResponse response = retrying.fetch(url("/retry"), Map.of());
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(requestTimes).hasSize(2);
+        assertThat(Duration.ofNanos(requestTimes.get(1) - requestTimes.get(0)))
+                .isGreaterThanOrEqualTo(Duration.ofMillis(950));
+
+        // the pause applies to every fetcher sharing the limiter, not only to the one retrying
+        rateLimiter.pauseUntil(System.nanoTime() + Duration.ofMillis(300).toNanos());
+        long start = System.nanoTime();
+        rateLimiter.acquire();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(250));
+    }
+
+    @Test
+    void decoratorsPassDocumentsThroughToTheStreamingFetcher() throws IOException {
+        AtomicInteger hits = new AtomicInteger();
+        serve("/profile", exchange -> {
+            if (hits.getAndIncrement() == 0) {
+                exchange.getResponseHeaders().set("Retry-After", "0");
+                respond(exchange, 503, "text/html", null, utf8("unavailable"));
+            } else {
+                respond(exchange, 200, "text/html; charset=UTF-8", "gzip", gzip(utf8(PAGE)));
+            }
+        });
+        List<String> documents = new CopyOnWriteArrayList<>();
+        PageFetcher streaming = new PageFetcher() {
+            @Override
+            public FetchResponse fetch(String url, Map<String, String> headers) {
+                throw new AssertionError("buffered fetch of " + url);
+            }
+
+            @Override
+            public Document fetchDocument(String url) throws IOException {
+                documents.add(url);
+                return fetcher.fetchDocument(url);
+            }
+        };
+        PageFetcher chain = new CachingPageFetcher(
+                new RetryingPageFetcher.Builder().delegate(streaming).baseDelay(Duration.ofMillis(1)).build(),
+                new MemoryCache(), new CachePolicy.Builder().defaultTtl(Duration.ZERO).build());
+
+        assertThat(chain.fetchDocument(url("/profile")).title()).isEqualTo("Fight Night");
+        assertThat(documents).containsExactly(url("/profile"), url("/profile"));
+    }
+
+    @Test
+    void parsesRetryAfterAsSecondsOrHttpDate() {
+        assertThat(HttpPageFetcher.parseRetryAfter("120")).isEqualTo(Duration.ofSeconds(120));
+        assertThat(HttpPageFetcher.parseRetryAfter("-5")).isEqualTo(Duration.ZERO);
+        assertThat(HttpPageFetcher.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).isEqualTo(Duration.ZERO);
+        assertThat(HttpPageFetcher.parseRetryAfter("soon")).isNull();
+        assertThat(HttpPageFetcher.parseRetryAfter(null)).isNull();
+    }
+
+    private void serve(String path, HttpHandler handler) {
+        server.createContext(path, exchange -> {
+            requestTimes.add(System.nanoTime());
+            requests.add(exchange);
+            try (exchange) {
+                handler.handle(exchange);
+            }
+        });
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String contentEncoding,
+            byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        if (contentEncoding != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", contentEncoding);
+        }
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class MemoryCache implements ResponseCache {
+        private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<CachedResponse> get(String url) {
+            return Optional.ofNullable(entries.get(url));
+        }
+
+        @Override
+        public void put(CachedResponse response) {
+            entries.put(response.getUrl(), response);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package me.schf.ufc.scraper.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.schf.ufc.scraper.Scraper;
+import me.schf.ufc.scraper.StubSite;
+import me.schf.ufc.scraper.data.Event;
+import me.schf.ufc.scraper.data.FightResult;
+import me.schf.ufc.scraper.data.FighterStats;
+import me.schf.ufc.scraper.fetch.CachedResponse;
+import me.schf.ufc.scraper.fetch.ResponseCache;
+
+class ShardQueueTest {
+
+    private static final Duration LEASE_TIMEOUT = Duration.ofSeconds(30);
+    private static final LocalDate FIRST = LocalDate.of(2015, 1, 3);
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+
+    @Test
+    void concurrentClaimsHandEachShardToOneWorker() throws Exception {
+        ShardQueue.create(dir, days(3), LEASE_TIMEOUT, 3);
+        int workers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Optional<ShardLease>>> claims = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                ShardQueue queue = ShardQueue.open(dir, clock);
+                String workerId = "worker-" + i;
+                claims.add(pool.submit(() -> {
+                    start.await();
+                    return queue.claim(workerId);
+                }));
+            }
+            start.countDown();
+
+            List<Integer> claimed = new ArrayList<>();
+            for (Future<Optional<ShardLease>> claim : claims) {
+                claim.get().ifPresent(lease -> {
+                    assertThat(lease.getAttempt()).isEqualTo(1);
+                    claimed.add(lease.getShard().getId());
+                });
+            }
+            assertThat(claimed).containsExactlyInAnyOrder(0, 1, 2);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverAndTheStaleHolderCannotComplete() throws IOException {
+        ShardQueue.create(dir, days(1), LEASE_TIMEOUT, 3);
+        ShardQueue first = ShardQueue.open(dir, clock);
+        ShardQueue second = ShardQueue.open(dir, clock);
+
+        ShardLease stale = first.claim("first").orElseThrow();
+        assertThat(second.claim("second")).isEmpty();
+
+        clock.advance(LEASE_TIMEOUT.dividedBy(2));
+        assertThat(stale.heartbeat()).isTrue();
+        clock.advance(LEASE_TIMEOUT.dividedBy(2));
+        assertThat(second.claim("second")).as("renewed by the heartbeat").isEmpty();
+
+        expireLeases();
+        ShardLease takeover = second.claim("second").orElseThrow();
+        assertThat(takeover.getAttempt()).isEqualTo(2);
+        assertThat(stale.isHeld()).isFalse();
+        assertThat(stale.heartbeat()).isFalse();
+        assertThat(stale.complete(output(event("stale", FIRST)))).isFalse();
+        assertThat(second.isDone(takeover.getShard())).isFalse();
+
+        assertThat(takeover.complete(output(event("fresh", FIRST)))).isTrue();
+        assertThat(eventNames(second)).containsExactly("fresh");
+    }
+
+    @Test
+    void completedShardKeepsItsAttemptAndIsNotClaimedAgain() throws IOException {
+        ShardQueue.create(dir, days(1), LEASE_TIMEOUT, 3);
+        ShardQueue queue = ShardQueue.open(dir, clock);
+        Shard shard = queue.getShards().get(0);
+
+        queue.claim("first").orElseThrow();
+        expireLeases();
+        ShardLease lease = queue.claim("second").orElseThrow();
+        assertThat(lease.complete(output(event("done", FIRST)))).isTrue();
+
+        clock.advance(LEASE_TIMEOUT.multipliedBy(10));
+        assertThat(queue.latestAttempt(shard)).isEqualTo(2);
+        assertThat(ShardQueue.open(dir, clock).claim("third")).isEmpty();
+        assertThat(queue.isFinished()).isTrue();
+        assertThat(queue.getFailedShards()).isEmpty();
+    }
+
+    @Test
+    void shardIsGivenUpAfterMaxAttempts() throws IOException {
+        ShardQueue.create(dir, days(2), LEASE_TIMEOUT, 2);
+        ShardQueue first = ShardQueue.open(dir, clock);
+        ShardQueue second = ShardQueue.open(dir, clock);
+        Shard shard = first.getShards().get(0);
+
+        ShardLease released = first.claim("first").orElseThrow();
+        released.release();
+        ShardLease expired = second.claim("second").orElseThrow();
+        assertThat(expired.getShard()).isEqualTo(shard);
+        assertThat(expired.getAttempt()).isEqualTo(2);
+        assertThat(first.isFailed(shard)).isFalse();
+
+        expireLeases();
+        ShardLease other = first.claim("first").orElseThrow();
+        assertThat(other.getShard().getId()).isEqualTo(1);
+        assertThat(first.isFailed(shard)).isTrue();
+        assertThat(second.claim("second")).isEmpty();
+        assertThat(first.isFinished()).isFalse();
+
+        assertThat(other.complete(output(event("other", FIRST.plusDays(1))))).isTrue();
+        assertThat(second.isFinished()).isTrue();
+        assertThat(second.getFailedShards()).containsExactly(shard);
+    }
+
+    @Test
+    void mergeWritesShardsInPlanOrderWhateverOrderTheyCompletedIn() throws IOException {
+        // shard 0 holds the newest events
+        List<Shard> shards = List.of(
+                new Shard(0, FIRST.plusDays(20), FIRST.plusDays(29)),
+                new Shard(1, FIRST.plusDays(10), FIRST.plusDays(19)),
+                new Shard(2, FIRST, FIRST.plusDays(9)));
+        ShardQueue.create(dir, shards, LEASE_TIMEOUT, 3);
+        ShardQueue queue = ShardQueue.open(dir, clock);
+        List<ShardLease> leases = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            leases.add(queue.claim("worker").orElseThrow());
+        }
+
+        for (int i = shards.size() - 1; i >= 0; i--) {
+            Shard shard = leases.get(i).getShard();
+            List<Event> output = List.of(
+                    event("shard " + shard.getId() + " newer", shard.getEndDate()),
+                    event("shard " + shard.getId() + " older", shard.getStartDate()));
+            assertThat(leases.get(i).complete(output)).isTrue();
+        }
+
+        assertThat(eventNames(queue)).containsExactly(
+                "shard 0 newer", "shard 0 older",
+                "shard 1 newer", "shard 1 older",
+                "shard 2 newer", "shard 2 older");
+    }
+
+    @Test
+    void twoWorkersScrapeEveryShardExactlyOnce() throws Exception {
+        List<LocalDate> eventDates = new ArrayList<>();
+        for (int i = 11; i >= 0; i--) {
+            eventDates.add(FIRST.plusWeeks(i));
+        }
+        List<Shard> shards = ShardCoordinator.splitByDays(FIRST, FIRST.plusWeeks(11), 4);
+        ShardQueue.create(dir, shards, Duration.ofSeconds(2), 3);
+        FixtureCache fixtures = new FixtureCache(eventDates);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> runs = new ArrayList<>();
+            for (String workerId : List.of("worker-a", "worker-b")) {
+                ShardWorker worker = new ShardWorker.Builder()
+                        .queue(ShardQueue.open(dir))
+                        .workerId(workerId)
+                        .pollInterval(Duration.ofMillis(20))
+                        .scraper(() -> new Scraper.Builder().responseCache(fixtures))
+                        .build();
+                runs.add(pool.submit(worker::run));
+            }
+            int completed = 0;
+            for (Future<Integer> run : runs) {
+                completed += run.get();
+            }
+            assertThat(completed).isEqualTo(shards.size());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ShardQueue queue = ShardQueue.open(dir);
+        assertThat(queue.isFinished()).isTrue();
+        assertThat(queue.getFailedShards()).isEmpty();
+        assertThat(merged(queue)).map(line -> field(line, "eventDate"))
+                .containsExactlyElementsOf(eventDates.stream().map(LocalDate::toString).toList());
+    }
+
+    @Test
+    void workerProcessTakesOverTheShardOfOneKilledMidScrape() throws Exception {
+        List<LocalDate> eventDates = new ArrayList<>();
+        for (int i = 7; i >= 0; i--) {
+            eventDates.add(FIRST.plusWeeks(i));
+        }
+        List<Shard> shards = ShardCoordinator.splitByDays(FIRST, FIRST.plusWeeks(7), 4);
+        ShardQueue.create(dir, shards, Duration.ofSeconds(2), 3);
+        ShardQueue queue = ShardQueue.open(dir);
+
+        try (StubSite site = StubSite.start(eventDates)) {
+            // slow enough that a shard is still being scraped when its worker is killed
+            site.slowDown(Duration.ofMillis(300));
+            Process doomed = startWorker(site, "worker-a");
+            Process survivor = startWorker(site, "worker-b");
+            try {
+                Shard interrupted = awaitLease(queue, "worker-a");
+                doomed.destroyForcibly().waitFor();
+                assertThat(queue.isDone(interrupted)).as("killed mid-shard").isFalse();
+
+                assertThat(survivor.waitFor(60, TimeUnit.SECONDS)).as(() -> log("worker-b")).isTrue();
+                assertThat(survivor.exitValue()).as(() -> log("worker-b")).isZero();
+                assertThat(queue.latestAttempt(interrupted)).isEqualTo(2);
+            } finally {
+                doomed.destroyForcibly();
+                survivor.destroyForcibly();
+            }
+        }
+
+        assertThat(queue.isFinished()).isTrue();
+        assertThat(queue.getFailedShards()).isEmpty();
+        List<String> merged = merged(queue);
+        assertThat(merged).map(line -> field(line, "eventDate"))
+                .containsExactlyElementsOf(eventDates.stream().map(LocalDate::toString).toList());
+        // profiles are kept in the shard outputs
+        assertThat(merged).allSatisfy(line -> assertThat(line).contains("\"profile\":{\"name\":\"Winner "));
+    }
+
+    private Process startWorker(StubSite site, String workerId) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(site.proxyProperties());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ShardWorker.class.getName(),
+                dir.toString(), "--id", workerId, "--rate", "1000", "--fighter-profiles"));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve(workerId + ".log").toFile())
+                .start();
+    }
+
+    /**
+     * Waits until {@code workerId} holds the lease on a shard that is not done yet.
+     */
+    private Shard awaitLease(ShardQueue queue, String workerId) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            for (Shard shard : queue.getShards()) {
+                int attempt = queue.latestAttempt(shard);
+                if (attempt == 0 || queue.isDone(shard)) {
+                    continue;
+                }
+                try {
+                    String holder = Files.readString(queue.leaseFile(shard, attempt), StandardCharsets.UTF_8);
+                    if (holder.trim().equals(workerId)) {
+                        return shard;
+                    }
+                } catch (NoSuchFileException e) {
+                    // superseded in the meantime
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError(workerId + " never held a lease\n" + log(workerId));
+    }
+
+    private String log(String workerId) {
+        try {
+            return Files.readString(dir.resolve(workerId + ".log"), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "(no log: " + e + ")";
+        }
+    }
+
+    private void expireLeases() {
+        clock.advance(LEASE_TIMEOUT);
+    }
+
+    private static List<Shard> days(int count) {
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate day = FIRST.plusDays(count - 1 - i);
+            shards.add(new Shard(i, day, day));
+        }
+        return shards;
+    }
+
+    private static Event event(String name, LocalDate date) {
+        FighterStats winner = new FighterStats.Builder().name(name + " winner").isWinner(true).build();
+        FighterStats loser = new FighterStats.Builder().name(name + " loser").build();
+        return new Event.Builder()
+                .eventName(name)
+                .eventDate(date)
+                .fightResults(List.of(new FightResult.Builder()
+                        .fighterStatsList(List.of(winner, loser))
+                        .finalRoundEndTime(Duration.ofMinutes(5))
+                        .build()))
+                .build();
+    }
+
+    private static List<Event> output(Event event) {
+        return List.of(event);
+    }
+
+    /**
+     * @return the lines of the merged output, one event each
+     */
+    private List<String> merged(ShardQueue queue) throws IOException {
+        Path output = dir.resolve("merged.ndjson");
+        queue.mergeTo(output);
+        return Files.readAllLines(output, StandardCharsets.UTF_8);
+    }
+
+    private List<String> eventNames(ShardQueue queue) throws IOException {
+        return merged(queue).stream().map(line -> field(line, "eventName")).toList();
+    }
+
+    /**
+     * @return the first string value of {@code name} in a line of JSON
+     */
+    private static String field(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":\"([^\"]*)\"").matcher(json);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Serves the pages of a {@link StubSite} from the cache, so the scrapers never go to the
+     * network.
+     */
+    private static final class FixtureCache implements ResponseCache {
+        private final Map<String, String> pages;
+
+        FixtureCache(List<LocalDate> eventDates) {
+            this.pages = StubSite.pages(eventDates);
+        }
+
+        @Override
+        public Optional<CachedResponse> get(String url) {
+            String page = pages.get(url);
+            return page == null ? Optional.empty()
+                    : Optional.of(new CachedResponse(url, page.getBytes(StandardCharsets.UTF_8), "UTF-8", null, null,
+                            Instant.now()));
+        }
+
+        @Override
+        public void put(CachedResponse response) {
+            throw new AssertionError("unexpected network fetch of " + response.getUrl());
+        }
+    }
+}